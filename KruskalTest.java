@@ -13,9 +13,6 @@ public class KruskalTest {
 	private static final int VERTICES = 10;
 	private static final int MAXINT = 100;
 
-	private static boolean tree = true;
-	private static boolean minTree = true;
-
 	public static void addRandomEdges(WUGraph g, Object[] vertArray) {
 		int i, j;
 
@@ -33,91 +30,21 @@ public class KruskalTest {
 		}
 	}
 
-	public static void DFS(WUGraph t, DFSVertex current, DFSVertex prev,
-			int[] maxOnPath, int maxEdge) {
-		Neighbors neigh;
-		int i;
-
-		current.visited = true;
-		maxOnPath[current.number] = maxEdge;
-		neigh = t.getNeighbors(current);
-		if (neigh != null) {
-			for (i = 0; i < neigh.neighborList.length; i++) {
-				DFSVertex next = (DFSVertex) neigh.neighborList[i];
-				if (next.visited) {
-					if ((next != current) && (next != prev)) {
-						tree = false;
-						return;
-					}
-				} else if (neigh.weightList[i] > maxEdge) {
-					DFS(t, next, current, maxOnPath, neigh.weightList[i]);
-				} else {
-					DFS(t, next, current, maxOnPath, maxEdge);
-				}
-				if (!tree) {
-					return;
-				}
-			}
-		}
-	}
-
-	public static void DFSTest(WUGraph g, WUGraph t, DFSVertex[] vertArray) {
-		int[][] maxOnPath;
-		Neighbors neigh;
-		int i, j;
-
-		System.out.println("Testing the tree.");
-
-		maxOnPath = new int[VERTICES][VERTICES];
-		for (i = 0; i < VERTICES; i++) {
-			for (j = 0; j < VERTICES; j++) {
-				vertArray[j].visited = false;
-			}
-			DFS(t, vertArray[i], null, maxOnPath[i], -MAXINT);
-			for (j = 0; j < VERTICES; j++) {
-				if (!vertArray[j].visited) {
-					tree = false;
-				}
-			}
-			if (!tree) {
-				return;
-			}
-		}
-
-		// for (i = 0; i < vertArray.length; i++) {
-		// for (j = 0; j < vertArray.length; j++) {
-		// System.out.print(" " + maxOnPath[i][j]);
-		// }
-		// System.out.println();
-		// }
-
-		for (i = 0; i < VERTICES; i++) {
-			neigh = g.getNeighbors(vertArray[i]);
-			if (neigh != null) {
-				for (j = 0; j < neigh.neighborList.length; j++) {
-					int v = ((DFSVertex) neigh.neighborList[j]).number;
-					if (neigh.weightList[j] < maxOnPath[i][v]) {
-						minTree = false;
-					}
-				}
-			}
-		}
-	}
-
 	public static void main(String[] args) {
 		int i, j;
 		int score;
 		WUGraph g, t;
-		DFSVertex[] vertArray;
+		TestVertex[] vertArray;
+		MSTVerifier verifier;
 
 		System.out.println("Running minimum spanning tree test.");
 		System.out.println("Creating empty graph.");
 		g = new WUGraph();
 
 		System.out.println("Adding " + VERTICES + " vertices.");
-		vertArray = new DFSVertex[VERTICES];
+		vertArray = new TestVertex[VERTICES];
 		for (i = 0; i < VERTICES; i++) {
-			vertArray[i] = new DFSVertex();
+			vertArray[i] = new TestVertex();
 			vertArray[i].number = i;
 			g.addVertex(vertArray[i]);
 		}
@@ -149,20 +76,23 @@ public class KruskalTest {
 		// System.out.println();
 		// }
 
-		DFSTest(g, t, vertArray);
+		System.out.println("Testing the tree.");
+		verifier = new MSTVerifier(g, t);
 
-		if (tree) {
+		if (verifier.isSpanningForest() && t.edgeCount() == VERTICES - 1) {
 			System.out.println("One point for creating a tree.");
-			if (minTree) {
+			if (verifier.isMinimum()) {
 				System.out
 						.println("Two points for creating a minimum spanning tree.");
 				score = 3;
 			} else {
-				System.out.println("Not a minimum spanning tree.");
+				System.out.println("Not a minimum spanning tree: "
+						+ verifier.problem());
 				score = 1;
 			}
 		} else {
-			System.out.println("Not a tree.");
+			System.out.println("Not a tree: " + (verifier.problem() != null
+					? verifier.problem() : "the graph is not connected"));
 			score = 0;
 		}
 
@@ -172,7 +102,10 @@ public class KruskalTest {
 	}
 }
 
-class DFSVertex {
-	boolean visited;
+class TestVertex {
 	int number;
+
+	public String toString() {
+		return "v" + number;
+	}
 }
\ No newline at end of file
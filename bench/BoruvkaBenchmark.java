@@ -0,0 +1,54 @@
+/* BoruvkaBenchmark.java */
+
+package bench;
+
+import graph.*;
+import graphalg.*;
+
+/**
+ * BoruvkaBenchmark runs the parallel Boruvka engine on a random sparse graph
+ * with 1, 2, 4, ... threads (up to the given maximum) and prints the time of
+ * every round, followed by Kruskal on the same graph for comparison.
+ *
+ * Usage: java bench.BoruvkaBenchmark [edges] [maxThreads]
+ */
+
+public class BoruvkaBenchmark {
+
+	public static void main(String[] args) {
+		int edges = args.length > 0 ? Integer.parseInt(args[0]) : 4000000;
+		int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime
+				.getRuntime().availableProcessors();
+		CsrGraph g = KruskalBenchmark.randomGraph(edges, 1);
+
+		// Warm up the JIT.
+		Boruvka warmup = new Boruvka(maxThreads);
+		try {
+			warmup.minSpanTree(KruskalBenchmark.randomGraph(100000, 2));
+		} finally {
+			warmup.close();
+		}
+
+		for (int threads = 1; threads <= maxThreads; threads *= 2) {
+			Boruvka engine = new Boruvka(threads);
+			try {
+				long start = System.nanoTime();
+				CsrGraph tree = engine.minSpanTree(g);
+				long total = System.nanoTime() - start;
+				System.out.printf("%2d threads: %8.1f ms total, %d tree edges%n",
+						threads, total / 1e6, tree.edgeCount());
+				for (int r = 0; r < engine.roundCount(); r++) {
+					System.out.printf("    round %2d %8.1f ms%n", r,
+							engine.roundNanos(r) / 1e6);
+				}
+			} finally {
+				engine.close();
+			}
+		}
+
+		long start = System.nanoTime();
+		CsrGraph tree = Kruskal.minSpanTree(g);
+		System.out.printf("Kruskal:    %8.1f ms total, %d tree edges%n",
+				(System.nanoTime() - start) / 1e6, tree.edgeCount());
+	}
+}
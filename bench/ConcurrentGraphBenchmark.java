@@ -0,0 +1,177 @@
+/* ConcurrentGraphBenchmark.java */
+
+package bench;
+
+import graph.*;
+
+/**
+ * ConcurrentGraphBenchmark runs a mixed read/write workload from several
+ * threads against
+ *
+ *   - a WUGraph shared behind one global lock, as applications do today, and
+ *   - a ConcurrentWUGraph, with no external locking,
+ *
+ * and reports the total throughput of each. Each operation picks two random
+ * vertices; WRITE_PERCENT percent of operations are addEdge() or
+ * removeEdge() (half each), and the rest are isEdge(), weight(), or
+ * degree(). After the run the ConcurrentWUGraph is checked for consistency.
+ *
+ * Usage: java bench.ConcurrentGraphBenchmark [threads] [writePercent]
+ *                                            [vertices] [opsPerThread]
+ */
+
+public class ConcurrentGraphBenchmark {
+
+	/**
+	 * A Target adapts one of the graph classes to the workload.
+	 */
+	static abstract class Target {
+		abstract void addEdge(Object u, Object v, int weight);
+		abstract void removeEdge(Object u, Object v);
+		abstract long read(Object u, Object v, int kind);
+	}
+
+	static class Locked extends Target {
+		private final WUGraph g;
+
+		Locked(WUGraph g) {
+			this.g = g;
+		}
+
+		synchronized void addEdge(Object u, Object v, int weight) {
+			g.addEdge(u, v, weight);
+		}
+
+		synchronized void removeEdge(Object u, Object v) {
+			g.removeEdge(u, v);
+		}
+
+		synchronized long read(Object u, Object v, int kind) {
+			return kind == 0 ? (g.isEdge(u, v) ? 1 : 0) : kind == 1 ? g
+					.weight(u, v) : g.degree(u);
+		}
+	}
+
+	static class Concurrent extends Target {
+		private final ConcurrentWUGraph g;
+
+		Concurrent(ConcurrentWUGraph g) {
+			this.g = g;
+		}
+
+		void addEdge(Object u, Object v, int weight) {
+			g.addEdge(u, v, weight);
+		}
+
+		void removeEdge(Object u, Object v) {
+			g.removeEdge(u, v);
+		}
+
+		long read(Object u, Object v, int kind) {
+			return kind == 0 ? (g.isEdge(u, v) ? 1 : 0) : kind == 1 ? g
+					.weight(u, v) : g.degree(u);
+		}
+	}
+
+	/**
+	 * run() performs the workload on "target" with the given number of
+	 * threads and returns the elapsed nanoseconds.
+	 */
+	static long run(final Target target, final Integer[] names, int threads,
+			final int writePercent, final int opsPerThread)
+			throws InterruptedException {
+		Thread[] workers = new Thread[threads];
+		final long[] sinks = new long[threads];
+		for (int t = 0; t < threads; t++) {
+			final int id = t;
+			workers[t] = new Thread() {
+				public void run() {
+					java.util.Random random = new java.util.Random(id);
+					long sink = 0;
+					for (int i = 0; i < opsPerThread; i++) {
+						Integer u = names[random.nextInt(names.length)];
+						Integer v = names[random.nextInt(names.length)];
+						int dice = random.nextInt(200);
+						if (dice < writePercent) {
+							target.addEdge(u, v, i);
+						} else if (dice < 2 * writePercent) {
+							target.removeEdge(u, v);
+						} else {
+							sink += target.read(u, v, dice % 3);
+						}
+					}
+					sinks[id] = sink;
+				}
+			};
+		}
+		long start = System.nanoTime();
+		for (int t = 0; t < threads; t++) {
+			workers[t].start();
+		}
+		for (int t = 0; t < threads; t++) {
+			workers[t].join();
+		}
+		return System.nanoTime() - start;
+	}
+
+	/**
+	 * check() returns true if every vertex's degree matches its neighbor
+	 * list, every listed edge is found by isEdge() with the listed weight,
+	 * and the degrees add up to the edge count.
+	 */
+	static boolean check(ConcurrentWUGraph g) {
+		long halfEdges = 0;
+		int selfEdges = 0;
+		Object[] vertices = g.getVertices();
+		for (int i = 0; i < vertices.length; i++) {
+			Neighbors n = g.getNeighbors(vertices[i]);
+			int degree = n == null ? 0 : n.neighborList.length;
+			if (degree != g.degree(vertices[i])) {
+				return false;
+			}
+			for (int k = 0; k < degree; k++) {
+				if (g.weight(vertices[i], n.neighborList[k]) != n.weightList[k]) {
+					return false;
+				}
+				if (n.neighborList[k].equals(vertices[i])) {
+					selfEdges++;
+				}
+			}
+			halfEdges += degree;
+		}
+		return halfEdges + selfEdges == 2L * g.edgeCount();
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		int threads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+		int writePercent = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+		int vertexCount = args.length > 2 ? Integer.parseInt(args[2]) : 10000;
+		int opsPerThread = args.length > 3 ? Integer.parseInt(args[3])
+				: 1000000;
+		System.out.printf("%d threads, %d%% writes, %d vertices, %d cores%n",
+				threads, writePercent, vertexCount, Runtime.getRuntime()
+						.availableProcessors());
+
+		Integer[] names = new Integer[vertexCount];
+		WUGraph plain = new WUGraph();
+		ConcurrentWUGraph concurrent = new ConcurrentWUGraph();
+		for (int i = 0; i < vertexCount; i++) {
+			names[i] = i;
+			plain.addVertex(names[i]);
+			concurrent.addVertex(names[i]);
+		}
+
+		Target[] targets = { new Locked(plain), new Concurrent(concurrent) };
+		String[] labels = { "WUGraph + global lock", "ConcurrentWUGraph" };
+		for (int k = 0; k < targets.length; k++) {
+			// one warm-up run, then a timed run
+			run(targets[k], names, threads, writePercent, opsPerThread / 10);
+			long nanos = run(targets[k], names, threads, writePercent,
+					opsPerThread);
+			System.out.printf("%-24s %8.1f ms  %6.2f M ops/s%n", labels[k],
+					nanos / 1e6, (double) threads * opsPerThread * 1e3 / nanos);
+		}
+		System.out.println("ConcurrentWUGraph consistent: " + check(concurrent)
+				+ " (" + concurrent.edgeCount() + " edges)");
+	}
+}
@@ -0,0 +1,119 @@
+/* DictionaryBenchmark.java */
+
+package bench;
+
+import dict.*;
+
+/**
+ * DictionaryBenchmark compares HashTableChained and HashTableOpen on three
+ * operation mixes: inserting n distinct keys, finding every key (plus as many
+ * misses), and removing every key. Timings are wall-clock milliseconds of the
+ * best of several runs; the JIT is warmed up on a small table first.
+ *
+ * Usage: java bench.DictionaryBenchmark [maxEntries]
+ * The sizes run are 10^4, 10^5, ... up to maxEntries (default 10^6; pass
+ * 10000000 for 10^7, with a large enough heap).
+ */
+
+public class DictionaryBenchmark {
+
+	private final static int RUNS = 3;
+	private final static int WARMUP_SIZE = 10000;
+	private final static int WARMUP_RUNS = 20;
+
+	/**
+	 * makeKeys() returns n distinct Integer keys in a scrambled order, so that
+	 * neither table benefits from keys arriving in hash order.
+	 */
+	static Integer[] makeKeys(int n, int salt) {
+		Integer[] keys = new Integer[n];
+		for (int i = 0; i < n; i++) {
+			keys[i] = (i * 0x9E3779B1) ^ salt;
+		}
+		return keys;
+	}
+
+	/**
+	 * newTable() returns an empty table of the named kind.
+	 */
+	static Dictionary newTable(String kind) {
+		if (kind.equals("chained")) {
+			return new HashTableChained();
+		}
+		return new HashTableOpen();
+	}
+
+	/**
+	 * run() times one insert/find/remove cycle of the given keys on a fresh
+	 * table and stores the three times (in nanoseconds) in times.
+	 */
+	static void run(String kind, Integer[] hits, Integer[] misses,
+			long[] times) throws Exception {
+		Dictionary table = newTable(kind);
+		long start = System.nanoTime();
+		for (int i = 0; i < hits.length; i++) {
+			table.insert(hits[i], hits[i]);
+		}
+		long inserted = System.nanoTime();
+		int found = 0;
+		for (int i = 0; i < hits.length; i++) {
+			if (table.find(hits[i]) != null) {
+				found++;
+			}
+			try {
+				table.find(misses[i]);
+				found--;
+			} catch (InvalidKeyException e) {
+			}
+		}
+		long searched = System.nanoTime();
+		for (int i = 0; i < hits.length; i++) {
+			table.remove(hits[i]);
+		}
+		long removed = System.nanoTime();
+		if (found != hits.length || !table.isEmpty()) {
+			throw new IllegalStateException(kind + " returned wrong results");
+		}
+		times[0] = inserted - start;
+		times[1] = searched - inserted;
+		times[2] = removed - searched;
+	}
+
+	/**
+	 * best() runs the cycle RUNS times and returns the smallest time seen for
+	 * each phase.
+	 */
+	static long[] best(String kind, Integer[] hits, Integer[] misses, int runs)
+			throws Exception {
+		long[] best = { Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE };
+		long[] times = new long[3];
+		for (int r = 0; r < runs; r++) {
+			run(kind, hits, misses, times);
+			for (int i = 0; i < 3; i++) {
+				best[i] = Math.min(best[i], times[i]);
+			}
+		}
+		return best;
+	}
+
+	public static void main(String[] args) throws Exception {
+		int maxEntries = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+		String[] kinds = { "chained", "open" };
+
+		for (int k = 0; k < kinds.length; k++) {
+			best(kinds[k], makeKeys(WARMUP_SIZE, 0), makeKeys(WARMUP_SIZE, -1),
+					WARMUP_RUNS);
+		}
+
+		System.out.println("entries      table     insert(ms)  find hit+miss(ms)  remove(ms)");
+		for (int n = 10000; n <= maxEntries; n *= 10) {
+			Integer[] hits = makeKeys(n, 0);
+			Integer[] misses = makeKeys(n, -1);
+			for (int k = 0; k < kinds.length; k++) {
+				long[] t = best(kinds[k], hits, misses, RUNS);
+				System.out.printf("%-12d %-9s %10.1f %18.1f %11.1f%n", n,
+						kinds[k], t[0] / 1e6, t[1] / 1e6, t[2] / 1e6);
+			}
+		}
+	}
+}
@@ -0,0 +1,92 @@
+/* DisjointSetsBenchmark.java */
+
+package bench;
+
+import set.*;
+
+/**
+ * DisjointSetsBenchmark measures how ConcurrentDisjointSets scales with the
+ * number of threads. A fixed list of random element pairs is split evenly
+ * among 1, 2, 4, ... threads (up to the given maximum), and each thread calls
+ * unionIfDisjoint() on its share, as parallel edge filtering would. The
+ * single-threaded DisjointSets is timed on the same pairs as a baseline.
+ *
+ * Usage: java bench.DisjointSetsBenchmark [elements] [pairs] [maxThreads]
+ */
+
+public class DisjointSetsBenchmark {
+
+	private final static int RUNS = 3;
+
+	/**
+	 * runConcurrent() unites the pairs using "threads" threads and returns
+	 * the elapsed time in nanoseconds.
+	 */
+	static long runConcurrent(int elements, final int[] pairs, int threads)
+			throws InterruptedException {
+		final ConcurrentDisjointSets sets = new ConcurrentDisjointSets(elements);
+		Thread[] workers = new Thread[threads];
+		int share = (pairs.length / 2 + threads - 1) / threads;
+		long start = System.nanoTime();
+		for (int t = 0; t < threads; t++) {
+			final int from = Math.min(2 * t * share, pairs.length);
+			final int to = Math.min(2 * (t + 1) * share, pairs.length);
+			workers[t] = new Thread() {
+				public void run() {
+					for (int i = from; i < to; i += 2) {
+						sets.unionIfDisjoint(pairs[i], pairs[i + 1]);
+					}
+				}
+			};
+			workers[t].start();
+		}
+		for (int t = 0; t < threads; t++) {
+			workers[t].join();
+		}
+		return System.nanoTime() - start;
+	}
+
+	/**
+	 * runSequential() unites the pairs with a DisjointSets and returns the
+	 * elapsed time in nanoseconds.
+	 */
+	static long runSequential(int elements, int[] pairs) {
+		DisjointSets sets = new DisjointSets(elements);
+		long start = System.nanoTime();
+		for (int i = 0; i < pairs.length; i += 2) {
+			sets.unionIfDisjoint(pairs[i], pairs[i + 1]);
+		}
+		return System.nanoTime() - start;
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		int elements = args.length > 0 ? Integer.parseInt(args[0]) : 10000000;
+		int pairCount = args.length > 1 ? Integer.parseInt(args[1]) : 20000000;
+		int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime
+				.getRuntime().availableProcessors();
+
+		java.util.Random random = new java.util.Random(33);
+		int[] pairs = new int[2 * pairCount];
+		for (int i = 0; i < pairs.length; i++) {
+			pairs[i] = random.nextInt(elements);
+		}
+
+		long best = Long.MAX_VALUE;
+		for (int r = 0; r < RUNS; r++) {
+			best = Math.min(best, runSequential(elements, pairs));
+		}
+		System.out.printf("DisjointSets            %8.1f ms%n", best / 1e6);
+
+		for (int threads = 1; threads <= maxThreads; threads *= 2) {
+			best = Long.MAX_VALUE;
+			for (int r = 0; r < RUNS; r++) {
+				best = Math.min(best, runConcurrent(elements, pairs, threads));
+			}
+			System.out.printf("Concurrent, %2d threads  %8.1f ms%n", threads,
+					best / 1e6);
+			if (threads < maxThreads && threads * 2 > maxThreads) {
+				threads = maxThreads / 2;
+			}
+		}
+	}
+}
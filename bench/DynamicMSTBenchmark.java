@@ -0,0 +1,88 @@
+/* DynamicMSTBenchmark.java */
+
+package bench;
+
+import graph.*;
+import graphalg.*;
+
+/**
+ * DynamicMSTBenchmark starts from a random graph and applies BATCHES
+ * batches of random changes, reading the minimum spanning forest's weight
+ * after each batch. deletePercent percent of the changes remove a random
+ * existing edge and the rest add a random edge. It compares
+ *
+ *   - making the changes with no spanning forest kept (the cost of the
+ *     WUGraph operations alone),
+ *   - rerunning Kruskal.minSpanTree() on a frozen copy after every batch,
+ *     and
+ *   - keeping a DynamicMST attached to the graph,
+ *
+ * and checks that the last two agree after every batch.
+ *
+ * Usage: java bench.DynamicMSTBenchmark [edges] [batchSize] [deletePercent]
+ */
+
+public class DynamicMSTBenchmark {
+
+	private final static int BATCHES = 20;
+
+	/**
+	 * changeBatch() makes "count" random changes to g, whose vertices are
+	 * the Integers 0...n - 1: deletePercent percent of them remove an edge
+	 * of a random vertex, if it has any, and the rest add a random edge.
+	 */
+	static void changeBatch(WUGraph g, int n, int count, int deletePercent,
+			java.util.Random random) {
+		for (int i = 0; i < count; i++) {
+			Integer u = random.nextInt(n);
+			if (random.nextInt(100) < deletePercent) {
+				Neighbors neighbors = g.getNeighbors(u);
+				if (neighbors != null) {
+					g.removeEdge(u, neighbors.neighborList[random
+							.nextInt(neighbors.neighborList.length)]);
+				}
+			} else {
+				g.addEdge(u, random.nextInt(n), random.nextInt(1 << 24));
+			}
+		}
+	}
+
+	public static void main(String[] args) {
+		int edges = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+		int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+		int deletePercent = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+		CsrGraph source = KruskalBenchmark.randomGraph(edges, 18);
+		int n = source.vertexCount();
+		System.out.printf("%d vertices, %d edges, %d batches of %d changes, "
+				+ "%d%% deletions%n", n, source.edgeCount(), BATCHES,
+				batchSize, deletePercent);
+
+		String[] methods = { "changes only", "Kruskal per batch", "DynamicMST" };
+		long[] weights = new long[BATCHES];
+		int mismatches = 0;
+		for (int method = 0; method < methods.length; method++) {
+			WUGraph g = source.toWUGraph();
+			java.util.Random random = new java.util.Random(18);
+			long start = System.nanoTime();
+			DynamicMST forest = method == 2 ? new DynamicMST(g) : null;
+			long setup = System.nanoTime() - start;
+			start = System.nanoTime();
+			for (int b = 0; b < BATCHES; b++) {
+				changeBatch(g, n, batchSize, deletePercent, random);
+				if (method == 1) {
+					weights[b] = MappedGraphBenchmark.treeWeight(Kruskal
+							.minSpanTree(g.freeze()));
+				} else if (method == 2 && forest.weight() != weights[b]) {
+					mismatches++;
+				}
+			}
+			long nanos = System.nanoTime() - start;
+			System.out.printf("%-18s %9.1f ms  %8.3f us/change", methods[method],
+					nanos / 1e6, nanos / 1e3 / (BATCHES * batchSize));
+			System.out.println(method == 2 ? String.format(
+					"  (initial build %.1f ms)", setup / 1e6) : "");
+		}
+		System.out.println("DynamicMST disagreed with Kruskal after "
+				+ mismatches + " of " + BATCHES + " batches");
+	}
+}
@@ -0,0 +1,97 @@
+/* GeneratorBenchmark.java */
+
+package bench;
+
+import graph.*;
+import graphalg.*;
+import graphgen.*;
+
+/**
+ * GeneratorBenchmark builds a graph of about the given number of edges with
+ * each of the graphgen models and reports, for each:
+ *
+ *   - how fast the edges are generated, streamed to a sink that only
+ *     checksums them (a second run must give the same checksum);
+ *   - the time to build a CsrGraph with toCsrGraph(), and the number of
+ *     distinct edges it holds;
+ *   - the time of Kruskal.minSpanTree() on it, and the forest's weight;
+ *   - the time MSTVerifier takes to check that forest;
+ *   - when the graph is small enough, whether toWUGraph() holds the same
+ *     number of edges.
+ *
+ * Run it with a large heap for 10^8 edges (about 40 bytes per edge are
+ * needed for the CsrGraph and Kruskal).
+ *
+ * Usage: java bench.GeneratorBenchmark [edges] [seed]
+ */
+
+public class GeneratorBenchmark {
+
+	private final static int WUGRAPH_LIMIT = 2000000;
+
+	/**
+	 * A Checksum counts the edges it is given and hashes them in order.
+	 */
+	static class Checksum implements IdEdgeVisitor {
+		long count;
+		long hash;
+
+		public void visit(int u, int v, int weight) {
+			count++;
+			hash = hash * 31 + ((long) u << 40 ^ (long) v << 20 ^ weight);
+		}
+	}
+
+	static void measure(String name, GraphGenerator generator, long edges) {
+		long start = System.nanoTime();
+		Checksum first = new Checksum();
+		generator.generate(first);
+		long nanos = System.nanoTime() - start;
+		Checksum second = new Checksum();
+		generator.generate(second);
+		boolean repeatable = first.count == second.count
+				&& first.hash == second.hash;
+
+		start = System.nanoTime();
+		CsrGraph g = generator.toCsrGraph();
+		double build = KruskalBenchmark.millis(start);
+		start = System.nanoTime();
+		CsrGraph tree = Kruskal.minSpanTree(g);
+		double kruskal = KruskalBenchmark.millis(start);
+		start = System.nanoTime();
+		MSTVerifier verifier = new MSTVerifier(g, tree);
+		double verify = KruskalBenchmark.millis(start);
+
+		System.out.printf("%-22s %10d V %11d E %8.1f M edges/s %s%n", name,
+				generator.vertexCount(), g.edgeCount(), first.count * 1e3
+						/ nanos, repeatable ? "repeatable"
+						: "NOT REPEATABLE");
+		System.out.printf("%-22s csr %9.1f ms  kruskal %9.1f ms  forest "
+				+ "weight %d%n", "", build, kruskal,
+				MappedGraphBenchmark.treeWeight(tree));
+		System.out.printf("%-22s verify %6.1f ms  %s%n", "", verify, verifier
+				.isMinimum() ? "minimum spanning forest" : verifier.problem());
+		if (edges <= WUGRAPH_LIMIT) {
+			WUGraph w = generator.toWUGraph();
+			System.out.printf("%-22s WUGraph has %s edge count%n", "",
+					w.edgeCount() == g.edgeCount() ? "the same" : "a DIFFERENT");
+		}
+	}
+
+	public static void main(String[] args) {
+		long edges = args.length > 0 ? Long.parseLong(args[0]) : 1000000;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : 23;
+		int n = (int) Math.max(2, edges / 8);
+		int scale = 64 - Long.numberOfLeadingZeros(Math.max(1, edges / 16));
+		int side = (int) Math.max(1, Math.sqrt(edges / 2.0));
+
+		measure("Erdos-Renyi", GraphGenerator.erdosRenyi(n, edges, seed), edges);
+		measure("R-MAT", GraphGenerator.rmat(scale, edges, seed), edges);
+		measure("grid", GraphGenerator.grid(side, side, seed), edges);
+		measure("geometric", GraphGenerator.geometric(n, 16, seed), edges);
+		measure("Erdos-Renyi equal", GraphGenerator.erdosRenyi(n, edges, seed)
+				.withEqualWeights(1), edges);
+		measure("grid equal", GraphGenerator.grid(side, side, seed)
+				.withEqualWeights(1), edges);
+	}
+}
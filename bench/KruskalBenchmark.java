@@ -0,0 +1,148 @@
+/* KruskalBenchmark.java */
+
+package bench;
+
+import graph.*;
+import graphalg.*;
+import list.*;
+
+/**
+ * KruskalBenchmark times the edge sort and the whole of Kruskal's algorithm on
+ * random graphs with a given number of edges. Sparse graphs have one vertex
+ * per eight edges; dense graphs have about sqrt(4 * edges) vertices. For each
+ * size it reports:
+ *
+ *   - the old LinkedQueue merge sort of KruskalHelper objects,
+ *   - the array radix sort used by Kruskal now (ListSorts.sortByWeight),
+ *   - Kruskal.minSpanTree(WUGraph), and
+ *   - Kruskal.minSpanTree(CsrGraph), on a sparse and on a dense graph.
+ *
+ * The object-heavy measurements are skipped above OBJECT_LIMIT edges, since a
+ * WUGraph with 10^7 edges needs several gigabytes of heap.
+ *
+ * Usage: java bench.KruskalBenchmark [edges ...]   (default 1000000 10000000)
+ */
+
+public class KruskalBenchmark {
+
+	private final static int OBJECT_LIMIT = 2000000;
+	private final static int EDGES_PER_VERTEX = 8;
+
+	/**
+	 * randomGraph() returns a CsrGraph with "edges" random edges between
+	 * edges / EDGES_PER_VERTEX Integer vertices.
+	 */
+	static CsrGraph randomGraph(int edges, long seed) {
+		return randomGraph(edges, edges / EDGES_PER_VERTEX, seed);
+	}
+
+	/**
+	 * randomGraph() returns a CsrGraph with "edges" random edges between
+	 * "vertices" Integer vertices. Weights are uniform in 0...edges - 1.
+	 * A pair drawn more than once is kept once, so the graph may have
+	 * slightly fewer than "edges" edges.
+	 */
+	static CsrGraph randomGraph(int edges, int vertexCount, long seed) {
+		java.util.Random random = new java.util.Random(seed);
+		int n = Math.max(2, vertexCount);
+		Object[] vertices = new Object[n];
+		for (int i = 0; i < n; i++) {
+			vertices[i] = i;
+		}
+		int[] us = new int[edges];
+		int[] vs = new int[edges];
+		int[] ws = new int[edges];
+		for (int i = 0; i < edges; i++) {
+			us[i] = random.nextInt(n);
+			vs[i] = (us[i] + 1 + random.nextInt(n - 1)) % n;
+			ws[i] = random.nextInt(edges);
+		}
+		int count = CsrGraph.removeRepeats(n, us, vs, ws, edges);
+		return CsrGraph.fromEdges(vertices, us, vs, ws, count);
+	}
+
+	/**
+	 * edgeArrays() fills us, vs, and ws with the edges of g, each once, and
+	 * returns the number of edges.
+	 */
+	static int edgeArrays(CsrGraph g, int[] us, int[] vs, int[] ws) {
+		int count = 0;
+		for (int u = 0; u < g.vertexCount(); u++) {
+			for (int i = g.firstEdge(u); i < g.endEdge(u); i++) {
+				if (g.target(i) > u) {
+					us[count] = u;
+					vs[count] = g.target(i);
+					ws[count] = g.weight(i);
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+	static double millis(long start) {
+		return (System.nanoTime() - start) / 1e6;
+	}
+
+	static void measure(int edges) {
+		CsrGraph csr = randomGraph(edges, edges);
+		int[] us = new int[edges];
+		int[] vs = new int[edges];
+		int[] ws = new int[edges];
+		int count = edgeArrays(csr, us, vs, ws);
+
+		if (edges <= OBJECT_LIMIT) {
+			LinkedQueue queue = new LinkedQueue();
+			for (int i = 0; i < count; i++) {
+				queue.enqueue(new KruskalHelper(csr.vertex(us[i]), csr
+						.vertex(vs[i]), ws[i]));
+			}
+			long start = System.nanoTime();
+			ListSorts.mergeSort(queue);
+			System.out.printf("%-10d linked merge sort         %10.1f ms%n",
+					edges, millis(start));
+		}
+
+		long start = System.nanoTime();
+		ListSorts.sortByWeight(ws, us, vs, count);
+		System.out.printf("%-10d array radix sort          %10.1f ms%n", edges,
+				millis(start));
+
+		if (edges <= OBJECT_LIMIT) {
+			WUGraph g = csr.toWUGraph();
+			start = System.nanoTime();
+			WUGraph t = Kruskal.minSpanTree(g);
+			System.out.printf("%-10d minSpanTree(WUGraph)      %10.1f ms  (%d tree edges)%n",
+					edges, millis(start), t.edgeCount());
+		}
+
+		start = System.nanoTime();
+		CsrGraph tree = Kruskal.minSpanTree(csr);
+		System.out.printf("%-10d minSpanTree(CsrGraph)     %10.1f ms  (%d tree edges)%n",
+				edges, millis(start), tree.edgeCount());
+
+		csr = randomGraph(edges, (int) Math.sqrt(4.0 * edges), edges);
+		start = System.nanoTime();
+		tree = Kruskal.minSpanTree(csr);
+		System.out.printf("%-10d minSpanTree(dense CSR)    %10.1f ms  (%d tree edges)%n",
+				edges, millis(start), tree.edgeCount());
+	}
+
+	public static void main(String[] args) {
+		int[] sizes = { 1000000, 10000000 };
+		if (args.length > 0) {
+			sizes = new int[args.length];
+			for (int i = 0; i < args.length; i++) {
+				sizes[i] = Integer.parseInt(args[i]);
+			}
+		}
+		// Warm up the JIT on a small graph.
+		for (int r = 0; r < 5; r++) {
+			Kruskal.minSpanTree(randomGraph(50000, r));
+			Kruskal.minSpanTree(randomGraph(20000, r).toWUGraph());
+		}
+		for (int i = 0; i < sizes.length; i++) {
+			measure(sizes[i]);
+		}
+	}
+}
@@ -0,0 +1,144 @@
+/* LoaderBenchmark.java */
+
+package bench;
+
+import graph.*;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+/**
+ * LoaderBenchmark measures how fast an edge list can be turned into a
+ * WUGraph. It writes a random edge list to temporary text and binary files,
+ * then times:
+ *
+ *   - replaying the text file line by line with BufferedReader, split(),
+ *     addVertex(), and addEdge(), as an application would without a loader,
+ *   - EdgeListLoader.loadText(), and
+ *   - EdgeListLoader.loadBinary(),
+ *
+ * and reports each as edges per second.
+ *
+ * Usage: java bench.LoaderBenchmark [edges] [vertices]
+ */
+
+public class LoaderBenchmark {
+
+	private final static int RUNS = 3;
+
+	/**
+	 * writeFiles() writes the edges of g once each to a text and a binary
+	 * edge list.
+	 */
+	static void writeFiles(CsrGraph g, Path text, Path binary)
+			throws IOException {
+		int[] us = new int[g.edgeCount()];
+		int[] vs = new int[g.edgeCount()];
+		int[] ws = new int[g.edgeCount()];
+		int count = KruskalBenchmark.edgeArrays(g, us, vs, ws);
+
+		Writer out = new BufferedWriter(new FileWriter(text.toFile()), 1 << 16);
+		try {
+			out.write("# random edge list: u v weight\n");
+			for (int i = 0; i < count; i++) {
+				out.write(g.vertex(us[i]) + " " + g.vertex(vs[i]) + " " + ws[i]
+						+ "\n");
+			}
+		} finally {
+			out.close();
+		}
+
+		FileChannel channel = FileChannel.open(binary,
+				StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		try {
+			ByteBuffer buffer = ByteBuffer.allocateDirect(12 * 4096).order(
+					ByteOrder.LITTLE_ENDIAN);
+			for (int i = 0; i < count; i++) {
+				if (!buffer.hasRemaining()) {
+					buffer.flip();
+					while (buffer.hasRemaining()) {
+						channel.write(buffer);
+					}
+					buffer.clear();
+				}
+				buffer.putInt((Integer) g.vertex(us[i]));
+				buffer.putInt((Integer) g.vertex(vs[i]));
+				buffer.putInt(ws[i]);
+			}
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * replay() builds a WUGraph from a text edge list one call at a time.
+	 */
+	static WUGraph replay(Path text) throws IOException {
+		WUGraph g = new WUGraph();
+		BufferedReader in = new BufferedReader(new FileReader(text.toFile()));
+		try {
+			String line;
+			while ((line = in.readLine()) != null) {
+				if (line.startsWith("#")) {
+					continue;
+				}
+				String[] fields = line.split(" ");
+				Integer u = Integer.valueOf(fields[0]);
+				Integer v = Integer.valueOf(fields[1]);
+				g.addVertex(u);
+				g.addVertex(v);
+				g.addEdge(u, v, Integer.parseInt(fields[2]));
+			}
+		} finally {
+			in.close();
+		}
+		return g;
+	}
+
+	public static void main(String[] args) throws IOException {
+		int edges = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+		int vertexCount = args.length > 1 ? Integer.parseInt(args[1])
+				: edges / 8;
+		CsrGraph source = KruskalBenchmark.randomGraph(edges, vertexCount, 15);
+		Path text = Files.createTempFile("edges", ".txt");
+		Path binary = Files.createTempFile("edges", ".bin");
+		try {
+			writeFiles(source, text, binary);
+			System.out.printf("%d edges, %d vertices; text %d bytes, "
+					+ "binary %d bytes%n", source.edgeCount(),
+					source.vertexCount(), Files.size(text), Files.size(binary));
+
+			String[] names = { "addEdge replay", "loadText", "loadBinary" };
+			for (int method = 0; method < names.length; method++) {
+				long best = Long.MAX_VALUE;
+				WUGraph g = null;
+				for (int r = 0; r < RUNS; r++) {
+					g = null;
+					long start = System.nanoTime();
+					if (method == 0) {
+						g = replay(text);
+					} else if (method == 1) {
+						g = EdgeListLoader.loadText(text);
+					} else {
+						g = EdgeListLoader.loadBinary(binary);
+					}
+					best = Math.min(best, System.nanoTime() - start);
+				}
+				System.out.printf("%-16s %9.1f ms  %6.2f M edges/s  "
+						+ "(%d vertices, %d edges)%n", names[method],
+						best / 1e6, g.edgeCount() * 1e3 / best,
+						g.vertexCount(), g.edgeCount());
+			}
+		} finally {
+			Files.delete(text);
+			Files.delete(binary);
+		}
+	}
+}
@@ -0,0 +1,96 @@
+/* MappedGraphBenchmark.java */
+
+package bench;
+
+import graph.*;
+import graphalg.*;
+import java.io.IOException;
+import java.nio.file.*;
+
+/**
+ * MappedGraphBenchmark saves a random graph to a temporary file and compares
+ * using it through a memory mapping (MappedGraph.open()) with reading it into
+ * the heap (CsrGraph.load()):
+ *
+ *   - the time to open or load the file,
+ *   - Kruskal's and Prim's algorithms on each, and
+ *   - random isEdge() probes on the mapped graph.
+ *
+ * Usage: java bench.MappedGraphBenchmark [edges] [vertices]
+ */
+
+public class MappedGraphBenchmark {
+
+	private final static int PROBES = 1000000;
+
+	/**
+	 * treeWeight() returns the total weight of the edges of a spanning
+	 * forest, each counted once.
+	 */
+	static long treeWeight(IndexedGraph tree) {
+		long total = 0;
+		for (int u = 0; u < tree.vertexCount(); u++) {
+			for (int i = tree.firstEdge(u); i < tree.endEdge(u); i++) {
+				if (tree.target(i) > u) {
+					total += tree.weight(i);
+				}
+			}
+		}
+		return total;
+	}
+
+	static void report(String name, long start, String detail) {
+		System.out.printf("%-26s %10.3f ms  %s%n", name,
+				(System.nanoTime() - start) / 1e6, detail);
+	}
+
+	public static void main(String[] args) throws IOException {
+		int edges = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+		int vertexCount = args.length > 1 ? Integer.parseInt(args[1])
+				: edges / 8;
+		Path file = Files.createTempFile("graph", ".wug");
+		try {
+			KruskalBenchmark.randomGraph(edges, vertexCount, 17).save(file);
+			System.out.printf("file %d bytes%n", Files.size(file));
+
+			long start = System.nanoTime();
+			MappedGraph mapped = MappedGraph.open(file);
+			report("MappedGraph.open", start, mapped.vertexCount()
+					+ " vertices, " + mapped.edgeCount() + " edges");
+			start = System.nanoTime();
+			CsrGraph loaded = CsrGraph.load(file);
+			report("CsrGraph.load", start, "");
+
+			IndexedGraph[] graphs = { mapped, loaded };
+			String[] names = { "mapped", "loaded" };
+			for (int k = 0; k < graphs.length; k++) {
+				start = System.nanoTime();
+				CsrGraph tree = Kruskal.minSpanTree(graphs[k]);
+				report("Kruskal on " + names[k], start, "weight "
+						+ treeWeight(tree));
+				start = System.nanoTime();
+				tree = Prim.minSpanTree(graphs[k]);
+				report("Prim on " + names[k], start, "weight "
+						+ treeWeight(tree));
+			}
+
+			java.util.Random random = new java.util.Random(17);
+			int hits = 0;
+			start = System.nanoTime();
+			for (int i = 0; i < PROBES; i++) {
+				int u = random.nextInt(mapped.vertexCount());
+				int position = mapped.firstEdge(u) + random.nextInt(2);
+				// about half the probes ask for a real edge
+				int v = position < mapped.endEdge(u) && random.nextBoolean()
+						? mapped.target(position)
+						: random.nextInt(mapped.vertexCount());
+				if (mapped.isEdge(u, v)) {
+					hits++;
+				}
+			}
+			report("mapped isEdge x " + PROBES, start, hits + " hits");
+		} finally {
+			Files.delete(file);
+		}
+	}
+}
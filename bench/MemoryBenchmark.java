@@ -0,0 +1,69 @@
+/* MemoryBenchmark.java */
+
+package bench;
+
+import graph.*;
+
+/**
+ * MemoryBenchmark estimates the heap footprint of a WUGraph per edge. It
+ * builds a graph of random edges between preallocated Integer vertices,
+ * measures the used heap (after garbage collection) before and after adding
+ * the edges, and divides the difference by the number of edges. The vertex
+ * objects themselves are allocated before the first measurement, so only the
+ * graph's own structures are counted.
+ *
+ * Usage: java bench.MemoryBenchmark [vertices] [edges]
+ */
+
+public class MemoryBenchmark {
+
+	/**
+	 * usedHeap() returns the number of bytes in use after asking the JVM to
+	 * collect garbage a few times.
+	 */
+	static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 4; i++) {
+			System.gc();
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException e) {
+			}
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	public static void main(String[] args) {
+		int vertices = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+		int edges = args.length > 1 ? Integer.parseInt(args[1]) : 1000000;
+		java.util.Random random = new java.util.Random(12);
+
+		Integer[] names = new Integer[vertices];
+		for (int i = 0; i < vertices; i++) {
+			names[i] = i;
+		}
+		int[] us = new int[edges];
+		int[] vs = new int[edges];
+		for (int i = 0; i < edges; i++) {
+			us[i] = random.nextInt(vertices);
+			vs[i] = random.nextInt(vertices);
+		}
+
+		long before = usedHeap();
+		WUGraph g = new WUGraph();
+		for (int i = 0; i < vertices; i++) {
+			g.addVertex(names[i]);
+		}
+		long withVertices = usedHeap();
+		for (int i = 0; i < edges; i++) {
+			g.addEdge(names[us[i]], names[vs[i]], 1000 + i);
+		}
+		long after = usedHeap();
+
+		System.out.printf("%d vertices: %.1f bytes per vertex%n",
+				g.vertexCount(), (withVertices - before)
+						/ (double) g.vertexCount());
+		System.out.printf("%d edges:    %.1f bytes per edge%n", g.edgeCount(),
+				(after - withVertices) / (double) g.edgeCount());
+	}
+}
@@ -0,0 +1,128 @@
+/* ProbeBenchmark.java */
+
+package bench;
+
+import dict.*;
+import graph.*;
+import list.InvalidNodeException;
+
+/**
+ * ProbeBenchmark measures the throughput of miss-heavy edge probes. It
+ * compares the two ways of asking a Dictionary about a key that is usually
+ * absent -- find() with a caught InvalidKeyException (the path WUGraph used
+ * to take) and findValue() (the path it takes now) -- and then times
+ * WUGraph.isEdge() on the same workload.
+ *
+ * Usage: java bench.ProbeBenchmark [vertices] [probes]
+ */
+
+public class ProbeBenchmark {
+
+	private final static int RUNS = 5;
+	private final static int HIT_PERCENT = 10;
+
+	/**
+	 * probeWithFind() probes every key with find(), counting misses by their
+	 * exceptions, and returns the number of hits.
+	 */
+	static int probeWithFind(Dictionary table, Object[] keys) {
+		int hits = 0;
+		for (int i = 0; i < keys.length; i++) {
+			try {
+				table.find(keys[i]);
+				hits++;
+			} catch (InvalidKeyException e) {
+			} catch (InvalidNodeException e) {
+			}
+		}
+		return hits;
+	}
+
+	/**
+	 * probeWithFindValue() probes every key with findValue() and returns the
+	 * number of hits.
+	 */
+	static int probeWithFindValue(Dictionary table, Object[] keys) {
+		int hits = 0;
+		for (int i = 0; i < keys.length; i++) {
+			if (table.findValue(keys[i]) != null) {
+				hits++;
+			}
+		}
+		return hits;
+	}
+
+	/**
+	 * probeGraph() calls isEdge() on every pair and returns the number of
+	 * edges found.
+	 */
+	static int probeGraph(WUGraph g, Integer[] us, Integer[] vs) {
+		int hits = 0;
+		for (int i = 0; i < us.length; i++) {
+			if (g.isEdge(us[i], vs[i])) {
+				hits++;
+			}
+		}
+		return hits;
+	}
+
+	/**
+	 * report() prints the probe rate of the best of RUNS timings.
+	 */
+	static void report(String name, long bestNanos, int probes, int hits) {
+		System.out.printf("%-34s %8.2f Mprobes/s  (%d hits)%n", name, probes
+				* 1e3 / bestNanos, hits);
+	}
+
+	public static void main(String[] args) {
+		int vertices = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+		int probes = args.length > 1 ? Integer.parseInt(args[1]) : 1000000;
+		java.util.Random random = new java.util.Random(61);
+
+		// A ring graph: vertex i is adjacent to i + 1 only.
+		WUGraph g = new WUGraph();
+		Integer[] names = new Integer[vertices];
+		for (int i = 0; i < vertices; i++) {
+			names[i] = i;
+			g.addVertex(names[i]);
+		}
+		for (int i = 0; i < vertices; i++) {
+			g.addEdge(names[i], names[(i + 1) % vertices], i);
+		}
+
+		// About HIT_PERCENT percent of the probes are edges.
+		Integer[] us = new Integer[probes];
+		Integer[] vs = new Integer[probes];
+		Object[] keys = new Object[probes];
+		HashTableChained table = new HashTableChained();
+		for (int i = 0; i < vertices; i++) {
+			table.insert(i, names[i]);
+		}
+		for (int i = 0; i < probes; i++) {
+			int u = random.nextInt(vertices);
+			boolean hit = random.nextInt(100) < HIT_PERCENT;
+			us[i] = names[u];
+			vs[i] = names[hit ? (u + 1) % vertices : random.nextInt(vertices)];
+			keys[i] = hit ? u : vertices + random.nextInt(vertices);
+		}
+
+		String[] phases = { "Dictionary.find (exception on miss)",
+				"Dictionary.findValue", "WUGraph.isEdge" };
+		for (int phase = 0; phase < phases.length; phase++) {
+			long best = Long.MAX_VALUE;
+			int hits = 0;
+			for (int r = 0; r < RUNS; r++) {
+				long start = System.nanoTime();
+				if (phase == 0) {
+					hits = probeWithFind(table, keys);
+				} else if (phase == 1) {
+					hits = probeWithFindValue(table, keys);
+				} else {
+					hits = probeGraph(g, us, vs);
+				}
+				best = Math.min(best, System.nanoTime() - start);
+			}
+			report(phases[phase], best, probes, hits);
+		}
+	}
+}
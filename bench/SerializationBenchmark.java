@@ -0,0 +1,81 @@
+/* SerializationBenchmark.java */
+
+package bench;
+
+import graph.*;
+import java.io.IOException;
+import java.nio.file.*;
+
+/**
+ * SerializationBenchmark compares three ways of getting a random WUGraph
+ * back after a restart:
+ *
+ *   - replaying addVertex() and addEdge() for every vertex and edge, as a
+ *     service rebuilding from its source data would,
+ *   - WUGraph.load() of a file written by WUGraph.save(), and
+ *   - CsrGraph.load() of the same file, which reads it without building
+ *     the WUGraph's linked structure (a lower bound).
+ *
+ * It also reports the time of save() and the file size.
+ *
+ * Usage: java bench.SerializationBenchmark [edges] [vertices]
+ */
+
+public class SerializationBenchmark {
+
+	private final static int RUNS = 3;
+
+	public static void main(String[] args) throws IOException {
+		int edges = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+		int vertexCount = args.length > 1 ? Integer.parseInt(args[1])
+				: edges / 8;
+		CsrGraph source = KruskalBenchmark.randomGraph(edges, vertexCount, 16);
+		int[] us = new int[source.edgeCount()];
+		int[] vs = new int[source.edgeCount()];
+		int[] ws = new int[source.edgeCount()];
+		int count = KruskalBenchmark.edgeArrays(source, us, vs, ws);
+		Object[] names = new Object[source.vertexCount()];
+		for (int u = 0; u < names.length; u++) {
+			names[u] = source.vertex(u);
+		}
+
+		Path file = Files.createTempFile("graph", ".wug");
+		try {
+			WUGraph g = source.toWUGraph();
+			long start = System.nanoTime();
+			g.save(file);
+			long saveNanos = System.nanoTime() - start;
+			g = null;
+			System.out.printf("%d vertices, %d edges; file %d bytes; "
+					+ "save %.1f ms%n", names.length, count, Files.size(file),
+					saveNanos / 1e6);
+
+			String[] methods = { "addEdge replay", "load", "CsrGraph.load" };
+			for (int method = 0; method < methods.length; method++) {
+				long best = Long.MAX_VALUE;
+				for (int r = 0; r < RUNS; r++) {
+					g = null;
+					start = System.nanoTime();
+					if (method == 0) {
+						g = new WUGraph();
+						for (int u = 0; u < names.length; u++) {
+							g.addVertex(names[u]);
+						}
+						for (int i = 0; i < count; i++) {
+							g.addEdge(names[us[i]], names[vs[i]], ws[i]);
+						}
+					} else if (method == 1) {
+						g = WUGraph.load(file);
+					} else {
+						CsrGraph.load(file);
+					}
+					best = Math.min(best, System.nanoTime() - start);
+				}
+				System.out.printf("%-16s %9.1f ms  %6.2f M edges/s%n",
+						methods[method], best / 1e6, count * 1e3 / best);
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+}
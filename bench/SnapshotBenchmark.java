@@ -0,0 +1,140 @@
+/* SnapshotBenchmark.java */
+
+package bench;
+
+import graph.*;
+import graphalg.*;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * SnapshotBenchmark measures WUGraph.snapshot() on a random graph:
+ *
+ *   - the cost of taking (and releasing) a snapshot, against freeze(),
+ *   - the writer's throughput with no snapshot open, and while a reader
+ *     thread runs Kruskal's algorithm on one snapshot after another, and
+ *   - whether each snapshot still showed exactly the graph it was taken of.
+ *
+ * The writer adds edges, removes edges, and changes weights in equal parts,
+ * and now and then removes a vertex and adds it back. Every SNAPSHOT_EVERY
+ * operations it takes a snapshot and, to check the reader's result later,
+ * the weight of the minimum spanning forest at that moment.
+ *
+ * Usage: java bench.SnapshotBenchmark [edges] [vertices] [writes]
+ */
+
+public class SnapshotBenchmark {
+
+	private final static int SNAPSHOT_EVERY = 100000;
+	private final static int SNAPSHOT_RUNS = 100000;
+
+	/**
+	 * A Job is a snapshot handed to the reader, with the spanning forest
+	 * weight the writer computed for it; a null snapshot stops the reader.
+	 */
+	static class Job {
+		final GraphSnapshot snapshot;
+		final long expected;
+
+		Job(GraphSnapshot snapshot, long expected) {
+			this.snapshot = snapshot;
+			this.expected = expected;
+		}
+	}
+
+	/**
+	 * write() performs "writes" random changes on g, handing a snapshot to
+	 * "jobs" every SNAPSHOT_EVERY changes if jobs is not null, and returns
+	 * the elapsed nanoseconds, not counting the checks' own Kruskal runs.
+	 */
+	static long write(WUGraph g, Integer[] names, int writes,
+			ArrayBlockingQueue<Job> jobs, long seed)
+			throws InterruptedException {
+		java.util.Random random = new java.util.Random(seed);
+		long checking = 0;
+		long start = System.nanoTime();
+		for (int i = 0; i < writes; i++) {
+			Integer u = names[random.nextInt(names.length)];
+			Integer v = names[random.nextInt(names.length)];
+			int dice = random.nextInt(1000);
+			if (dice == 0) {
+				g.removeVertex(u);
+				g.addVertex(u);
+			} else if (dice < 333) {
+				g.removeEdge(u, v);
+			} else if (dice < 666 || !g.isEdge(u, v)) {
+				g.addEdge(u, v, random.nextInt(1 << 20));
+			} else {
+				g.addEdge(u, v, g.weight(u, v) + 1);
+			}
+			if (jobs != null && i % SNAPSHOT_EVERY == 0) {
+				long checkStart = System.nanoTime();
+				long expected = MappedGraphBenchmark.treeWeight(Kruskal
+						.minSpanTree(g.freeze()));
+				checking += System.nanoTime() - checkStart;
+				jobs.put(new Job(g.snapshot(), expected));
+			}
+		}
+		return System.nanoTime() - start - checking;
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		int edges = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+		int vertexCount = args.length > 1 ? Integer.parseInt(args[1])
+				: edges / 8;
+		int writes = args.length > 2 ? Integer.parseInt(args[2]) : 2000000;
+		WUGraph g = KruskalBenchmark.randomGraph(edges, vertexCount, 19)
+				.toWUGraph();
+		Integer[] names = new Integer[g.vertexCount()];
+		for (int i = 0; i < names.length; i++) {
+			names[i] = (Integer) g.vertexOf(i);
+		}
+		System.out.printf("%d vertices, %d edges, %d writes%n", names.length,
+				g.edgeCount(), writes);
+
+		long start = System.nanoTime();
+		for (int i = 0; i < SNAPSHOT_RUNS; i++) {
+			g.snapshot().release();
+		}
+		System.out.printf("snapshot()          %10.3f us%n",
+				(System.nanoTime() - start) / 1e3 / SNAPSHOT_RUNS);
+		start = System.nanoTime();
+		g.freeze();
+		System.out.printf("freeze()            %10.3f us%n",
+				(System.nanoTime() - start) / 1e3);
+
+		long nanos = write(g, names, writes, null, 1);
+		System.out.printf("writes, no reader   %10.1f ms  %6.2f M ops/s%n",
+				nanos / 1e6, writes * 1e3 / nanos);
+
+		final ArrayBlockingQueue<Job> jobs = new ArrayBlockingQueue<Job>(4);
+		final int[] results = new int[2]; // snapshots read, mismatches
+		Thread reader = new Thread() {
+			public void run() {
+				try {
+					for (Job job = jobs.take(); job.snapshot != null; job = jobs
+							.take()) {
+						CsrGraph frozen = job.snapshot.freeze();
+						long weight = MappedGraphBenchmark.treeWeight(Kruskal
+								.minSpanTree(frozen));
+						if (weight != job.expected
+								|| frozen.edgeCount() != job.snapshot.edgeCount()) {
+							results[1]++;
+						}
+						results[0]++;
+						job.snapshot.release();
+					}
+				} catch (InterruptedException e) {
+					e.printStackTrace();
+				}
+			}
+		};
+		reader.start();
+		nanos = write(g, names, writes, jobs, 2);
+		jobs.put(new Job(null, 0));
+		reader.join();
+		System.out.printf("writes, with reader %10.1f ms  %6.2f M ops/s%n",
+				nanos / 1e6, writes * 1e3 / nanos);
+		System.out.printf("%d snapshots read, %d inconsistent%n", results[0],
+				results[1]);
+	}
+}
@@ -0,0 +1,159 @@
+/* SortBenchmark.java */
+
+package bench;
+
+import graphalg.*;
+import list.*;
+
+/**
+ * SortBenchmark compares the ways ListSorts can sort edges by weight, on
+ * random, sorted, reversed, and nearly sorted (1% of entries displaced)
+ * weights:
+ *
+ *   - the linked merge sort on a LinkedQueue of KruskalHelpers
+ *     (ListSorts.mergeSort(LinkedQueue)), up to LINKED_LIMIT edges;
+ *   - the array merge sort on a KruskalHelper[], reusing one scratch
+ *     buffer for every run (ListSorts.mergeSort(a, from, to, null,
+ *     scratch));
+ *   - java.util.Arrays.sort() on the same array, for reference; and
+ *   - the primitive-key merge sort on int weights carrying edge indices
+ *     (ListSorts.sortByKey()).
+ *
+ * Each time is the best of RUNS runs, and every result is checked.
+ *
+ * Usage: java bench.SortBenchmark [edges]
+ */
+
+public class SortBenchmark {
+
+	private final static int RUNS = 5;
+	private final static int LINKED_LIMIT = 1000000;
+
+	/**
+	 * weights() returns "count" weights in the given pattern.
+	 */
+	static int[] weights(String pattern, int count, java.util.Random random) {
+		int[] ws = new int[count];
+		for (int i = 0; i < count; i++) {
+			if (pattern.equals("random")) {
+				ws[i] = random.nextInt();
+			} else if (pattern.equals("reversed")) {
+				ws[i] = count - i;
+			} else {
+				ws[i] = i;
+			}
+		}
+		if (pattern.equals("nearly sorted")) {
+			for (int k = 0; k < count / 100; k++) {
+				int i = random.nextInt(count);
+				int j = random.nextInt(count);
+				int temp = ws[i];
+				ws[i] = ws[j];
+				ws[j] = temp;
+			}
+		}
+		return ws;
+	}
+
+	/**
+	 * sorted() returns true if the helpers are in order of weight.
+	 */
+	static boolean sorted(Object[] helpers) {
+		for (int i = 1; i < helpers.length; i++) {
+			KruskalHelper previous = (KruskalHelper) helpers[i - 1];
+			if (previous.getWeight() > ((KruskalHelper) helpers[i]).getWeight()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	static void report(String pattern, String method, double millis,
+			boolean ok) {
+		System.out.printf("%-14s %-26s %10.1f ms%s%n", pattern, method,
+				millis, ok ? "" : "  WRONG ORDER");
+	}
+
+	static void measure(String pattern, int count) {
+		int[] ws = weights(pattern, count, new java.util.Random(25));
+		Integer vertex = 0;
+		KruskalHelper[] helpers = new KruskalHelper[count];
+		for (int i = 0; i < count; i++) {
+			helpers[i] = new KruskalHelper(vertex, vertex, ws[i]);
+		}
+
+		if (count <= LINKED_LIMIT) {
+			double best = Double.MAX_VALUE;
+			boolean ok = true;
+			for (int run = 0; run < RUNS; run++) {
+				LinkedQueue queue = new LinkedQueue();
+				for (int i = 0; i < count; i++) {
+					queue.enqueue(helpers[i]);
+				}
+				long start = System.nanoTime();
+				ListSorts.mergeSort(queue);
+				best = Math.min(best, KruskalBenchmark.millis(start));
+				Object[] result = new Object[count];
+				try {
+					for (int i = 0; i < count; i++) {
+						result[i] = queue.dequeue();
+					}
+				} catch (QueueEmptyException e) {
+					ok = false;
+				}
+				ok &= sorted(result);
+			}
+			report(pattern, "linked merge sort", best, ok);
+		}
+
+		Object[] scratch = null;
+		double best = Double.MAX_VALUE;
+		boolean ok = true;
+		for (int run = 0; run < RUNS; run++) {
+			KruskalHelper[] a = helpers.clone();
+			long start = System.nanoTime();
+			scratch = ListSorts.mergeSort(a, 0, count, null, scratch);
+			best = Math.min(best, KruskalBenchmark.millis(start));
+			ok &= sorted(a);
+		}
+		report(pattern, "array merge sort", best, ok);
+
+		best = Double.MAX_VALUE;
+		ok = true;
+		for (int run = 0; run < RUNS; run++) {
+			KruskalHelper[] a = helpers.clone();
+			long start = System.nanoTime();
+			java.util.Arrays.sort(a);
+			best = Math.min(best, KruskalBenchmark.millis(start));
+			ok &= sorted(a);
+		}
+		report(pattern, "java.util.Arrays.sort", best, ok);
+
+		int[] intScratch = null;
+		best = Double.MAX_VALUE;
+		ok = true;
+		for (int run = 0; run < RUNS; run++) {
+			int[] keys = ws.clone();
+			int[] edges = new int[count];
+			for (int i = 0; i < count; i++) {
+				edges[i] = i;
+			}
+			long start = System.nanoTime();
+			intScratch = ListSorts.sortByKey(keys, edges, 0, count, intScratch);
+			best = Math.min(best, KruskalBenchmark.millis(start));
+			for (int i = 0; i < count; i++) {
+				ok &= keys[i] == ws[edges[i]]
+						&& (i == 0 || keys[i - 1] <= keys[i]);
+			}
+		}
+		report(pattern, "primitive-key merge sort", best, ok);
+	}
+
+	public static void main(String[] args) {
+		int count = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+		String[] patterns = { "random", "sorted", "reversed", "nearly sorted" };
+		for (int p = 0; p < patterns.length; p++) {
+			measure(patterns[p], count);
+		}
+	}
+}
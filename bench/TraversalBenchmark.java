@@ -0,0 +1,77 @@
+/* TraversalBenchmark.java */
+
+package bench;
+
+import graph.*;
+
+/**
+ * TraversalBenchmark measures full-graph traversal throughput: visiting
+ * every neighbor of every vertex and summing the edge weights, once with
+ * WUGraph.getNeighbors() (which allocates a Neighbors object and two arrays
+ * per vertex) and once with WUGraph.forEachNeighbor() (which allocates
+ * nothing).
+ *
+ * Usage: java bench.TraversalBenchmark [vertices] [edges]
+ */
+
+public class TraversalBenchmark {
+
+	private final static int RUNS = 10;
+
+	/**
+	 * A WeightSum adds up the weights it visits.
+	 */
+	static class WeightSum implements NeighborVisitor {
+		long sum;
+
+		public void visit(Object neighbor, int weight) {
+			sum += weight;
+		}
+	}
+
+	static long withGetNeighbors(WUGraph g, Object[] vertices) {
+		long sum = 0;
+		for (int i = 0; i < vertices.length; i++) {
+			Neighbors n = g.getNeighbors(vertices[i]);
+			if (n != null) {
+				for (int k = 0; k < n.weightList.length; k++) {
+					sum += n.weightList[k];
+				}
+			}
+		}
+		return sum;
+	}
+
+	static long withForEachNeighbor(WUGraph g, Object[] vertices,
+			WeightSum visitor) {
+		visitor.sum = 0;
+		for (int i = 0; i < vertices.length; i++) {
+			g.forEachNeighbor(vertices[i], visitor);
+		}
+		return visitor.sum;
+	}
+
+	public static void main(String[] args) {
+		int vertexCount = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+		int edgeCount = args.length > 1 ? Integer.parseInt(args[1]) : 1000000;
+		WUGraph g = KruskalBenchmark.randomGraph(edgeCount, vertexCount, 7)
+				.toWUGraph();
+		Object[] vertices = g.getVertices();
+		long halfEdges = 2L * g.edgeCount();
+		WeightSum visitor = new WeightSum();
+
+		String[] names = { "getNeighbors", "forEachNeighbor" };
+		for (int api = 0; api < names.length; api++) {
+			long best = Long.MAX_VALUE;
+			long sum = 0;
+			for (int r = 0; r < RUNS; r++) {
+				long start = System.nanoTime();
+				sum = api == 0 ? withGetNeighbors(g, vertices)
+						: withForEachNeighbor(g, vertices, visitor);
+				best = Math.min(best, System.nanoTime() - start);
+			}
+			System.out.printf("%-16s %8.1f ms  %7.1f M half-edges/s  (sum %d)%n",
+					names[api], best / 1e6, halfEdges * 1e3 / best, sum);
+		}
+	}
+}
@@ -56,6 +56,20 @@ public interface Dictionary {
 
   public Entry find(Object key) throws InvalidKeyException, InvalidNodeException;
 
+  /** 
+   *  Search for an entry with the specified key and return its value, or
+   *  null if no entry contains the key.  Unlike find(), this method never
+   *  throws an exception or allocates an Entry, so it is the cheap way to
+   *  probe for keys that are often missing.  A null value stored in the
+   *  dictionary cannot be told apart from a missing key.
+   *
+   *  @param key the search key.
+   *  @return the value associated with the key, or null if no entry contains
+   *          the specified key.
+   **/
+
+  public Object findValue(Object key);
+
   /** 
    *  Remove an entry with the specified key.  If such an entry is found,
    *  remove it from the table and return it; otherwise return null.
@@ -18,28 +18,98 @@ import list.*;
 public class HashTableChained implements Dictionary {
 
 	/**
-	 * Place any data fields here.
+	 * DEFAULT_CAPACITY is the number of buckets used when no size estimate is
+	 * given. DEFAULT_MAX_LOAD and DEFAULT_MIN_LOAD bound the load factor
+	 * (entries per bucket) the table tries to maintain, and DEFAULT_GROWTH is
+	 * the factor by which the number of buckets changes on a resize.
+	 **/
+	public final static int DEFAULT_CAPACITY = 128;
+	public final static double DEFAULT_MAX_LOAD = 0.75;
+	public final static double DEFAULT_MIN_LOAD = 0.1875;
+	public final static int DEFAULT_GROWTH = 2;
+
+	/**
+	 * MAX_CAPACITY is the largest number of buckets. The number of buckets is
+	 * always a power of two, so compress() can mask instead of dividing.
+	 **/
+	private final static int MAX_CAPACITY = 1 << 30;
+
+	/**
+	 * REHASH_STEP is the number of old buckets moved into the new table by
+	 * each operation while a resize is in progress.
+	 **/
+	private final static int REHASH_STEP = 8;
+
+	/**
+	 * table holds the current buckets. While a resize is in progress,
+	 * oldTable holds the buckets of the previous table; buckets below
+	 * rehashIndex have already been moved into table. oldTable is null when
+	 * no resize is in progress.
 	 **/
 	private SList[] table;
+	private SList[] oldTable;
+	private int rehashIndex;
 	private int size;
 
+	private int minCapacity;
+	private double maxLoadFactor;
+	private double minLoadFactor;
+	private int growthFactor;
+
+	/**
+	 * Construct a new empty hash table intended to hold roughly sizeEstimate
+	 * entries. The table grows by a factor of growthFactor whenever the load
+	 * factor exceeds maxLoadFactor, and shrinks by the same factor (but never
+	 * below its initial number of buckets) whenever the load factor falls
+	 * below minLoadFactor. A minLoadFactor of zero disables shrinking.
+	 * Entries are moved to a resized table a few buckets at a time, so no
+	 * single operation pays for a full rehash.
+	 *
+	 * @param sizeEstimate
+	 *            the expected number of entries.
+	 * @param maxLoadFactor
+	 *            the largest load factor allowed before growing; must be
+	 *            positive.
+	 * @param minLoadFactor
+	 *            the smallest load factor allowed before shrinking; must be
+	 *            less than maxLoadFactor / growthFactor.
+	 * @param growthFactor
+	 *            the factor by which the number of buckets grows or shrinks;
+	 *            must be at least 2.
+	 **/
+
+	public HashTableChained(int sizeEstimate, double maxLoadFactor,
+			double minLoadFactor, int growthFactor) {
+		if (maxLoadFactor <= 0 || growthFactor < 2 || minLoadFactor < 0
+				|| minLoadFactor * growthFactor >= maxLoadFactor) {
+			throw new IllegalArgumentException("bad load factor policy");
+		}
+		this.maxLoadFactor = maxLoadFactor;
+		this.minLoadFactor = minLoadFactor;
+		this.growthFactor = growthFactor;
+		minCapacity = powerOfTwoAtLeast((int) Math.ceil(Math.max(
+				sizeEstimate, 1) / maxLoadFactor));
+		table = new SList[minCapacity];
+	}
+
 	/**
 	 * Construct a new empty hash table intended to hold roughly sizeEstimate
-	 * entries. (The precise number of buckets is up to you, but we recommend
-	 * you use a prime number, and shoot for a load factor between 0.5 and 1.)
+	 * entries, using the default load factor bounds and growth factor.
 	 **/
 
 	public HashTableChained(int sizeEstimate) {
-		table = new SList[sizeEstimate];
+		this(sizeEstimate, DEFAULT_MAX_LOAD, DEFAULT_MIN_LOAD, DEFAULT_GROWTH);
 	}
 
 	/**
-	 * Construct a new empty hash table with a default size. Say, a prime in the
-	 * neighborhood of 100.
+	 * Construct a new empty hash table with a default size. Say, a power of two
+	 * in the neighborhood of 100.
 	 **/
 
 	public HashTableChained() {
-		table = new SList[101];
+		// DEFAULT_CAPACITY buckets at the largest load factor
+		this((int) (DEFAULT_CAPACITY * DEFAULT_MAX_LOAD), DEFAULT_MAX_LOAD,
+				DEFAULT_MIN_LOAD, DEFAULT_GROWTH);
 	}
 
 	/**
@@ -51,7 +121,38 @@ public class HashTableChained implements Dictionary {
 	 **/
 
 	protected int compFunction(int code) {
-		return Math.abs((127 * code + 73) % 16908799 % table.length);
+		return compress(code, table.length);
+	}
+
+	/**
+	 * compress() maps a hash code to a bucket index in a table with the given
+	 * number of buckets. The code's bits are mixed first, so keys whose hash
+	 * codes differ only in their high bits (or are small consecutive
+	 * integers) still spread over all the buckets.
+	 *
+	 * @param code
+	 *            the hash code.
+	 * @param buckets
+	 *            the number of buckets in the table; a power of two.
+	 * @return an index in the range 0...buckets - 1.
+	 **/
+
+	private static int compress(int code, int buckets) {
+		int h = code * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & (buckets - 1);
+	}
+
+	/**
+	 * powerOfTwoAtLeast() returns the smallest power of two that is at least
+	 * n, capped at MAX_CAPACITY.
+	 **/
+
+	private static int powerOfTwoAtLeast(int n) {
+		int capacity = 2;
+		while (capacity < n && capacity < MAX_CAPACITY) {
+			capacity <<= 1;
+		}
+		return capacity;
 	}
 
 	/**
@@ -76,6 +177,16 @@ public class HashTableChained implements Dictionary {
 		return size == 0;
 	}
 
+	/**
+	 * capacity() returns the number of buckets in the current table.
+	 *
+	 * @return the number of buckets.
+	 **/
+
+	public int capacity() {
+		return table.length;
+	}
+
 	/**
 	 * Create a new Entry object referencing the input key and associated value,
 	 * and insert the entry into the dictionary. Return a reference to the new
@@ -95,12 +206,13 @@ public class HashTableChained implements Dictionary {
 		Entry ins = new Entry();
 		ins.key = key;
 		ins.value = value;
-		int index = compFunction(ins.key.hashCode());
-
-		if (table[index] == null) {
-			table[index] = new SList();
+		rehashStep();
+		if (size + 1 > maxLoadFactor * table.length
+				&& table.length < MAX_CAPACITY) {
+			resize((int) Math.min((long) table.length * growthFactor,
+					MAX_CAPACITY));
 		}
-		table[index].insertBack(ins);
+		addToTable(ins);
 		size++;
 		return ins;
 	}
@@ -122,11 +234,37 @@ public class HashTableChained implements Dictionary {
 
 	public Entry find(Object key) throws InvalidKeyException,
 			InvalidNodeException {
-		int index = compFunction(key.hashCode());
-		if (table[index] == null) {
+		rehashStep();
+		SListNode node = findNode(key);
+		if (node == null) {
 			throw new InvalidKeyException();
 		}
-		return (Entry) table[index].front().item();
+		return (Entry) node.item();
+	}
+
+	/**
+	 * Search for an entry with the specified key and return its value, or null
+	 * if no entry contains the key. Never throws an exception.
+	 *
+	 * This method should run in O(1) time if the number of collisions is small.
+	 *
+	 * @param key
+	 *            the search key.
+	 * @return the value associated with the key, or null if no entry contains
+	 *         the specified key.
+	 **/
+
+	public Object findValue(Object key) {
+		rehashStep();
+		try {
+			SListNode node = findNode(key);
+			if (node != null) {
+				return ((Entry) node.item()).value;
+			}
+		} catch (InvalidNodeException e) {
+			e.printStackTrace();
+		}
+		return null;
 	}
 
 	/**
@@ -145,14 +283,18 @@ public class HashTableChained implements Dictionary {
 
 	public Entry remove(Object key) throws InvalidKeyException,
 			InvalidNodeException {
-		int index = compFunction(key.hashCode());
-		if (table[index] == null) {
+		rehashStep();
+		SListNode node = findNode(key);
+		if (node == null) {
 			throw new InvalidKeyException(key);
 		}
-		SListNode node = (SListNode) table[index].front();
 		Entry entry = (Entry) node.item();
 		node.remove();
 		size--;
+		if (size < minLoadFactor * table.length
+				&& table.length / growthFactor >= minCapacity) {
+			resize(table.length / growthFactor);
+		}
 		return entry;
 	}
 
@@ -163,9 +305,115 @@ public class HashTableChained implements Dictionary {
 		for (int index = 0; index < table.length; index++) {
 			table[index] = null;
 		}
+		oldTable = null;
 		size = 0;
 	}
 
+	/**
+	 * findNode() returns the list node holding an entry with the specified
+	 * key, looking in the old table as well while a resize is in progress.
+	 *
+	 * @param key
+	 *            the search key.
+	 * @return the node whose entry has the key, or null if there is none.
+	 **/
+
+	private SListNode findNode(Object key) throws InvalidNodeException {
+		int code = key.hashCode();
+		SListNode node = findInBucket(table[compress(code, table.length)],
+				key);
+		if (node == null && oldTable != null) {
+			int index = compress(code, oldTable.length);
+			if (index >= rehashIndex) {
+				node = findInBucket(oldTable[index], key);
+			}
+		}
+		return node;
+	}
+
+	/**
+	 * findInBucket() returns the node of bucket whose entry has the specified
+	 * key, or null if bucket is null or holds no such entry.
+	 **/
+
+	private static SListNode findInBucket(SList bucket, Object key)
+			throws InvalidNodeException {
+		if (bucket == null) {
+			return null;
+		}
+		ListNode node = bucket.front();
+		while (node.isValidNode()) {
+			if (((Entry) node.item()).key.equals(key)) {
+				return (SListNode) node;
+			}
+			node = node.next();
+		}
+		return null;
+	}
+
+	/**
+	 * addToTable() appends an existing entry to its bucket in the current
+	 * table, creating the bucket if necessary.
+	 **/
+
+	private void addToTable(Entry entry) {
+		int index = compFunction(entry.key.hashCode());
+		if (table[index] == null) {
+			table[index] = new SList();
+		}
+		table[index].insertBack(entry);
+	}
+
+	/**
+	 * resize() starts moving the entries into a new table of the smallest
+	 * power of two buckets that is at least the given number. Any resize
+	 * already in progress is finished first.
+	 *
+	 * @param buckets
+	 *            the desired number of buckets.
+	 **/
+
+	private void resize(int buckets) {
+		while (oldTable != null) {
+			rehashStep();
+		}
+		oldTable = table;
+		rehashIndex = 0;
+		table = new SList[powerOfTwoAtLeast(buckets)];
+		rehashStep();
+	}
+
+	/**
+	 * rehashStep() moves up to REHASH_STEP buckets of the old table into the
+	 * current table, if a resize is in progress. The Entry objects themselves
+	 * are reused, so references held by callers stay valid.
+	 **/
+
+	private void rehashStep() {
+		if (oldTable == null) {
+			return;
+		}
+		try {
+			int stop = Math.min(rehashIndex + REHASH_STEP, oldTable.length);
+			for (; rehashIndex < stop; rehashIndex++) {
+				SList bucket = oldTable[rehashIndex];
+				if (bucket != null) {
+					ListNode node = bucket.front();
+					while (node.isValidNode()) {
+						addToTable((Entry) node.item());
+						node = node.next();
+					}
+					oldTable[rehashIndex] = null;
+				}
+			}
+		} catch (InvalidNodeException e) {
+			e.printStackTrace();
+		}
+		if (rehashIndex >= oldTable.length) {
+			oldTable = null;
+		}
+	}
+
 	public static void main(String[] args) {
 		HashTableChained t = new HashTableChained();
 		try {
@@ -0,0 +1,344 @@
+/* HashTableOpen.java */
+
+package dict;
+
+/**
+ * HashTableOpen implements a Dictionary as an open-addressing hash table with
+ * linear probing. Keys, values, and cached hash codes are stored in parallel
+ * arrays, so an insertion allocates no list nodes or buckets. Removal shifts
+ * later entries of the probe sequence backward instead of leaving
+ * "tombstones", so a table that sees many removals never slows down.
+ *
+ * The number of slots is always a power of two; the table doubles when its
+ * load factor exceeds maxLoadFactor and halves (never below its initial size)
+ * when its load factor falls below minLoadFactor.
+ *
+ * The Entry objects returned by insert(), find(), and remove() are new
+ * snapshots of the key and value; they are not stored in the table. Lookups
+ * that must not allocate should use findValue().
+ **/
+
+public class HashTableOpen implements Dictionary {
+
+	/**
+	 * DEFAULT_CAPACITY is the number of slots used when no size estimate is
+	 * given. DEFAULT_MAX_LOAD and DEFAULT_MIN_LOAD bound the fraction of
+	 * occupied slots.
+	 **/
+	public final static int DEFAULT_CAPACITY = 128;
+	public final static double DEFAULT_MAX_LOAD = 0.5;
+	public final static double DEFAULT_MIN_LOAD = 0.125;
+
+	private final static int MAX_CAPACITY = 1 << 30;
+
+	/**
+	 * keys[i] is null if slot i is empty. hashes[i] caches the spread hash
+	 * code of keys[i], so probing and resizing never call hashCode() again.
+	 **/
+	private Object[] keys;
+	private Object[] values;
+	private int[] hashes;
+	private int mask;
+	private int size;
+
+	private int minCapacity;
+	private double maxLoadFactor;
+	private double minLoadFactor;
+
+	/**
+	 * Construct a new empty hash table intended to hold roughly sizeEstimate
+	 * entries. The table doubles when the load factor exceeds maxLoadFactor
+	 * and halves when it falls below minLoadFactor. A minLoadFactor of zero
+	 * disables shrinking.
+	 *
+	 * @param sizeEstimate
+	 *            the expected number of entries.
+	 * @param maxLoadFactor
+	 *            the largest load factor allowed; must be in (0, 1).
+	 * @param minLoadFactor
+	 *            the smallest load factor allowed; must be less than half of
+	 *            maxLoadFactor.
+	 **/
+	public HashTableOpen(int sizeEstimate, double maxLoadFactor,
+			double minLoadFactor) {
+		if (maxLoadFactor <= 0 || maxLoadFactor >= 1 || minLoadFactor < 0
+				|| minLoadFactor * 2 >= maxLoadFactor) {
+			throw new IllegalArgumentException("bad load factor policy");
+		}
+		this.maxLoadFactor = maxLoadFactor;
+		this.minLoadFactor = minLoadFactor;
+		minCapacity = powerOfTwoAtLeast((int) Math.ceil(Math.max(
+				sizeEstimate, 1) / maxLoadFactor));
+		allocate(minCapacity);
+	}
+
+	/**
+	 * Construct a new empty hash table intended to hold roughly sizeEstimate
+	 * entries, using the default load factor bounds.
+	 **/
+	public HashTableOpen(int sizeEstimate) {
+		this(sizeEstimate, DEFAULT_MAX_LOAD, DEFAULT_MIN_LOAD);
+	}
+
+	/**
+	 * Construct a new empty hash table with a default size.
+	 **/
+	public HashTableOpen() {
+		this((int) (DEFAULT_CAPACITY * DEFAULT_MAX_LOAD), DEFAULT_MAX_LOAD,
+				DEFAULT_MIN_LOAD);
+	}
+
+	/**
+	 * powerOfTwoAtLeast() returns the smallest power of two that is at least
+	 * n, capped at MAX_CAPACITY.
+	 **/
+	private static int powerOfTwoAtLeast(int n) {
+		int capacity = 2;
+		while (capacity < n && capacity < MAX_CAPACITY) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+	/**
+	 * spread() mixes the bits of a hash code so that keys whose hash codes
+	 * differ only in their high bits (or are small consecutive integers) do
+	 * not form long probe runs.
+	 **/
+	private static int spread(int code) {
+		int h = code * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * allocate() replaces the arrays with empty ones of the given capacity.
+	 **/
+	private void allocate(int capacity) {
+		keys = new Object[capacity];
+		values = new Object[capacity];
+		hashes = new int[capacity];
+		mask = capacity - 1;
+	}
+
+	/**
+	 * Returns the number of entries stored in the dictionary. Entries with the
+	 * same key (or even the same key and value) each still count as a separate
+	 * entry.
+	 *
+	 * @return number of entries in the dictionary.
+	 **/
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Tests if the dictionary is empty.
+	 *
+	 * @return true if the dictionary has no entries; false otherwise.
+	 **/
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * capacity() returns the number of slots in the table.
+	 *
+	 * @return the number of slots.
+	 **/
+	public int capacity() {
+		return keys.length;
+	}
+
+	/**
+	 * Create a new Entry object referencing the input key and associated value,
+	 * and insert the key and value into the dictionary. Return a reference to
+	 * the new entry. Multiple entries with the same key (or even the same key
+	 * and value) can coexist in the dictionary.
+	 *
+	 * Runs in O(1) expected time.
+	 *
+	 * @param key
+	 *            the key by which the entry can be retrieved; must not be
+	 *            null.
+	 * @param value
+	 *            an arbitrary object.
+	 * @return an entry containing the key and value.
+	 * @throws IllegalStateException
+	 *             if the table has MAX_CAPACITY slots and only one is free.
+	 **/
+	public Entry insert(Object key, Object value) {
+		if (size + 1 > maxLoadFactor * keys.length
+				&& keys.length < MAX_CAPACITY) {
+			rehash(keys.length * 2);
+		}
+		// one slot always stays empty, so every probe sequence ends
+		if (size + 1 >= keys.length) {
+			throw new IllegalStateException("hash table is full");
+		}
+		place(key, value, spread(key.hashCode()));
+		size++;
+		return newEntry(key, value);
+	}
+
+	/**
+	 * Search for an entry with the specified key. If several entries have the
+	 * specified key, choose one arbitrarily and return it. As in
+	 * HashTableChained, a missing key is reported by an exception.
+	 *
+	 * Runs in O(1) expected time.
+	 *
+	 * @param key
+	 *            the search key.
+	 * @return an entry containing the key and an associated value.
+	 * @throws InvalidKeyException
+	 *             if no entry contains the specified key.
+	 **/
+	public Entry find(Object key) throws InvalidKeyException {
+		int slot = slotOf(key);
+		if (slot < 0) {
+			throw new InvalidKeyException();
+		}
+		return newEntry(keys[slot], values[slot]);
+	}
+
+	/**
+	 * Search for an entry with the specified key and return its value, or null
+	 * if no entry contains the key. Never throws an exception or allocates.
+	 *
+	 * Runs in O(1) expected time.
+	 *
+	 * @param key
+	 *            the search key.
+	 * @return the value associated with the key, or null if no entry contains
+	 *         the specified key.
+	 **/
+	public Object findValue(Object key) {
+		int slot = slotOf(key);
+		if (slot < 0) {
+			return null;
+		}
+		return values[slot];
+	}
+
+	/**
+	 * Remove an entry with the specified key. If several entries have the
+	 * specified key, choose one arbitrarily, then remove and return it. As in
+	 * HashTableChained, a missing key is reported by an exception.
+	 *
+	 * Runs in O(1) expected time.
+	 *
+	 * @param key
+	 *            the search key.
+	 * @return an entry containing the key and an associated value.
+	 * @throws InvalidKeyException
+	 *             if no entry contains the specified key.
+	 */
+	public Entry remove(Object key) throws InvalidKeyException {
+		int slot = slotOf(key);
+		if (slot < 0) {
+			throw new InvalidKeyException();
+		}
+		Entry removed = newEntry(keys[slot], values[slot]);
+		deleteSlot(slot);
+		size--;
+		if (size < minLoadFactor * keys.length
+				&& keys.length / 2 >= minCapacity) {
+			rehash(keys.length / 2);
+		}
+		return removed;
+	}
+
+	/**
+	 * Remove all entries from the dictionary.
+	 */
+	public void makeEmpty() {
+		if (keys.length != minCapacity) {
+			allocate(minCapacity);
+		} else {
+			for (int i = 0; i < keys.length; i++) {
+				keys[i] = null;
+				values[i] = null;
+			}
+		}
+		size = 0;
+	}
+
+	/**
+	 * newEntry() returns a new Entry holding the given key and value.
+	 **/
+	private static Entry newEntry(Object key, Object value) {
+		Entry entry = new Entry();
+		entry.key = key;
+		entry.value = value;
+		return entry;
+	}
+
+	/**
+	 * slotOf() returns the index of a slot holding the specified key, or -1
+	 * if there is none.
+	 **/
+	private int slotOf(Object key) {
+		int hash = spread(key.hashCode());
+		int slot = hash & mask;
+		while (keys[slot] != null) {
+			if (hashes[slot] == hash && keys[slot].equals(key)) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * place() stores a key, value, and spread hash code in the first free
+	 * slot of the key's probe sequence. The table must have a free slot.
+	 **/
+	private void place(Object key, Object value, int hash) {
+		int slot = hash & mask;
+		while (keys[slot] != null) {
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		values[slot] = value;
+		hashes[slot] = hash;
+	}
+
+	/**
+	 * deleteSlot() empties the given slot, then moves later members of the
+	 * same probe run backward so that every remaining key is still reachable
+	 * from its home slot without passing an empty slot.
+	 **/
+	private void deleteSlot(int hole) {
+		int slot = (hole + 1) & mask;
+		while (keys[slot] != null) {
+			int home = hashes[slot] & mask;
+			// Move the entry into the hole unless its home lies cyclically
+			// in (hole, slot], in which case it is already reachable.
+			if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+				keys[hole] = keys[slot];
+				values[hole] = values[slot];
+				hashes[hole] = hashes[slot];
+				hole = slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[hole] = null;
+		values[hole] = null;
+	}
+
+	/**
+	 * rehash() moves every entry into new arrays of the given capacity.
+	 **/
+	private void rehash(int capacity) {
+		Object[] oldKeys = keys;
+		Object[] oldValues = values;
+		int[] oldHashes = hashes;
+		allocate(capacity);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != null) {
+				place(oldKeys[i], oldValues[i], oldHashes[i]);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,142 @@
+/* AdjacencyList.java */
+
+package graph;
+
+/**
+ * An AdjacencyList is the list of half-edges incident on one vertex of a
+ * WUGraph. Like DList, it is circularly linked through a sentinel, so
+ * insertion and removal take O(1) time.
+ *
+ * To walk the list:
+ *
+ *   for (HalfEdge e = list.head.next; e != list.head; e = e.next) { ... }
+ *
+ * While a GraphSnapshot is open, the list may also hold retired half-edges,
+ * which the live graph skips (see HalfEdge.died).
+ */
+
+class AdjacencyList {
+	final HalfEdge head;
+	private int size;
+
+	/**
+	 * id is the id of the vertex whose edges the list holds.
+	 */
+	int id;
+
+	/**
+	 * vertex is the application's object for the vertex. born and died stamp
+	 * the vertex itself, as HalfEdge's fields stamp a half-edge.
+	 */
+	final Object vertex;
+	final int born;
+	volatile int died = HalfEdge.ALIVE;
+
+	/**
+	 * AdjacencyList() constructs an empty list.
+	 */
+	AdjacencyList() {
+		this(null, 0);
+	}
+
+	/**
+	 * AdjacencyList() constructs an empty list for the given vertex, born in
+	 * the given version.
+	 */
+	AdjacencyList(Object vertex, int born) {
+		this.vertex = vertex;
+		this.born = born;
+		head = new HalfEdge(null, 0);
+		head.prev = head;
+		head.next = head;
+	}
+
+	/**
+	 * length() returns the number of half-edges in the list, not counting
+	 * retired ones.
+	 *
+	 * Running time: O(1).
+	 */
+	int length() {
+		return size;
+	}
+
+	/**
+	 * isEmpty() returns true if the list has no half-edges.
+	 *
+	 * Running time: O(1).
+	 */
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * insertBack() appends a new half-edge to the list and returns it. Its
+	 * partner is left null for the caller to fill in.
+	 *
+	 * Running time: O(1).
+	 *
+	 * @param neighbor
+	 *            the vertex at the other end of the edge.
+	 * @param weight
+	 *            the weight of the edge.
+	 * @return the new half-edge.
+	 */
+	HalfEdge insertBack(Object neighbor, int weight) {
+		return insertBack(neighbor, weight, 0);
+	}
+
+	/**
+	 * insertBack() appends a new half-edge, born in the given version, to the
+	 * list and returns it.
+	 *
+	 * Running time: O(1).
+	 */
+	HalfEdge insertBack(Object neighbor, int weight, int born) {
+		HalfEdge edge = new HalfEdge(neighbor, weight, born);
+		edge.list = this;
+		edge.prev = head.prev;
+		edge.next = head;
+		head.prev.next = edge; // publishes the finished half-edge
+		head.prev = edge;
+		size++;
+		return edge;
+	}
+
+	/**
+	 * remove() removes a half-edge from this list. Removing a half-edge that
+	 * is no longer in the list does nothing.
+	 *
+	 * Running time: O(1).
+	 *
+	 * @param edge
+	 *            a half-edge of this list.
+	 */
+	void remove(HalfEdge edge) {
+		if (edge.list != this) {
+			return;
+		}
+		if (edge.died == HalfEdge.ALIVE) {
+			size--;
+		}
+		edge.prev.next = edge.next;
+		edge.next.prev = edge.prev;
+		// edge.next is kept for readers standing on the half-edge.
+		edge.prev = null;
+		edge.list = null;
+	}
+
+	/**
+	 * retire() removes a half-edge of this list from the live graph as of
+	 * the given version, leaving it in the list for snapshots that can still
+	 * see it. remove() unlinks it later.
+	 *
+	 * Running time: O(1).
+	 */
+	void retire(HalfEdge edge, int version) {
+		if (edge.list == this && edge.died == HalfEdge.ALIVE) {
+			edge.died = version;
+			size--;
+		}
+	}
+}
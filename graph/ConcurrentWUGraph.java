@@ -0,0 +1,346 @@
+/* ConcurrentWUGraph.java */
+
+package graph;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The ConcurrentWUGraph class represents a weighted, undirected graph that
+ * many threads can read and modify at once. It has the same operations and
+ * the same results as WUGraph. Self-edges are permitted.
+ *
+ * The vertex and edge tables are ConcurrentHashMaps, whose lookups take no
+ * locks and whose updates lock only one bin. Each vertex's adjacency list is
+ * guarded by the vertex's own monitor. An operation that changes the edge
+ * (u, v) locks u and v in increasing order of a per-vertex serial number,
+ * so two threads can never wait for each other's vertices. isVertex(),
+ * isEdge(), weight(), degree(), vertexCount(), and edgeCount() take no
+ * locks at all.
+ *
+ * Every operation is atomic. Operations that return many items (for
+ * instance getVertices()) reflect the graph at some moment during the call.
+ */
+
+public class ConcurrentWUGraph {
+
+	/**
+	 * A Vertex is the internal record of a vertex. Its monitor guards its
+	 * adjacency list and the removed flag. degree is kept apart from the
+	 * list so that degree() can read it without locking.
+	 */
+	private static class Vertex {
+		final Object name;
+		final long serial;
+		final AdjacencyList list = new AdjacencyList();
+		volatile int degree;
+		boolean removed;
+
+		Vertex(Object name, long serial) {
+			this.name = name;
+			this.serial = serial;
+		}
+	}
+
+	/**
+	 * key is the vertex name, value is its Vertex record.
+	 */
+	private ConcurrentHashMap<Object, Vertex> vertexHash;
+
+	/**
+	 * key is a VertexPair of names, value is the primary HalfEdge. A weight
+	 * change is published by putting the same HalfEdge again, so lock-free
+	 * readers that find it through the map see the new weight.
+	 */
+	private ConcurrentHashMap<VertexPair, HalfEdge> edgeHash;
+	private AtomicLong serials = new AtomicLong();
+	private AtomicInteger edges = new AtomicInteger();
+
+	/**
+	 * ConcurrentWUGraph() constructs a graph having no vertices or edges.
+	 *
+	 * Running time: O(1).
+	 */
+	public ConcurrentWUGraph() {
+		vertexHash = new ConcurrentHashMap<Object, Vertex>();
+		edgeHash = new ConcurrentHashMap<VertexPair, HalfEdge>();
+	}
+
+	/**
+	 * ConcurrentWUGraph() constructs a graph having no vertices or edges,
+	 * whose tables are sized for roughly the given numbers of vertices and
+	 * edges.
+	 *
+	 * Running time: O(vertexEstimate + edgeEstimate).
+	 */
+	public ConcurrentWUGraph(int vertexEstimate, int edgeEstimate) {
+		vertexHash = new ConcurrentHashMap<Object, Vertex>(vertexEstimate);
+		edgeHash = new ConcurrentHashMap<VertexPair, HalfEdge>(edgeEstimate);
+	}
+
+	/**
+	 * vertexCount() returns the number of vertices in the graph.
+	 *
+	 * Running time: O(1), without locking.
+	 */
+	public int vertexCount() {
+		return vertexHash.size();
+	}
+
+	/**
+	 * edgeCount() returns the total number of edges in the graph.
+	 *
+	 * Running time: O(1), without locking.
+	 */
+	public int edgeCount() {
+		return edges.get();
+	}
+
+	/**
+	 * getVertices() returns an array containing all the objects that serve as
+	 * vertices of the graph. The array's length is exactly equal to the number
+	 * of vertices it contains.
+	 *
+	 * Running time: O(|V|).
+	 */
+	public Object[] getVertices() {
+		return vertexHash.keySet().toArray();
+	}
+
+	/**
+	 * addVertex() adds a vertex (with no incident edges) to the graph. If this
+	 * object is already a vertex of the graph, the graph is unchanged.
+	 *
+	 * Running time: O(1).
+	 */
+	public void addVertex(Object vertex) {
+		if (!vertexHash.containsKey(vertex)) {
+			vertexHash.putIfAbsent(vertex, new Vertex(vertex,
+					serials.getAndIncrement()));
+		}
+	}
+
+	/**
+	 * removeVertex() removes a vertex from the graph. All edges incident on the
+	 * deleted vertex are removed as well. If the parameter "vertex" does not
+	 * represent a vertex of the graph, the graph is unchanged.
+	 *
+	 * The edges are removed one at a time, each under the locks of its two
+	 * endpoints; the vertex itself is removed once, holding its own lock, it
+	 * is seen to have no edges left, so no edge can be added to it afterward.
+	 *
+	 * Running time: O(d), where d is the degree of "vertex".
+	 */
+	public void removeVertex(Object vertex) {
+		Vertex v = vertexHash.get(vertex);
+		if (v == null) {
+			return;
+		}
+		while (true) {
+			Vertex neighbor;
+			synchronized (v) {
+				if (v.removed) {
+					return;
+				}
+				if (v.list.isEmpty()) {
+					v.removed = true;
+					vertexHash.remove(vertex, v);
+					return;
+				}
+				neighbor = vertexHash.get(v.list.head.next.neighbor);
+			}
+			if (neighbor != null) {
+				removeEdge(v, neighbor);
+			}
+		}
+	}
+
+	/**
+	 * isVertex() returns true if the parameter "vertex" represents a vertex of
+	 * the graph.
+	 *
+	 * Running time: O(1), without locking.
+	 */
+	public boolean isVertex(Object vertex) {
+		return vertexHash.containsKey(vertex);
+	}
+
+	/**
+	 * degree() returns the degree of a vertex. Self-edges add only one to the
+	 * degree of a vertex. If the parameter "vertex" doesn't represent a vertex
+	 * of the graph, zero is returned.
+	 *
+	 * Running time: O(1), without locking.
+	 */
+	public int degree(Object vertex) {
+		Vertex v = vertexHash.get(vertex);
+		return v == null ? 0 : v.degree;
+	}
+
+	/**
+	 * getNeighbors() returns a new Neighbors object listing the neighbors of
+	 * "vertex" and the weights of the corresponding edges, as
+	 * WUGraph.getNeighbors() does. If the vertex has degree zero, or if the
+	 * parameter "vertex" does not represent a vertex of the graph, null is
+	 * returned. The vertex is locked while its list is copied.
+	 *
+	 * Running time: O(d), where d is the degree of "vertex".
+	 */
+	public Neighbors getNeighbors(Object vertex) {
+		Vertex v = vertexHash.get(vertex);
+		if (v == null) {
+			return null;
+		}
+		synchronized (v) {
+			if (v.list.isEmpty()) {
+				return null;
+			}
+			Neighbors n = new Neighbors();
+			n.neighborList = new Object[v.list.length()];
+			n.weightList = new int[v.list.length()];
+			int index = 0;
+			for (HalfEdge e = v.list.head.next; e != v.list.head; e = e.next) {
+				n.neighborList[index] = e.neighbor;
+				n.weightList[index] = e.weight;
+				index++;
+			}
+			return n;
+		}
+	}
+
+	/**
+	 * forEachNeighbor() calls visitor.visit(neighbor, weight) once for each
+	 * edge incident on "vertex", holding the vertex's lock throughout. The
+	 * visitor must not modify the graph, and should be quick, since writers
+	 * to the vertex wait for it.
+	 *
+	 * Running time: O(d), where d is the degree of "vertex".
+	 *
+	 * @return the number of calls made.
+	 */
+	public int forEachNeighbor(Object vertex, NeighborVisitor visitor) {
+		Vertex v = vertexHash.get(vertex);
+		if (v == null) {
+			return 0;
+		}
+		synchronized (v) {
+			for (HalfEdge e = v.list.head.next; e != v.list.head; e = e.next) {
+				visitor.visit(e.neighbor, e.weight);
+			}
+			return v.list.length();
+		}
+	}
+
+	/**
+	 * addEdge() adds an edge (u, v) to the graph, or updates its weight if the
+	 * graph already contains it. If either of the parameters u and v does not
+	 * represent a vertex of the graph, the graph is unchanged. Self-edges
+	 * (where u == v) are allowed.
+	 *
+	 * Running time: O(1).
+	 */
+	public void addEdge(Object u, Object v, int weight) {
+		Vertex a = vertexHash.get(u);
+		Vertex b = vertexHash.get(v);
+		if (a == null || b == null) {
+			return;
+		}
+		Vertex first = a.serial <= b.serial ? a : b;
+		Vertex second = first == a ? b : a;
+		synchronized (first) {
+			synchronized (second) {
+				if (a.removed || b.removed) {
+					return;
+				}
+				VertexPair key = new VertexPair(a.name, b.name);
+				HalfEdge edge = edgeHash.get(key);
+				if (edge != null) {
+					edge.weight = weight;
+					edge.partner.weight = weight;
+					edgeHash.put(key, edge);
+					return;
+				}
+				edge = a.list.insertBack(b.name, weight);
+				edge.primary = true;
+				a.degree++;
+				if (a == b) {
+					// a self-edge is its own partner.
+					edge.partner = edge;
+				} else {
+					HalfEdge edge2 = b.list.insertBack(a.name, weight);
+					edge.partner = edge2;
+					edge2.partner = edge;
+					b.degree++;
+				}
+				edgeHash.put(key, edge);
+				edges.incrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * removeEdge() removes an edge (u, v) from the graph. If either of the
+	 * parameters u and v does not represent a vertex of the graph, or (u, v)
+	 * is not an edge of the graph, the graph is unchanged.
+	 *
+	 * Running time: O(1).
+	 */
+	public void removeEdge(Object u, Object v) {
+		Vertex a = vertexHash.get(u);
+		Vertex b = vertexHash.get(v);
+		if (a != null && b != null) {
+			removeEdge(a, b);
+		}
+	}
+
+	/**
+	 * removeEdge() removes the edge between two vertex records, if there is
+	 * one, locking them in serial order.
+	 */
+	private void removeEdge(Vertex a, Vertex b) {
+		Vertex first = a.serial <= b.serial ? a : b;
+		Vertex second = first == a ? b : a;
+		synchronized (first) {
+			synchronized (second) {
+				HalfEdge edge = edgeHash.remove(new VertexPair(a.name, b.name));
+				if (edge == null) {
+					return;
+				}
+				// The edge's half-edges are in the lists of a and b, which
+				// are both locked; either may hold the primary half.
+				edge.list.remove(edge);
+				if (edge.partner != edge) {
+					edge.partner.list.remove(edge.partner);
+					b.degree--;
+				}
+				a.degree--;
+				edges.decrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * isEdge() returns true if (u, v) is an edge of the graph. Returns false if
+	 * (u, v) is not an edge (including the case where either of the parameters
+	 * u and v does not represent a vertex of the graph).
+	 *
+	 * Running time: O(1), without locking.
+	 */
+	public boolean isEdge(Object u, Object v) {
+		return edgeHash.containsKey(new VertexPair(u, v));
+	}
+
+	/**
+	 * weight() returns the weight of (u, v). Returns zero if (u, v) is not an
+	 * edge (including the case where either of the parameters u and v does not
+	 * represent a vertex of the graph).
+	 *
+	 * Running time: O(1), without locking.
+	 */
+	public int weight(Object u, Object v) {
+		HalfEdge edge = edgeHash.get(new VertexPair(u, v));
+		return edge == null ? 0 : edge.weight;
+	}
+
+}
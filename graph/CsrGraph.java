@@ -0,0 +1,300 @@
+/* CsrGraph.java */
+
+package graph;
+
+import dict.*;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * A CsrGraph is an immutable snapshot of a weighted, undirected graph stored
+ * in compressed-sparse-row form. Vertices are numbered 0...vertexCount() - 1.
+ * The half-edges leaving vertex u occupy the positions firstEdge(u) through
+ * endEdge(u) - 1; position i names the neighbor target(i) and the weight
+ * weight(i). Each edge (u, v) with u != v appears once in u's row and once in
+ * v's row; a self-edge appears once in its vertex's row, so degree() agrees
+ * with WUGraph.degree().
+ *
+ * Obtain a CsrGraph from WUGraph.freeze(), CsrGraph.fromEdges(), or
+ * CsrGraph.load().
+ */
+
+public class CsrGraph implements IndexedGraph {
+	private Object[] vertices;
+	private int[] offsets;
+	private int[] targets;
+	private int[] weights;
+	private int edgeCount;
+
+	/**
+	 * key is the application's vertex object, value is its Integer id. Built
+	 * on the first call to idOf() and published only once it is complete,
+	 * so threads sharing the snapshot never see it half filled.
+	 */
+	private volatile Dictionary vertexIds;
+
+	/**
+	 * CsrGraph() constructs a snapshot from arrays that become owned by the
+	 * snapshot. offsets must have vertices.length + 1 entries.
+	 */
+	CsrGraph(Object[] vertices, int[] offsets, int[] targets, int[] weights,
+			int edgeCount, Dictionary vertexIds) {
+		this.vertices = vertices;
+		this.offsets = offsets;
+		this.targets = targets;
+		this.weights = weights;
+		this.edgeCount = edgeCount;
+		this.vertexIds = vertexIds;
+	}
+
+	/**
+	 * fromEdges() builds a snapshot with the given vertices and the edges
+	 * (us[i], vs[i]) of weight ws[i], for 0 <= i < count, where us[i] and
+	 * vs[i] are indices into "vertices". The edges must be distinct as
+	 * unordered pairs.
+	 *
+	 * Running time: O(|V| + count).
+	 *
+	 * @param vertices
+	 *            the application's vertex objects; vertex i gets id i.
+	 * @param us
+	 *            the first endpoint of each edge.
+	 * @param vs
+	 *            the second endpoint of each edge.
+	 * @param ws
+	 *            the weight of each edge.
+	 * @param count
+	 *            the number of edges.
+	 * @return a new CsrGraph.
+	 */
+	public static CsrGraph fromEdges(Object[] vertices, int[] us, int[] vs,
+			int[] ws, int count) {
+		int n = vertices.length;
+		int[] offsets = new int[n + 1];
+		for (int i = 0; i < count; i++) {
+			offsets[us[i] + 1]++;
+			if (us[i] != vs[i]) {
+				offsets[vs[i] + 1]++;
+			}
+		}
+		for (int u = 0; u < n; u++) {
+			offsets[u + 1] += offsets[u];
+		}
+		int[] targets = new int[offsets[n]];
+		int[] weights = new int[offsets[n]];
+		int[] next = new int[n];
+		System.arraycopy(offsets, 0, next, 0, n);
+		for (int i = 0; i < count; i++) {
+			int slot = next[us[i]]++;
+			targets[slot] = vs[i];
+			weights[slot] = ws[i];
+			if (us[i] != vs[i]) {
+				slot = next[vs[i]]++;
+				targets[slot] = us[i];
+				weights[slot] = ws[i];
+			}
+		}
+		return new CsrGraph(vertices.clone(), offsets, targets, weights,
+				count, null);
+	}
+
+	/**
+	 * removeRepeats() keeps one copy of each unordered pair among the edges
+	 * (us[i], vs[i]) of weight ws[i], for 0 <= i < count, with the weight of
+	 * its last copy, and returns the number of edges kept. The kept edges
+	 * are moved to the front of us, vs, and ws, each written smaller
+	 * endpoint first, so they can be passed to fromEdges(). The edges are
+	 * first grouped by their smaller endpoint with a stable counting sort;
+	 * within a group, a pair is recognized by the other endpoint's slot in
+	 * "slot", which is valid only while "owner" holds the group's vertex.
+	 *
+	 * Running time: O(n + count).
+	 *
+	 * @param n
+	 *            the number of vertices; every endpoint is in 0...n - 1.
+	 * @return the number of edges kept.
+	 */
+	public static int removeRepeats(int n, int[] us, int[] vs, int[] ws,
+			int count) {
+		int[] start = new int[n + 1];
+		for (int i = 0; i < count; i++) {
+			start[Math.min(us[i], vs[i]) + 1]++;
+		}
+		for (int u = 0; u < n; u++) {
+			start[u + 1] += start[u];
+		}
+		int[] us2 = new int[count];
+		int[] vs2 = new int[count];
+		int[] ws2 = new int[count];
+		for (int i = 0; i < count; i++) {
+			int low = Math.min(us[i], vs[i]);
+			int slot = start[low]++;
+			us2[slot] = low;
+			vs2[slot] = Math.max(us[i], vs[i]);
+			ws2[slot] = ws[i];
+		}
+
+		int[] owner = start; // reused: start is no longer needed
+		java.util.Arrays.fill(owner, -1);
+		int[] slot = new int[n];
+		int kept = 0;
+		for (int i = 0; i < count; i++) {
+			int u = us2[i];
+			int v = vs2[i];
+			if (owner[v] == u) {
+				ws[slot[v]] = ws2[i];
+			} else {
+				owner[v] = u;
+				slot[v] = kept;
+				us[kept] = u;
+				vs[kept] = v;
+				ws[kept] = ws2[i];
+				kept++;
+			}
+		}
+		return kept;
+	}
+
+	/**
+	 * vertexCount() returns the number of vertices in the snapshot.
+	 *
+	 * Running time: O(1).
+	 */
+	public int vertexCount() {
+		return vertices.length;
+	}
+
+	/**
+	 * edgeCount() returns the number of (undirected) edges in the snapshot.
+	 *
+	 * Running time: O(1).
+	 */
+	public int edgeCount() {
+		return edgeCount;
+	}
+
+	/**
+	 * vertex() returns the application's object for the vertex with the given
+	 * id.
+	 *
+	 * Running time: O(1).
+	 */
+	public Object vertex(int id) {
+		return vertices[id];
+	}
+
+	/**
+	 * idOf() returns the id of the vertex represented by the application's
+	 * object "vertex", or -1 if it is not a vertex of the snapshot.
+	 *
+	 * Running time: O(1), after an O(|V|) index is built on the first call.
+	 */
+	public int idOf(Object vertex) {
+		Dictionary index = vertexIds;
+		if (index == null) {
+			index = new HashTableOpen(vertices.length);
+			for (int i = 0; i < vertices.length; i++) {
+				index.insert(vertices[i], i);
+			}
+			vertexIds = index; // published only once it is complete
+		}
+		Object id = index.findValue(vertex);
+		return id == null ? -1 : (Integer) id;
+	}
+
+	/**
+	 * degree() returns the number of half-edges leaving the vertex with the
+	 * given id.
+	 *
+	 * Running time: O(1).
+	 */
+	public int degree(int id) {
+		return offsets[id + 1] - offsets[id];
+	}
+
+	/**
+	 * firstEdge() returns the position of the first half-edge leaving the
+	 * vertex with the given id.
+	 *
+	 * Running time: O(1).
+	 */
+	public int firstEdge(int id) {
+		return offsets[id];
+	}
+
+	/**
+	 * endEdge() returns one past the position of the last half-edge leaving
+	 * the vertex with the given id.
+	 *
+	 * Running time: O(1).
+	 */
+	public int endEdge(int id) {
+		return offsets[id + 1];
+	}
+
+	/**
+	 * target() returns the id of the neighbor named by the half-edge at the
+	 * given position.
+	 *
+	 * Running time: O(1).
+	 */
+	public int target(int position) {
+		return targets[position];
+	}
+
+	/**
+	 * weight() returns the weight of the half-edge at the given position.
+	 *
+	 * Running time: O(1).
+	 */
+	public int weight(int position) {
+		return weights[position];
+	}
+
+	/**
+	 * save() writes the snapshot to a file in the format of WUGraph.save().
+	 * Vertices must be Integer, Long, or String objects. An existing file is
+	 * replaced atomically, and is left intact if the write fails.
+	 *
+	 * Running time: O(|V| + |E| log d), where d is the largest degree.
+	 *
+	 * @param path
+	 *            the file to write.
+	 * @throws IOException
+	 *             if the file cannot be written or a vertex has another type.
+	 */
+	public void save(Path path) throws IOException {
+		GraphFile.write(this, path);
+	}
+
+	/**
+	 * load() reads a file written by save() or WUGraph.save() into a new
+	 * snapshot, without building any per-vertex or per-edge objects other
+	 * than the vertex objects themselves. Each row's neighbors are in
+	 * ascending order of id.
+	 *
+	 * Running time: O(|V| + |E|).
+	 *
+	 * @param path
+	 *            the file to read.
+	 * @return a new CsrGraph.
+	 * @throws IOException
+	 *             if the file cannot be read or is not a graph file of a
+	 *             supported version.
+	 */
+	public static CsrGraph load(Path path) throws IOException {
+		return GraphFile.read(path);
+	}
+
+	/**
+	 * toWUGraph() returns a new WUGraph with the same vertices and edges as
+	 * this snapshot. Each vertex gets the same id in the new graph as in the
+	 * snapshot. The graph's tables are built directly from the arrays, without
+	 * the lookups addVertex() and addEdge() make.
+	 *
+	 * Running time: O(|V| + |E|).
+	 */
+	public WUGraph toWUGraph() {
+		return WUGraph.fromCsr(vertices, offsets, targets, weights, edgeCount);
+	}
+}
@@ -0,0 +1,165 @@
+/* EdgeIdTable.java */
+
+package graph;
+
+/**
+ * An EdgeIdTable maps the ids of the two endpoints of an edge to one of the
+ * edge's half-edges. It is an open-addressing table with linear probing
+ * whose keys are the two ids packed into a long, smaller id first, so
+ * neither the vertex objects nor a key object are hashed or allocated. The
+ * table doubles when it is half full; removal shifts later entries of the
+ * probe sequence backward instead of leaving tombstones.
+ */
+
+class EdgeIdTable {
+	private final static int MAX_CAPACITY = 1 << 30;
+
+	private long[] keys;
+	private HalfEdge[] edges;
+	private int mask;
+	private int size;
+
+	/**
+	 * EdgeIdTable() constructs an empty table with room for "count" edges
+	 * before it first grows.
+	 */
+	EdgeIdTable(int count) {
+		int capacity = 2;
+		while (capacity < 2L * count + 1 && capacity < MAX_CAPACITY) {
+			capacity <<= 1;
+		}
+		allocate(capacity);
+	}
+
+	/**
+	 * allocate() replaces the arrays with empty ones of the given capacity.
+	 */
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		edges = new HalfEdge[capacity];
+		mask = capacity - 1;
+	}
+
+	/**
+	 * size() returns the number of edges in the table.
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * key() packs the unordered pair of ids u and v into a long.
+	 */
+	private static long key(int u, int v) {
+		return u < v ? ((long) u << 32) | v : ((long) v << 32) | u;
+	}
+
+	/**
+	 * home() returns the first slot of a key's probe sequence.
+	 */
+	private int home(long key) {
+		return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+	}
+
+	/**
+	 * slotOf() returns the slot holding the key, or -1 if there is none.
+	 */
+	private int slotOf(long key) {
+		for (int slot = home(key); edges[slot] != null; slot = (slot + 1) & mask) {
+			if (keys[slot] == key) {
+				return slot;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * get() returns the half-edge of (u, v), or null if there is none.
+	 *
+	 * Running time: O(1) expected.
+	 */
+	HalfEdge get(int u, int v) {
+		int slot = slotOf(key(u, v));
+		return slot < 0 ? null : edges[slot];
+	}
+
+	/**
+	 * put() records "edge" as the half-edge of (u, v), replacing any
+	 * half-edge recorded for (u, v) before.
+	 *
+	 * Running time: O(1) amortized.
+	 *
+	 * @throws IllegalStateException
+	 *             if the table has MAX_CAPACITY slots and only one is free.
+	 */
+	void put(int u, int v, HalfEdge edge) {
+		long key = key(u, v);
+		int slot = slotOf(key);
+		if (slot >= 0) {
+			edges[slot] = edge;
+			return;
+		}
+		if (size + 1 > keys.length / 2 && keys.length < MAX_CAPACITY) {
+			rehash(keys.length * 2);
+		}
+		// one slot always stays empty, so every probe sequence ends
+		if (size + 1 >= keys.length) {
+			throw new IllegalStateException("edge table is full");
+		}
+		place(key, edge);
+		size++;
+	}
+
+	/**
+	 * remove() removes (u, v) from the table, if it is there.
+	 *
+	 * Running time: O(1) expected.
+	 */
+	void remove(int u, int v) {
+		int hole = slotOf(key(u, v));
+		if (hole < 0) {
+			return;
+		}
+		size--;
+		int slot = (hole + 1) & mask;
+		while (edges[slot] != null) {
+			int home = home(keys[slot]);
+			// Move the entry into the hole unless its home lies cyclically
+			// in (hole, slot], in which case it is already reachable.
+			if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+				keys[hole] = keys[slot];
+				edges[hole] = edges[slot];
+				hole = slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		edges[hole] = null;
+	}
+
+	/**
+	 * place() stores a key and half-edge in the first free slot of the key's
+	 * probe sequence.
+	 */
+	private void place(long key, HalfEdge edge) {
+		int slot = home(key);
+		while (edges[slot] != null) {
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		edges[slot] = edge;
+	}
+
+	/**
+	 * rehash() moves every entry into new arrays of the given capacity.
+	 */
+	private void rehash(int capacity) {
+		long[] oldKeys = keys;
+		HalfEdge[] oldEdges = edges;
+		allocate(capacity);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldEdges[i] != null) {
+				place(oldKeys[i], oldEdges[i]);
+			}
+		}
+	}
+}
@@ -0,0 +1,329 @@
+/* EdgeListLoader.java */
+
+package graph;
+
+import dict.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The EdgeListLoader class builds a WUGraph from an edge-list file in one
+ * pass, without the per-vertex and per-edge lookups of addVertex() and
+ * addEdge().
+ * Vertices are named by non-negative ints in the file and become Integer
+ * vertex objects in the graph, added in order of first appearance.
+ *
+ * Two file formats are read:
+ *
+ *   - Text: one edge per line, "u v weight" or "u v" (weight 1), with the
+ *     fields separated by spaces or tabs. Blank lines are skipped, and "#"
+ *     or "%" starts a comment that runs to the end of the line.
+ *   - Binary: a sequence of 12-byte records, each holding u, v, and weight
+ *     as little-endian 32-bit ints, with no header.
+ *
+ * As with addEdge(), a repeated edge keeps the weight of its last line.
+ */
+
+public class EdgeListLoader {
+	private final static int BUFFER_SIZE = 1 << 16;
+	private final static int RECORD_BYTES = 12;
+	private final static int INITIAL_CAPACITY = 1024;
+
+	/**
+	 * MAX_EDGES is the most edges the loader can hold in its arrays.
+	 */
+	private final static int MAX_EDGES = Integer.MAX_VALUE - 8;
+
+	/**
+	 * The edges read so far, as parallel arrays of vertex names and weights.
+	 */
+	private int[] us;
+	private int[] vs;
+	private int[] ws;
+	private int count;
+
+	/**
+	 * The state of the text parser, which survives from one buffer to the
+	 * next so a line may straddle two buffers.
+	 */
+	private int[] fields = new int[3];
+	private int field;
+	private long value;
+	private int digits;
+	private boolean negative;
+	private boolean inComment;
+	private long line = 1;
+
+	/**
+	 * EdgeListLoader() constructs a loader with room for "capacity" edges.
+	 */
+	private EdgeListLoader(int capacity) {
+		capacity = Math.max(capacity, 1);
+		us = new int[capacity];
+		vs = new int[capacity];
+		ws = new int[capacity];
+	}
+
+	/**
+	 * loadText() reads a text edge list and returns a new WUGraph holding its
+	 * edges. The file is read through a FileChannel in BUFFER_SIZE chunks.
+	 *
+	 * Running time: O(file size + |V| + |E|).
+	 *
+	 * @param path
+	 *            the file to read.
+	 * @return a new WUGraph.
+	 * @throws IOException
+	 *             if the file cannot be read, a line is malformed, or it has
+	 *             more than MAX_EDGES edges.
+	 */
+	public static WUGraph loadText(Path path) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			// A line of "u v weight" is usually at least 12 bytes long.
+			long estimate = Math.min(channel.size() / 12, Integer.MAX_VALUE - 8);
+			EdgeListLoader loader = new EdgeListLoader(Math.max(
+					(int) estimate, INITIAL_CAPACITY));
+			ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+			while (channel.read(buffer) != -1) {
+				loader.parse(buffer.array(), buffer.position());
+				buffer.clear();
+			}
+			loader.endLine();
+			return loader.build();
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * loadBinary() reads a binary edge list and returns a new WUGraph holding
+	 * its edges. The file is memory-mapped, so it is read without copying it
+	 * into the heap first.
+	 *
+	 * Running time: O(|V| + |E|).
+	 *
+	 * @param path
+	 *            the file to read.
+	 * @return a new WUGraph.
+	 * @throws IOException
+	 *             if the file cannot be read, its length is not a multiple of
+	 *             RECORD_BYTES, or a vertex name is negative.
+	 */
+	public static WUGraph loadBinary(Path path) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			long size = channel.size();
+			if (size % RECORD_BYTES != 0
+					|| size / RECORD_BYTES > MAX_EDGES) {
+				throw new IOException(path + ": length " + size
+						+ " is not a whole number of " + RECORD_BYTES
+						+ "-byte records");
+			}
+			int records = (int) (size / RECORD_BYTES);
+			EdgeListLoader loader = new EdgeListLoader(records);
+			// A mapping is limited to 2GB, so map the file in pieces.
+			long chunk = (Integer.MAX_VALUE / RECORD_BYTES) * (long) RECORD_BYTES;
+			for (long start = 0; start < size; start += chunk) {
+				IntBuffer ints = channel
+						.map(FileChannel.MapMode.READ_ONLY, start,
+								Math.min(chunk, size - start))
+						.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+				while (ints.hasRemaining()) {
+					int u = ints.get();
+					int v = ints.get();
+					int weight = ints.get();
+					if (u < 0 || v < 0) {
+						throw new IOException(path + ": record "
+								+ loader.count + " has a negative vertex");
+					}
+					loader.add(u, v, weight);
+				}
+			}
+			return loader.build();
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * parse() feeds the first "length" bytes of "bytes" to the text parser.
+	 */
+	private void parse(byte[] bytes, int length) throws IOException {
+		for (int i = 0; i < length; i++) {
+			byte b = bytes[i];
+			if (b == '\n') {
+				endLine();
+			} else if (inComment) {
+				continue;
+			} else if (b >= '0' && b <= '9') {
+				value = value * 10 + (b - '0');
+				digits++;
+				if (value > Integer.MAX_VALUE + 1L) {
+					throw error("number out of range");
+				}
+			} else if (b == ' ' || b == '\t' || b == '\r') {
+				endField();
+			} else if (b == '-' && digits == 0 && !negative) {
+				negative = true;
+			} else if (b == '#' || b == '%') {
+				endField();
+				inComment = true;
+			} else {
+				throw error("unexpected character '" + (char) b + "'");
+			}
+		}
+	}
+
+	/**
+	 * endField() finishes the number being parsed, if any.
+	 */
+	private void endField() throws IOException {
+		if (digits == 0) {
+			if (negative) {
+				throw error("'-' without digits");
+			}
+			return;
+		}
+		if (field == fields.length) {
+			throw error("more than three fields");
+		}
+		long number = negative ? -value : value;
+		if (number > Integer.MAX_VALUE) {
+			throw error("number out of range");
+		}
+		if (field < 2 && number < 0) {
+			throw error("negative vertex");
+		}
+		fields[field] = (int) number;
+		field++;
+		value = 0;
+		digits = 0;
+		negative = false;
+	}
+
+	/**
+	 * endLine() finishes the current line, adding its edge if it has one.
+	 */
+	private void endLine() throws IOException {
+		endField();
+		if (field == 1) {
+			throw error("only one field");
+		} else if (field == 2) {
+			add(fields[0], fields[1], 1);
+		} else if (field == 3) {
+			add(fields[0], fields[1], fields[2]);
+		}
+		field = 0;
+		inComment = false;
+		line++;
+	}
+
+	/**
+	 * error() returns an exception describing a malformed current line.
+	 */
+	private IOException error(String message) {
+		return new IOException("line " + line + ": " + message);
+	}
+
+	/**
+	 * add() appends the edge (u, v), growing the arrays if necessary.
+	 *
+	 * @throws IOException
+	 *             if the loader already holds MAX_EDGES edges.
+	 */
+	private void add(int u, int v, int weight) throws IOException {
+		if (count == us.length) {
+			if (count == MAX_EDGES) {
+				throw new IOException("more than " + MAX_EDGES + " edges");
+			}
+			int capacity = (int) Math.min(2L * count, MAX_EDGES);
+			int[] newUs = new int[capacity];
+			int[] newVs = new int[capacity];
+			int[] newWs = new int[capacity];
+			System.arraycopy(us, 0, newUs, 0, count);
+			System.arraycopy(vs, 0, newVs, 0, count);
+			System.arraycopy(ws, 0, newWs, 0, count);
+			us = newUs;
+			vs = newVs;
+			ws = newWs;
+		}
+		us[count] = u;
+		vs[count] = v;
+		ws[count] = weight;
+		count++;
+	}
+
+	/**
+	 * build() returns a new WUGraph holding the edges read. The names are
+	 * renumbered to vertex ids and the repeated edges dropped in the arrays
+	 * themselves, and the graph's tables and adjacency lists are then built
+	 * directly from a CsrGraph of the result, with no per-edge lookup.
+	 */
+	private WUGraph build() {
+		Object[] vertices = renumber();
+		count = CsrGraph.removeRepeats(vertices.length, us, vs, ws, count);
+		return CsrGraph.fromEdges(vertices, us, vs, ws, count).toWUGraph();
+	}
+
+	/**
+	 * renumber() replaces every name in us and vs by a vertex id, numbering
+	 * the names 0, 1, 2, ... in order of first appearance, and returns the
+	 * Integer vertex objects indexed by id.
+	 */
+	private Object[] renumber() {
+		int maxName = -1;
+		for (int i = 0; i < count; i++) {
+			maxName = Math.max(maxName, Math.max(us[i], vs[i]));
+		}
+		// Map names to ids with an array when the names are dense enough,
+		// and with a hash table otherwise.
+		int[] idByName = null;
+		Dictionary idTable = null;
+		int[] names;
+		if (maxName < 4L * count + INITIAL_CAPACITY) {
+			idByName = new int[maxName + 1];
+			java.util.Arrays.fill(idByName, -1);
+			names = new int[(int) Math.min(maxName + 1, 2L * count)];
+		} else {
+			idTable = new HashTableOpen(count);
+			names = new int[(int) Math.min(2L * count, Integer.MAX_VALUE - 8)];
+		}
+		int n = 0;
+		for (int i = 0; i < count; i++) {
+			for (int end = 0; end < 2; end++) {
+				int[] ends = end == 0 ? us : vs;
+				int name = ends[i];
+				int id;
+				if (idByName != null) {
+					id = idByName[name];
+					if (id < 0) {
+						id = n;
+						idByName[name] = id;
+						names[n++] = name;
+					}
+				} else {
+					Object found = idTable.findValue(name);
+					if (found == null) {
+						id = n;
+						idTable.insert(name, id);
+						names[n++] = name;
+					} else {
+						id = (Integer) found;
+					}
+				}
+				ends[i] = id;
+			}
+		}
+		Object[] vertices = new Object[n];
+		for (int id = 0; id < n; id++) {
+			vertices[id] = Integer.valueOf(names[id]);
+		}
+		return vertices;
+	}
+}
@@ -0,0 +1,24 @@
+/* EdgeVisitor.java */
+
+package graph;
+
+/**
+ * An EdgeVisitor receives the edges of a WUGraph, one call per edge, from
+ * WUGraph.forEachEdge().
+ */
+
+public interface EdgeVisitor {
+
+	/**
+	 * visit() is called once for each edge (u, v) of the graph.
+	 *
+	 * @param u
+	 *            one endpoint of the edge.
+	 * @param v
+	 *            the other endpoint (the same object as u for a self-edge).
+	 * @param weight
+	 *            the weight of the edge.
+	 */
+	public void visit(Object u, Object v, int weight);
+
+}
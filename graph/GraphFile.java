@@ -0,0 +1,472 @@
+/* GraphFile.java */
+
+package graph;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The GraphFile class reads and writes the binary graph file format used by
+ * WUGraph.save() and WUGraph.load(). All numbers are little-endian. A file
+ * is a fixed-size header followed by five sections, each starting on an
+ * 8-byte boundary:
+ *
+ *   header        magic "WUGF", version, vertexCount, edgeCount, and the
+ *                 byte position of each section (see the HEADER_* offsets)
+ *   vertex index  long[vertexCount + 1]: where each vertex's entry starts
+ *                 in the vertex data; the last entry is the data's length
+ *   vertex data   one entry per vertex: a tag byte, then the value
+ *                 (TAG_INTEGER: int, TAG_LONG: long, TAG_STRING: int byte
+ *                 length and UTF-8 bytes)
+ *   offsets       int[vertexCount + 1]: CSR row offsets
+ *   targets       int[offsets[vertexCount]]: neighbor ids, ascending in
+ *                 each row
+ *   weights       int[offsets[vertexCount]]: the matching edge weights
+ *
+ * The rows follow CsrGraph's convention: an edge (u, v) with u != v is in
+ * both rows, a self-edge only in its vertex's row. Because every section is
+ * at a known position and the rows are sorted, the file can also be used in
+ * place by a memory mapping.
+ */
+
+class GraphFile {
+	final static int MAGIC = 0x46475557; // "WUGF" read as a little-endian int
+	final static int VERSION = 1;
+
+	final static int HEADER_BYTES = 64;
+	final static int HEADER_MAGIC = 0;
+	final static int HEADER_VERSION = 4;
+	final static int HEADER_VERTEX_COUNT = 8;
+	final static int HEADER_EDGE_COUNT = 12;
+	final static int HEADER_VERTEX_INDEX = 16;
+	final static int HEADER_VERTEX_DATA = 24;
+	final static int HEADER_OFFSETS = 32;
+	final static int HEADER_TARGETS = 40;
+	final static int HEADER_WEIGHTS = 48;
+
+	final static byte TAG_INTEGER = 'I';
+	final static byte TAG_LONG = 'J';
+	final static byte TAG_STRING = 'S';
+
+	private final static int BUFFER_SIZE = 1 << 20;
+
+	/**
+	 * write() writes the snapshot g to "path" in the graph file format,
+	 * replacing any existing file. Every vertex is checked before anything
+	 * is opened, and the file is written to a temporary file in the same
+	 * directory, forced to disk, and then moved over "path" atomically, so
+	 * a failed or interrupted write leaves any earlier file intact.
+	 *
+	 * Running time: O(|V| + |E| log d), where d is the largest degree.
+	 *
+	 * @throws NotSerializableException
+	 *             if a vertex is not an Integer, Long, or String.
+	 */
+	static void write(CsrGraph g, Path path) throws IOException {
+		int n = g.vertexCount();
+		byte[][] strings = new byte[n][];
+		for (int u = 0; u < n; u++) {
+			Object vertex = g.vertex(u);
+			if (vertex instanceof String) {
+				strings[u] = ((String) vertex).getBytes(StandardCharsets.UTF_8);
+			} else if (!(vertex instanceof Integer || vertex instanceof Long)) {
+				throw new NotSerializableException(vertex.getClass().getName());
+			}
+		}
+
+		Path directory = path.toAbsolutePath().getParent();
+		Path temporary = Files.createTempFile(directory, path.getFileName()
+				.toString(), ".tmp");
+		boolean moved = false;
+		try {
+			FileChannel channel = FileChannel.open(temporary,
+					StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING);
+			try {
+				write(g, strings, channel);
+				channel.force(true);
+			} finally {
+				channel.close();
+			}
+			Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE,
+					StandardCopyOption.REPLACE_EXISTING);
+			moved = true;
+		} finally {
+			if (!moved) {
+				Files.deleteIfExists(temporary);
+			}
+		}
+	}
+
+	/**
+	 * write() writes the snapshot g to "channel", whose vertices have been
+	 * checked and whose String vertices are encoded in "strings".
+	 */
+	private static void write(CsrGraph g, byte[][] strings,
+			FileChannel channel) throws IOException {
+		int n = g.vertexCount();
+		long halfEdges = n == 0 ? 0 : g.endEdge(n - 1);
+		Output out = new Output(channel);
+		long[] sections = new long[5];
+
+		// The vertex index can be written before the data because each
+		// entry's length is known in advance.
+		out.skipTo(HEADER_BYTES);
+		sections[0] = out.position();
+		long entry = 0;
+		for (int u = 0; u < n; u++) {
+			out.putLong(entry);
+			Object vertex = g.vertex(u);
+			if (vertex instanceof Integer) {
+				entry += 1 + 4;
+			} else if (vertex instanceof Long) {
+				entry += 1 + 8;
+			} else {
+				entry += 1 + 4 + strings[u].length;
+			}
+		}
+		out.putLong(entry);
+
+		sections[1] = out.position();
+		for (int u = 0; u < n; u++) {
+			Object vertex = g.vertex(u);
+			if (vertex instanceof Integer) {
+				out.putByte(TAG_INTEGER);
+				out.putInt((Integer) vertex);
+			} else if (vertex instanceof Long) {
+				out.putByte(TAG_LONG);
+				out.putLong((Long) vertex);
+			} else {
+				out.putByte(TAG_STRING);
+				out.putInt(strings[u].length);
+				out.putBytes(strings[u]);
+			}
+		}
+		out.align();
+
+		sections[2] = out.position();
+		for (int u = 0; u <= n; u++) {
+			out.putInt(u < n ? g.firstEdge(u) : (int) halfEdges);
+		}
+		out.align();
+
+		// Sort each row by target, carrying the weights along, by packing
+		// each half-edge into a long.
+		long[] row = new long[16];
+		int[] sortedWeights = new int[(int) halfEdges];
+		sections[3] = out.position();
+		for (int u = 0; u < n; u++) {
+			int degree = g.degree(u);
+			if (row.length < degree) {
+				row = new long[Math.max(degree, 2 * row.length)];
+			}
+			for (int k = 0; k < degree; k++) {
+				int i = g.firstEdge(u) + k;
+				row[k] = ((long) g.target(i) << 32)
+						| (g.weight(i) & 0xFFFFFFFFL);
+			}
+			java.util.Arrays.sort(row, 0, degree);
+			for (int k = 0; k < degree; k++) {
+				out.putInt((int) (row[k] >>> 32));
+				sortedWeights[g.firstEdge(u) + k] = (int) row[k];
+			}
+		}
+		out.align();
+
+		sections[4] = out.position();
+		for (int i = 0; i < sortedWeights.length; i++) {
+			out.putInt(sortedWeights[i]);
+		}
+		out.flush();
+
+		ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(
+				ByteOrder.LITTLE_ENDIAN);
+		header.putInt(HEADER_MAGIC, MAGIC);
+		header.putInt(HEADER_VERSION, VERSION);
+		header.putInt(HEADER_VERTEX_COUNT, n);
+		header.putInt(HEADER_EDGE_COUNT, g.edgeCount());
+		for (int s = 0; s < sections.length; s++) {
+			header.putLong(HEADER_VERTEX_INDEX + 8 * s, sections[s]);
+		}
+		long position = 0;
+		while (header.hasRemaining()) {
+			position += channel.write(header, position);
+		}
+	}
+
+	/**
+	 * read() reads a graph file and returns it as a CsrGraph. The file is
+	 * read sequentially in large chunks, and the int sections are copied
+	 * into arrays in bulk.
+	 *
+	 * Running time: O(file size).
+	 *
+	 * @throws IOException
+	 *             if the file cannot be read or is not a valid graph file of
+	 *             a supported version.
+	 */
+	static CsrGraph read(Path path) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			ByteBuffer header = readHeader(channel, path);
+			int n = header.getInt(HEADER_VERTEX_COUNT);
+			int edgeCount = header.getInt(HEADER_EDGE_COUNT);
+			Input in = new Input(channel);
+
+			Object[] vertices = new Object[n];
+			in.seek(header.getLong(HEADER_VERTEX_DATA));
+			for (int u = 0; u < n; u++) {
+				vertices[u] = in.getVertex(path);
+			}
+
+			int[] offsets = new int[n + 1];
+			in.seek(header.getLong(HEADER_OFFSETS));
+			in.getInts(offsets);
+			checkOffsets(offsets, path);
+			int[] targets = new int[offsets[n]];
+			in.seek(header.getLong(HEADER_TARGETS));
+			in.getInts(targets);
+			for (int i = 0; i < targets.length; i++) {
+				if (targets[i] < 0 || targets[i] >= n) {
+					throw new IOException(path + ": neighbor id out of range");
+				}
+			}
+			int[] weights = new int[offsets[n]];
+			in.seek(header.getLong(HEADER_WEIGHTS));
+			in.getInts(weights);
+			return new CsrGraph(vertices, offsets, targets, weights, edgeCount,
+					null);
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * readHeader() reads and checks the header of a graph file, returning it
+	 * as a little-endian buffer.
+	 */
+	static ByteBuffer readHeader(FileChannel channel, Path path)
+			throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(
+				ByteOrder.LITTLE_ENDIAN);
+		long position = 0;
+		while (header.hasRemaining()) {
+			int read = channel.read(header, position);
+			if (read < 0) {
+				throw new IOException(path + ": not a graph file (too short)");
+			}
+			position += read;
+		}
+		if (header.getInt(HEADER_MAGIC) != MAGIC) {
+			throw new IOException(path + ": not a graph file (bad magic)");
+		}
+		if (header.getInt(HEADER_VERSION) != VERSION) {
+			throw new IOException(path + ": unsupported graph file version "
+					+ header.getInt(HEADER_VERSION));
+		}
+		if (header.getInt(HEADER_VERTEX_COUNT) < 0
+				|| header.getInt(HEADER_EDGE_COUNT) < 0) {
+			throw new IOException(path + ": negative count in header");
+		}
+		for (int s = HEADER_VERTEX_INDEX; s <= HEADER_WEIGHTS; s += 8) {
+			long section = header.getLong(s);
+			if (section < HEADER_BYTES || section > channel.size()) {
+				throw new IOException(path + ": section out of range");
+			}
+		}
+		return header;
+	}
+
+	/**
+	 * checkOffsets() checks that CSR row offsets start at zero and never
+	 * decrease.
+	 */
+	static void checkOffsets(int[] offsets, Path path) throws IOException {
+		if (offsets[0] != 0) {
+			throw new IOException(path + ": offsets do not start at zero");
+		}
+		for (int u = 1; u < offsets.length; u++) {
+			if (offsets[u] < offsets[u - 1]) {
+				throw new IOException(path + ": offsets decrease at " + u);
+			}
+		}
+	}
+
+	/**
+	 * An Output writes numbers sequentially to a channel through a direct
+	 * buffer, keeping track of the file position.
+	 */
+	private static class Output {
+		private FileChannel channel;
+		private ByteBuffer buffer;
+		private long flushed;
+
+		Output(FileChannel channel) {
+			this.channel = channel;
+			buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(
+					ByteOrder.LITTLE_ENDIAN);
+		}
+
+		long position() {
+			return flushed + buffer.position();
+		}
+
+		void putByte(byte b) throws IOException {
+			room(1);
+			buffer.put(b);
+		}
+
+		void putInt(int i) throws IOException {
+			room(4);
+			buffer.putInt(i);
+		}
+
+		void putLong(long l) throws IOException {
+			room(8);
+			buffer.putLong(l);
+		}
+
+		void putBytes(byte[] bytes) throws IOException {
+			for (int done = 0; done < bytes.length;) {
+				room(1);
+				int length = Math.min(buffer.remaining(), bytes.length - done);
+				buffer.put(bytes, done, length);
+				done += length;
+			}
+		}
+
+		/**
+		 * skipTo() pads with zero bytes up to the given file position.
+		 */
+		void skipTo(long position) throws IOException {
+			while (position() < position) {
+				putByte((byte) 0);
+			}
+		}
+
+		/**
+		 * align() pads with zero bytes to the next multiple of eight.
+		 */
+		void align() throws IOException {
+			skipTo((position() + 7) & ~7L);
+		}
+
+		/**
+		 * room() flushes the buffer unless it has room for "bytes" more.
+		 */
+		private void room(int bytes) throws IOException {
+			if (buffer.remaining() < bytes) {
+				flush();
+			}
+		}
+
+		void flush() throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				flushed += channel.write(buffer, flushed);
+			}
+			buffer.clear();
+		}
+	}
+
+	/**
+	 * An Input reads numbers sequentially from a channel through a direct
+	 * buffer.
+	 */
+	private static class Input {
+		private FileChannel channel;
+		private ByteBuffer buffer;
+		private long next;
+
+		Input(FileChannel channel) {
+			this.channel = channel;
+			buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(
+					ByteOrder.LITTLE_ENDIAN);
+			buffer.flip();
+		}
+
+		/**
+		 * seek() moves to the given file position, discarding the buffer.
+		 */
+		void seek(long position) {
+			next = position;
+			buffer.clear();
+			buffer.flip();
+		}
+
+		/**
+		 * need() refills the buffer until it holds at least "bytes" bytes.
+		 */
+		private void need(int bytes) throws IOException {
+			if (buffer.remaining() >= bytes) {
+				return;
+			}
+			buffer.compact();
+			while (buffer.position() < bytes) {
+				int read = channel.read(buffer, next);
+				if (read < 0) {
+					throw new EOFException("graph file ends early");
+				}
+				next += read;
+			}
+			buffer.flip();
+		}
+
+		int getInt() throws IOException {
+			need(4);
+			return buffer.getInt();
+		}
+
+		/**
+		 * getInts() fills "array" with the next array.length ints.
+		 */
+		void getInts(int[] array) throws IOException {
+			int done = 0;
+			while (done < array.length) {
+				need(4);
+				int length = Math.min(buffer.remaining() / 4, array.length
+						- done);
+				buffer.asIntBuffer().get(array, done, length);
+				buffer.position(buffer.position() + 4 * length);
+				done += length;
+			}
+		}
+
+		/**
+		 * getVertex() reads one vertex data entry.
+		 */
+		Object getVertex(Path path) throws IOException {
+			need(1);
+			byte tag = buffer.get();
+			if (tag == TAG_INTEGER) {
+				return getInt();
+			} else if (tag == TAG_LONG) {
+				need(8);
+				return buffer.getLong();
+			} else if (tag == TAG_STRING) {
+				int length = getInt();
+				if (length < 0) {
+					throw new IOException(path + ": negative string length");
+				}
+				byte[] bytes = new byte[length];
+				for (int done = 0; done < length;) {
+					need(1);
+					int chunk = Math.min(buffer.remaining(), length - done);
+					buffer.get(bytes, done, chunk);
+					done += chunk;
+				}
+				return new String(bytes, StandardCharsets.UTF_8);
+			}
+			throw new IOException(path + ": unknown vertex tag " + tag);
+		}
+	}
+}
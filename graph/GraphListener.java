@@ -0,0 +1,72 @@
+/* GraphListener.java */
+
+package graph;
+
+/**
+ * A GraphListener is told about every change to a WUGraph it has been
+ * registered with by WUGraph.addListener(), one call per change, after the
+ * change has been made. Vertices are named by their ids, as returned by
+ * WUGraph.idOf(). Removing a vertex reports the removal of each of its edges
+ * first, then the removal of the vertex. A listener must not modify the
+ * graph.
+ */
+
+public interface GraphListener {
+
+	/**
+	 * vertexAdded() is called when a vertex is added.
+	 *
+	 * @param id
+	 *            the id of the new vertex.
+	 */
+	public void vertexAdded(int id);
+
+	/**
+	 * vertexRemoved() is called when a vertex is removed, after its edges.
+	 * The id may be given to a vertex added later.
+	 *
+	 * @param id
+	 *            the id the vertex had.
+	 */
+	public void vertexRemoved(int id);
+
+	/**
+	 * edgeAdded() is called when a new edge (u, v) is added.
+	 *
+	 * @param u
+	 *            the id of one endpoint of the edge.
+	 * @param v
+	 *            the id of the other endpoint (equal to u for a self-edge).
+	 * @param weight
+	 *            the weight of the edge.
+	 */
+	public void edgeAdded(int u, int v, int weight);
+
+	/**
+	 * edgeWeightChanged() is called when addEdge() gives an existing edge
+	 * (u, v) a weight. It is called even if the weight is the same.
+	 *
+	 * @param u
+	 *            the id of one endpoint of the edge.
+	 * @param v
+	 *            the id of the other endpoint.
+	 * @param oldWeight
+	 *            the edge's previous weight.
+	 * @param weight
+	 *            the edge's new weight.
+	 */
+	public void edgeWeightChanged(int u, int v, int oldWeight, int weight);
+
+	/**
+	 * edgeRemoved() is called when an edge (u, v) is removed.
+	 *
+	 * @param u
+	 *            the id of one endpoint of the edge.
+	 * @param v
+	 *            the id of the other endpoint.
+	 * @param weight
+	 *            the weight the edge had.
+	 */
+	public void edgeRemoved(int u, int v, int weight);
+
+}
@@ -0,0 +1,348 @@
+/* GraphSnapshot.java */
+
+package graph;
+
+import dict.*;
+
+/**
+ * A GraphSnapshot is a read-only view of a WUGraph as it was when
+ * WUGraph.snapshot() was called. It shares the graph's adjacency lists
+ * rather than copying them: every half-edge and vertex is stamped with the
+ * versions in which it was added and retired, and the snapshot of version s
+ * sees exactly those with born <= s < died. The graph leaves in place
+ * whatever an open snapshot can see, so the view never changes, and any
+ * number of threads may read it while the graph's own thread changes the
+ * graph.
+ *
+ * Call release() when done with a snapshot, so the graph can reclaim the
+ * half-edges and vertices that only the snapshot still sees. Reading a
+ * snapshot after releasing it gives undefined results.
+ *
+ * isVertex(), degree(), getNeighbors(), isEdge(), and weight() find vertices
+ * through an index that is built on the first such call, and isEdge() and
+ * weight() find edges through a second index built on the first call to
+ * either. An index is never changed once built and is published through a
+ * volatile field, so readers take no lock; threads that race to build one
+ * build identical copies, and any of them may be kept. For bulk work,
+ * forEachEdge() and freeze() walk the lists directly.
+ */
+
+public class GraphSnapshot {
+	private final int version;
+	private final AdjacencyList[] lists;
+	private final int idBound;
+	private final int vertexCount;
+	private final int edgeCount;
+	private volatile boolean released;
+
+	/**
+	 * key is the application's vertex object, value is its AdjacencyList.
+	 * Built on the first call to findList().
+	 */
+	private volatile Dictionary vertexLists;
+
+	/**
+	 * edgeIndex maps each edge to its primary half-edge. Built on the first
+	 * call to findEdge().
+	 */
+	private volatile EdgeIdTable edgeIndex;
+
+	/**
+	 * GraphSnapshot() constructs the snapshot of the given version, whose
+	 * vertices have ids below idBound and have their lists in "lists". The
+	 * array is the graph's own; the graph changes only entries that no open
+	 * snapshot can see.
+	 */
+	GraphSnapshot(int version, AdjacencyList[] lists, int idBound,
+			int vertexCount, int edgeCount) {
+		this.version = version;
+		this.lists = lists;
+		this.idBound = idBound;
+		this.vertexCount = vertexCount;
+		this.edgeCount = edgeCount;
+	}
+
+	/**
+	 * version() returns the version of the graph that the snapshot shows.
+	 *
+	 * Running time: O(1).
+	 */
+	int version() {
+		return version;
+	}
+
+	/**
+	 * release() tells the graph that the snapshot will not be read again.
+	 * The graph reclaims what the snapshot alone kept alive the next time it
+	 * is changed. Releasing a snapshot twice does nothing.
+	 *
+	 * Running time: O(1).
+	 */
+	public void release() {
+		released = true;
+	}
+
+	/**
+	 * isReleased() returns true if release() has been called.
+	 *
+	 * Running time: O(1).
+	 */
+	public boolean isReleased() {
+		return released;
+	}
+
+	/**
+	 * vertexCount() returns the number of vertices in the snapshot.
+	 *
+	 * Running time: O(1).
+	 */
+	public int vertexCount() {
+		return vertexCount;
+	}
+
+	/**
+	 * edgeCount() returns the number of edges in the snapshot.
+	 *
+	 * Running time: O(1).
+	 */
+	public int edgeCount() {
+		return edgeCount;
+	}
+
+	/**
+	 * sees() returns true if a vertex or half-edge with the given stamps is
+	 * part of the snapshot.
+	 */
+	private boolean sees(int born, int died) {
+		return born <= version && died > version;
+	}
+
+	/**
+	 * visibleList() returns the adjacency list of the vertex with the given
+	 * id if the snapshot sees the vertex, or null otherwise.
+	 */
+	private AdjacencyList visibleList(int id) {
+		AdjacencyList list = lists[id];
+		if (list == null || !sees(list.born, list.died)) {
+			return null;
+		}
+		return list;
+	}
+
+	/**
+	 * findList() returns the adjacency list of the input vertex, or null if
+	 * it is not a vertex of the snapshot.
+	 */
+	private AdjacencyList findList(Object vertex) {
+		Dictionary index = vertexLists;
+		if (index == null) {
+			index = new HashTableOpen(vertexCount);
+			for (int id = 0; id < idBound; id++) {
+				AdjacencyList list = visibleList(id);
+				if (list != null) {
+					index.insert(list.vertex, list);
+				}
+			}
+			vertexLists = index;
+		}
+		return (AdjacencyList) index.findValue(vertex);
+	}
+
+	/**
+	 * getVertices() returns a new array of the snapshot's vertices, in order
+	 * of vertex id.
+	 *
+	 * Running time: O(|V|), where |V| counts every vertex id the graph had
+	 * in use when the snapshot was taken.
+	 */
+	public Object[] getVertices() {
+		Object[] vertices = new Object[vertexCount];
+		int index = 0;
+		for (int id = 0; id < idBound; id++) {
+			AdjacencyList list = visibleList(id);
+			if (list != null) {
+				vertices[index] = list.vertex;
+				index++;
+			}
+		}
+		return vertices;
+	}
+
+	/**
+	 * isVertex() returns true if the parameter "vertex" represents a vertex of
+	 * the snapshot.
+	 *
+	 * Running time: O(1).
+	 */
+	public boolean isVertex(Object vertex) {
+		return findList(vertex) != null;
+	}
+
+	/**
+	 * degree() returns the degree of a vertex in the snapshot, as
+	 * WUGraph.degree() does, or zero if it is not a vertex of the snapshot.
+	 *
+	 * Running time: O(d), where d counts the half-edges of the vertex's list,
+	 * including those added or retired since the snapshot was taken.
+	 */
+	public int degree(Object vertex) {
+		AdjacencyList list = findList(vertex);
+		return list == null ? 0 : degree(list);
+	}
+
+	/**
+	 * degree() counts the half-edges of a list that the snapshot sees.
+	 */
+	private int degree(AdjacencyList list) {
+		int degree = 0;
+		for (HalfEdge e = list.head.next; e != list.head; e = e.next) {
+			if (sees(e.born, e.died)) {
+				degree++;
+			}
+		}
+		return degree;
+	}
+
+	/**
+	 * getNeighbors() returns a new Neighbors object listing the neighbors of
+	 * "vertex" in the snapshot and the weights of the corresponding edges, as
+	 * WUGraph.getNeighbors() does. If the vertex has degree zero, or if the
+	 * parameter "vertex" does not represent a vertex of the snapshot, null is
+	 * returned.
+	 *
+	 * Running time: O(d), as for degree().
+	 */
+	public Neighbors getNeighbors(Object vertex) {
+		AdjacencyList list = findList(vertex);
+		if (list == null) {
+			return null;
+		}
+		int degree = degree(list);
+		if (degree == 0) {
+			return null;
+		}
+		Neighbors n = new Neighbors();
+		n.neighborList = new Object[degree];
+		n.weightList = new int[degree];
+		int index = 0;
+		for (HalfEdge e = list.head.next; index < degree; e = e.next) {
+			if (sees(e.born, e.died)) {
+				n.neighborList[index] = e.neighbor;
+				n.weightList[index] = e.weight;
+				index++;
+			}
+		}
+		return n;
+	}
+
+	/**
+	 * findEdge() returns the primary half-edge of (u, v) that the snapshot
+	 * sees, or null if there is none.
+	 */
+	private HalfEdge findEdge(Object u, Object v) {
+		AdjacencyList list = findList(u);
+		AdjacencyList list2 = findList(v);
+		if (list == null || list2 == null) {
+			return null;
+		}
+		EdgeIdTable index = edgeIndex;
+		if (index == null) {
+			index = new EdgeIdTable(edgeCount);
+			for (int id = 0; id < idBound; id++) {
+				AdjacencyList from = visibleList(id);
+				if (from != null) {
+					for (HalfEdge e = from.head.next; e != from.head; e = e.next) {
+						if (e.primary && sees(e.born, e.died)) {
+							index.put(id, e.partner.list.id, e);
+						}
+					}
+				}
+			}
+			edgeIndex = index;
+		}
+		return index.get(list.id, list2.id);
+	}
+
+	/**
+	 * isEdge() returns true if (u, v) is an edge of the snapshot.
+	 *
+	 * Running time: O(1), except that the first call to isEdge() or weight()
+	 * takes O(|V| + |E|) time to build the edge index.
+	 */
+	public boolean isEdge(Object u, Object v) {
+		return findEdge(u, v) != null;
+	}
+
+	/**
+	 * weight() returns the weight of (u, v) in the snapshot, or zero if (u, v)
+	 * is not an edge of the snapshot.
+	 *
+	 * Running time: O(1), as for isEdge().
+	 */
+	public int weight(Object u, Object v) {
+		HalfEdge edge = findEdge(u, v);
+		return edge == null ? 0 : edge.weight;
+	}
+
+	/**
+	 * forEachEdge() calls visitor.visit(u, v, weight) once for every edge of
+	 * the snapshot, including self-edges, as WUGraph.forEachEdge() does.
+	 *
+	 * Running time: O(|V| + |E|), with no allocation, where |V| and |E| also
+	 * count vertices and half-edges the snapshot does not see.
+	 *
+	 * @param visitor
+	 *            the object to call back for each edge.
+	 */
+	public void forEachEdge(EdgeVisitor visitor) {
+		for (int id = 0; id < idBound; id++) {
+			AdjacencyList list = visibleList(id);
+			if (list != null) {
+				for (HalfEdge e = list.head.next; e != list.head; e = e.next) {
+					if (e.primary && sees(e.born, e.died)) {
+						visitor.visit(list.vertex, e.neighbor, e.weight);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * freeze() returns an immutable compressed-sparse-row copy of the
+	 * snapshot, for algorithms that take an IndexedGraph. Vertex ids in the
+	 * copy follow the order of getVertices().
+	 *
+	 * Running time: O(|V| + |E|), as for forEachEdge().
+	 */
+	public CsrGraph freeze() {
+		Object[] names = new Object[vertexCount];
+		AdjacencyList[] rows = new AdjacencyList[vertexCount];
+		// position maps a vertex id to the vertex's index in names.
+		int[] position = new int[idBound];
+		int[] offsets = new int[vertexCount + 1];
+		int n = 0;
+		for (int id = 0; id < idBound; id++) {
+			AdjacencyList list = visibleList(id);
+			if (list != null) {
+				names[n] = list.vertex;
+				rows[n] = list;
+				position[id] = n;
+				offsets[n + 1] = offsets[n] + degree(list);
+				n++;
+			}
+		}
+		int[] targets = new int[offsets[n]];
+		int[] weights = new int[offsets[n]];
+		for (int i = 0; i < n; i++) {
+			int slot = offsets[i];
+			for (HalfEdge e = rows[i].head.next; slot < offsets[i + 1]; e = e.next) {
+				if (sees(e.born, e.died)) {
+					targets[slot] = position[e.partner.list.id];
+					weights[slot] = e.weight;
+					slot++;
+				}
+			}
+		}
+		return new CsrGraph(names, offsets, targets, weights, edgeCount, null);
+	}
+}
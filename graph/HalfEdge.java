@@ -0,0 +1,75 @@
+/* HalfEdge.java */
+
+package graph;
+
+/**
+ * A HalfEdge is one end of an edge of a WUGraph: a node in the adjacency
+ * list of one of the edge's endpoints. An edge (u, v) with u != v has two
+ * half-edges, one in u's list and one in v's list, each the other's partner;
+ * a self-edge has a single half-edge that is its own partner.
+ *
+ * The weight is stored as a primitive int and the links as typed fields, so
+ * a half-edge is a single small object and reading it never unboxes.
+ *
+ * next is volatile so that a GraphSnapshot can walk a list on another thread
+ * while the graph's writer appends to it or unlinks from it: a half-edge is
+ * fully built before it becomes reachable, and an unlinked half-edge keeps
+ * its next link, so a reader standing on it still finds its way back to the
+ * sentinel.
+ */
+
+class HalfEdge {
+	final static int ALIVE = Integer.MAX_VALUE;
+
+	HalfEdge prev;
+	volatile HalfEdge next;
+
+	/**
+	 * partner is the other half of the edge (this half-edge itself for a
+	 * self-edge). list is the adjacency list containing this half-edge, or
+	 * null once it has been removed (and for sentinels).
+	 */
+	HalfEdge partner;
+	AdjacencyList list;
+
+	/**
+	 * neighbor is the application's object for the vertex at the other end
+	 * of the edge.
+	 */
+	Object neighbor;
+	int weight;
+
+	/**
+	 * primary is true for exactly one of the two half-edges of every edge:
+	 * the one stored in the graph's edge hash table.
+	 */
+	boolean primary;
+
+	/**
+	 * born is the graph version in which this half-edge was added, and died
+	 * the version in which it was retired (ALIVE if it has not been). A
+	 * snapshot of version s sees the half-edge if born <= s < died. A
+	 * retired half-edge is no longer part of the live graph, but stays in
+	 * its list until no snapshot can see it. The weight of a half-edge never
+	 * changes while a snapshot can see it.
+	 */
+	final int born;
+	volatile int died = ALIVE;
+
+	/**
+	 * HalfEdge() constructs a half-edge that belongs to no list.
+	 */
+	HalfEdge(Object neighbor, int weight) {
+		this(neighbor, weight, 0);
+	}
+
+	/**
+	 * HalfEdge() constructs a half-edge, born in the given version, that
+	 * belongs to no list.
+	 */
+	HalfEdge(Object neighbor, int weight, int born) {
+		this.neighbor = neighbor;
+		this.weight = weight;
+		this.born = born;
+	}
+}
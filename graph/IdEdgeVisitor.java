@@ -0,0 +1,25 @@
+/* IdEdgeVisitor.java */
+
+package graph;
+
+/**
+ * An IdEdgeVisitor receives the edges of a WUGraph, one call per edge, from
+ * WUGraph.forEachEdgeById(). Vertices are named by their ids, as returned
+ * by WUGraph.idOf().
+ */
+
+public interface IdEdgeVisitor {
+
+	/**
+	 * visit() is called once for each edge (u, v) of the graph.
+	 *
+	 * @param u
+	 *            the id of one endpoint of the edge.
+	 * @param v
+	 *            the id of the other endpoint (equal to u for a self-edge).
+	 * @param weight
+	 *            the weight of the edge.
+	 */
+	public void visit(int u, int v, int weight);
+
+}
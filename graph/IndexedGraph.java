@@ -0,0 +1,71 @@
+/* IndexedGraph.java */
+
+package graph;
+
+/**
+ * An IndexedGraph is a read-only, weighted, undirected graph whose vertices
+ * are numbered 0...vertexCount() - 1 and whose half-edges are numbered by
+ * position. The half-edges leaving vertex u occupy the positions firstEdge(u)
+ * through endEdge(u) - 1; position i names the neighbor target(i) and the
+ * weight weight(i). Each edge (u, v) with u != v appears once in u's row and
+ * once in v's row; a self-edge appears once in its vertex's row.
+ *
+ * Algorithms that only read a graph (Kruskal, Prim, Boruvka, Traversal) take
+ * an IndexedGraph, so they run on an in-heap CsrGraph and a memory-mapped
+ * MappedGraph alike.
+ */
+
+public interface IndexedGraph {
+
+	/**
+	 * vertexCount() returns the number of vertices.
+	 */
+	public int vertexCount();
+
+	/**
+	 * edgeCount() returns the number of (undirected) edges.
+	 */
+	public int edgeCount();
+
+	/**
+	 * vertex() returns the application's object for the vertex with the given
+	 * id.
+	 */
+	public Object vertex(int id);
+
+	/**
+	 * idOf() returns the id of the vertex represented by the application's
+	 * object "vertex", or -1 if it is not a vertex of the graph.
+	 */
+	public int idOf(Object vertex);
+
+	/**
+	 * degree() returns the number of half-edges leaving the vertex with the
+	 * given id.
+	 */
+	public int degree(int id);
+
+	/**
+	 * firstEdge() returns the position of the first half-edge leaving the
+	 * vertex with the given id.
+	 */
+	public int firstEdge(int id);
+
+	/**
+	 * endEdge() returns one past the position of the last half-edge leaving
+	 * the vertex with the given id.
+	 */
+	public int endEdge(int id);
+
+	/**
+	 * target() returns the id of the neighbor named by the half-edge at the
+	 * given position.
+	 */
+	public int target(int position);
+
+	/**
+	 * weight() returns the weight of the half-edge at the given position.
+	 */
+	public int weight(int position);
+
+}
@@ -0,0 +1,347 @@
+/* MappedGraph.java */
+
+package graph;
+
+import dict.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A MappedGraph is a read-only graph backed directly by a file written by
+ * WUGraph.save() or CsrGraph.save(). The file is memory-mapped, so opening
+ * it takes O(1) time regardless of the graph's size, nothing proportional
+ * to the graph is copied into the heap, and the operating system pages the
+ * adjacency data in and out as it is used. Vertex objects are decoded from
+ * the file only when asked for.
+ *
+ * Vertices are named by their ids, as in CsrGraph. Because the file keeps
+ * each row sorted by neighbor id, isEdge() and weight() find an edge by
+ * binary search.
+ *
+ * The file must not be changed while it is mapped. Opening checks only the
+ * header; a file damaged elsewhere may cause exceptions when it is read.
+ */
+
+public class MappedGraph implements IndexedGraph {
+	private int vertexCount;
+	private int edgeCount;
+	private Section vertexIndex;
+	private Section vertexData;
+	private Section offsets;
+	private Section targets;
+	private Section weights;
+
+	/**
+	 * key is the application's vertex object, value is its Integer id. Built
+	 * on the first call to idOf() and published only once it is complete,
+	 * so threads sharing the graph never see it half filled.
+	 */
+	private volatile Dictionary vertexIds;
+
+	/**
+	 * MappedGraph() constructs a graph from the mapped sections of a file.
+	 */
+	private MappedGraph(int vertexCount, int edgeCount, Section vertexIndex,
+			Section vertexData, Section offsets, Section targets,
+			Section weights) {
+		this.vertexCount = vertexCount;
+		this.edgeCount = edgeCount;
+		this.vertexIndex = vertexIndex;
+		this.vertexData = vertexData;
+		this.offsets = offsets;
+		this.targets = targets;
+		this.weights = weights;
+	}
+
+	/**
+	 * open() memory-maps a graph file read-only and returns a MappedGraph
+	 * backed by it. The file can be closed (and the channel is) as soon as
+	 * open() returns; the mappings stay valid until they are garbage
+	 * collected.
+	 *
+	 * Running time: O(1).
+	 *
+	 * @param path
+	 *            the file to map.
+	 * @return a new MappedGraph.
+	 * @throws IOException
+	 *             if the file cannot be read or does not have a valid header
+	 *             of a supported version.
+	 */
+	public static MappedGraph open(Path path) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			ByteBuffer header = GraphFile.readHeader(channel, path);
+			int n = header.getInt(GraphFile.HEADER_VERTEX_COUNT);
+			long indexAt = header.getLong(GraphFile.HEADER_VERTEX_INDEX);
+			long dataAt = header.getLong(GraphFile.HEADER_VERTEX_DATA);
+			long offsetsAt = header.getLong(GraphFile.HEADER_OFFSETS);
+			long targetsAt = header.getLong(GraphFile.HEADER_TARGETS);
+			long weightsAt = header.getLong(GraphFile.HEADER_WEIGHTS);
+			long size = channel.size();
+
+			Section offsets = new Section(channel, offsetsAt, 4L * (n + 1),
+					size, path);
+			long halfEdges = offsets.getInt(n);
+			return new MappedGraph(n,
+					header.getInt(GraphFile.HEADER_EDGE_COUNT),
+					new Section(channel, indexAt, 8L * (n + 1), size, path),
+					new Section(channel, dataAt, offsetsAt - dataAt, size, path),
+					offsets,
+					new Section(channel, targetsAt, 4 * halfEdges, size, path),
+					new Section(channel, weightsAt, 4 * halfEdges, size, path));
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * vertexCount() returns the number of vertices in the graph.
+	 *
+	 * Running time: O(1).
+	 */
+	public int vertexCount() {
+		return vertexCount;
+	}
+
+	/**
+	 * edgeCount() returns the number of (undirected) edges in the graph.
+	 *
+	 * Running time: O(1).
+	 */
+	public int edgeCount() {
+		return edgeCount;
+	}
+
+	/**
+	 * vertex() decodes and returns the application's object for the vertex
+	 * with the given id. Each call returns a new object, equal to the one
+	 * that was saved.
+	 *
+	 * Running time: O(1) for Integer and Long vertices; O(length) for
+	 * Strings.
+	 */
+	public Object vertex(int id) {
+		long at = vertexIndex.getLong(id);
+		byte tag = vertexData.getByte(at);
+		if (tag == GraphFile.TAG_INTEGER) {
+			return vertexData.getIntAt(at + 1);
+		} else if (tag == GraphFile.TAG_LONG) {
+			return vertexData.getIntAt(at + 1) & 0xFFFFFFFFL
+					| (long) vertexData.getIntAt(at + 5) << 32;
+		} else if (tag == GraphFile.TAG_STRING) {
+			byte[] bytes = new byte[vertexData.getIntAt(at + 1)];
+			for (int i = 0; i < bytes.length; i++) {
+				bytes[i] = vertexData.getByte(at + 5 + i);
+			}
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+		throw new IllegalStateException("unknown vertex tag " + tag);
+	}
+
+	/**
+	 * idOf() returns the id of the vertex represented by the application's
+	 * object "vertex", or -1 if it is not a vertex of the graph.
+	 *
+	 * Running time: O(1), after an O(|V|) index is built in the heap on the
+	 * first call. Callers that already know ids should use them instead.
+	 */
+	public int idOf(Object vertex) {
+		Dictionary index = vertexIds;
+		if (index == null) {
+			index = new HashTableOpen(vertexCount);
+			for (int i = 0; i < vertexCount; i++) {
+				index.insert(vertex(i), i);
+			}
+			vertexIds = index; // published only once it is complete
+		}
+		Object id = index.findValue(vertex);
+		return id == null ? -1 : (Integer) id;
+	}
+
+	/**
+	 * degree() returns the degree of the vertex with the given id. As in
+	 * WUGraph, a self-edge adds only one to the degree.
+	 *
+	 * Running time: O(1).
+	 */
+	public int degree(int id) {
+		return offsets.getInt(id + 1) - offsets.getInt(id);
+	}
+
+	/**
+	 * firstEdge() returns the position of the first half-edge leaving the
+	 * vertex with the given id.
+	 *
+	 * Running time: O(1).
+	 */
+	public int firstEdge(int id) {
+		return offsets.getInt(id);
+	}
+
+	/**
+	 * endEdge() returns one past the position of the last half-edge leaving
+	 * the vertex with the given id.
+	 *
+	 * Running time: O(1).
+	 */
+	public int endEdge(int id) {
+		return offsets.getInt(id + 1);
+	}
+
+	/**
+	 * target() returns the id of the neighbor named by the half-edge at the
+	 * given position. Within a row, targets are in ascending order.
+	 *
+	 * Running time: O(1).
+	 */
+	public int target(int position) {
+		return targets.getInt(position);
+	}
+
+	/**
+	 * weight() returns the weight of the half-edge at the given position.
+	 *
+	 * Running time: O(1).
+	 */
+	public int weight(int position) {
+		return weights.getInt(position);
+	}
+
+	/**
+	 * getNeighbors() returns a new Neighbors object listing the neighbors of
+	 * the vertex with the given id, in ascending order of id, and the weights
+	 * of the corresponding edges. As in WUGraph, null is returned if the
+	 * vertex has degree zero.
+	 *
+	 * Running time: O(d), where d is the degree of the vertex.
+	 */
+	public Neighbors getNeighbors(int id) {
+		int first = firstEdge(id);
+		int degree = endEdge(id) - first;
+		if (degree == 0) {
+			return null;
+		}
+		Neighbors n = new Neighbors();
+		n.neighborList = new Object[degree];
+		n.weightList = new int[degree];
+		for (int k = 0; k < degree; k++) {
+			n.neighborList[k] = vertex(target(first + k));
+			n.weightList[k] = weight(first + k);
+		}
+		return n;
+	}
+
+	/**
+	 * isEdge() returns true if there is an edge between the vertices with ids
+	 * u and v.
+	 *
+	 * Running time: O(log d), where d is the degree of u.
+	 */
+	public boolean isEdge(int u, int v) {
+		return findEdge(u, v) >= 0;
+	}
+
+	/**
+	 * weight() returns the weight of the edge between the vertices with ids u
+	 * and v. As in WUGraph, zero is returned if there is no such edge.
+	 *
+	 * Running time: O(log d), where d is the degree of u.
+	 */
+	public int weight(int u, int v) {
+		int position = findEdge(u, v);
+		return position < 0 ? 0 : weights.getInt(position);
+	}
+
+	/**
+	 * findEdge() binary searches u's row for v.
+	 *
+	 * @return the position of the half-edge from u to v, or -1 if there is
+	 *         none
+	 */
+	private int findEdge(int u, int v) {
+		int low = firstEdge(u);
+		int high = endEdge(u) - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int target = targets.getInt(middle);
+			if (target < v) {
+				low = middle + 1;
+			} else if (target > v) {
+				high = middle - 1;
+			} else {
+				return middle;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * A Section is one section of a graph file, mapped read-only as a series
+	 * of chunks, since a single mapping cannot exceed 2GB. Chunks are a power
+	 * of two bytes long, so aligned ints and longs never straddle two chunks.
+	 */
+	private static class Section {
+		private final static int CHUNK_SHIFT = 30;
+		private final static long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+
+		private ByteBuffer[] chunks;
+
+		/**
+		 * Section() maps "length" bytes starting at "position".
+		 */
+		Section(FileChannel channel, long position, long length, long size,
+				Path path) throws IOException {
+			if (length < 0 || position + length > size) {
+				throw new IOException(path + ": section extends past the end "
+						+ "of the file");
+			}
+			chunks = new ByteBuffer[(int) ((length + CHUNK_MASK) >>> CHUNK_SHIFT)];
+			for (int c = 0; c < chunks.length; c++) {
+				long start = (long) c << CHUNK_SHIFT;
+				chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY,
+						position + start, Math.min(length - start, 1L << CHUNK_SHIFT))
+						.order(ByteOrder.LITTLE_ENDIAN);
+			}
+		}
+
+		/**
+		 * getInt() returns the int with the given index, treating the
+		 * section as an int array.
+		 */
+		int getInt(long index) {
+			long at = index << 2;
+			return chunks[(int) (at >>> CHUNK_SHIFT)].getInt((int) (at & CHUNK_MASK));
+		}
+
+		/**
+		 * getLong() returns the long with the given index, treating the
+		 * section as a long array.
+		 */
+		long getLong(long index) {
+			long at = index << 3;
+			return chunks[(int) (at >>> CHUNK_SHIFT)].getLong((int) (at & CHUNK_MASK));
+		}
+
+		/**
+		 * getByte() returns the byte at the given offset.
+		 */
+		byte getByte(long at) {
+			return chunks[(int) (at >>> CHUNK_SHIFT)].get((int) (at & CHUNK_MASK));
+		}
+
+		/**
+		 * getIntAt() returns the little-endian int at the given offset, which
+		 * need not be aligned.
+		 */
+		int getIntAt(long at) {
+			return (getByte(at) & 0xFF) | (getByte(at + 1) & 0xFF) << 8
+					| (getByte(at + 2) & 0xFF) << 16 | getByte(at + 3) << 24;
+		}
+	}
+}
@@ -0,0 +1,23 @@
+/* NeighborVisitor.java */
+
+package graph;
+
+/**
+ * A NeighborVisitor receives the neighbors of one vertex of a WUGraph, one
+ * call per incident edge, from WUGraph.forEachNeighbor().
+ */
+
+public interface NeighborVisitor {
+
+	/**
+	 * visit() is called once for each edge incident on the vertex.
+	 *
+	 * @param neighbor
+	 *            the vertex at the other end of the edge (the vertex itself
+	 *            for a self-edge).
+	 * @param weight
+	 *            the weight of the edge.
+	 */
+	public void visit(Object neighbor, int weight);
+
+}
@@ -20,21 +20,32 @@ class VertexPair {
   }
 
   /**
-   * hashCode() returns a hashCode equal to the sum of the hashCodes of each
-   * of the two objects of the pair, so that the order of the objects will
-   * not affect the hashCode.  Self-edges are treated differently:  we don't
-   * add an object's hashCode to itself, since the result would always be even.
-   * We add one to the hashCode so that a self-edge will not collide with the
-   * object itself if vertices and edges are stored in the same hash table.
+   * hashCode() returns the sum of the scrambled hashCodes of each of the two
+   * objects of the pair, so that the order of the objects will not affect the
+   * hashCode.  The hashCodes are scrambled first because small, consecutive
+   * hashCodes (such as those of Integers) have few distinct sums:  the edges
+   * among n Integer vertices would share fewer than 2n hash codes.
+   * Self-edges are treated differently:  we don't add an object's hashCode to
+   * itself, since the result would always be even.  We add one to the
+   * hashCode so that a self-edge will not collide with the object itself if
+   * vertices and edges are stored in the same hash table.
    */
   public int hashCode() {
     if (object1.equals(object2)) {
-      return object1.hashCode() + 1;
+      return scramble(object1.hashCode()) + 1;
     } else {
-      return object1.hashCode() + object2.hashCode();
+      return scramble(object1.hashCode()) + scramble(object2.hashCode());
     }
   }
 
+  /**
+   * scramble() spreads the bits of a hash code with a multiplicative hash.
+   */
+  private static int scramble(int code) {
+    code *= 0x9E3779B9;
+    return code ^ (code >>> 16);
+  }
+
   /**
    * equals() returns true if this VertexPair represents the same unordered
    * pair of objects as the parameter "o".  The order of the pair does not
@@ -4,20 +4,79 @@ package graph;
 
 import list.*;
 import dict.*;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
 
 /**
  * The WUGraph class represents a weighted, undirected graph. Self-edges are
  * permitted.
+ *
+ * snapshot() returns, in O(1) time, a read-only view of the graph as it is
+ * at that moment, which later changes to the graph do not affect. Changes
+ * made while a snapshot is open leave behind the half-edges and vertices it
+ * can see, stamped with the version in which they were retired; they are
+ * reclaimed by the first change after every snapshot that can see them has
+ * been released (or garbage collected). A WUGraph has a single writer: it
+ * must be changed by one thread at a time, but its snapshots may be read on
+ * other threads while it is changed.
  */
 
 public class WUGraph {
 	private DDList vertices; // vertices are objects of any kind
-	private HashTableChained edgeHash;
+	private Dictionary edgeHash;
 
 	/**
 	 * key is the vertex name, value is the DListNode of 'vertices'
 	 */
-	private HashTableChained vertexHash;
+	private Dictionary vertexHash;
+
+	/*
+	 * Each node of 'vertices' holds the application's vertex object as its
+	 * item and the vertex's AdjacencyList of HalfEdges as its item2. The
+	 * values in edgeHash are the primary HalfEdges.
+	 */
+
+	/**
+	 * edgesById maps the ids of the endpoints of every edge to its primary
+	 * HalfEdge, so the id-based methods and addEdge() find an edge without
+	 * hashing vertex objects or allocating a VertexPair.
+	 */
+	private EdgeIdTable edgesById;
+
+	/**
+	 * Every vertex has a dense int id, which is the id of its AdjacencyList.
+	 * vertexById and listById are indexed by id and hold null for ids not in
+	 * use. Ids below idBound that are not in use are kept on the freeIds
+	 * stack and are handed out again before idBound grows.
+	 */
+	private Object[] vertexById;
+	private AdjacencyList[] listById;
+	private int idBound;
+	private int[] freeIds;
+	private int freeCount;
+
+	private final static int DEFAULT_ID_CAPACITY = 16;
+
+	/**
+	 * version is the version that changes made now are stamped with;
+	 * snapshot() hands it out and starts a new one. openSnapshots holds the
+	 * snapshots taken, oldest first, until they are released or garbage
+	 * collected. retiredEdges and retiredVertices hold, in the order they were
+	 * retired, the half-edges and vertices removed while a snapshot could see
+	 * them, until none can.
+	 */
+	private int version;
+	private ArrayDeque<WeakReference<GraphSnapshot>> openSnapshots =
+			new ArrayDeque<WeakReference<GraphSnapshot>>();
+	private ArrayDeque<HalfEdge> retiredEdges = new ArrayDeque<HalfEdge>();
+	private ArrayDeque<AdjacencyList> retiredVertices = new ArrayDeque<AdjacencyList>();
+
+	/**
+	 * listeners are told about every change, in the order they were added.
+	 */
+	private GraphListener[] listeners = new GraphListener[0];
 
 	/**
 	 * WUGraph() constructs a graph having no vertices or edges.
@@ -28,7 +87,152 @@ public class WUGraph {
 		vertices = new DDList();
 		edgeHash = new HashTableChained();
 		vertexHash = new HashTableChained();
+		edgesById = new EdgeIdTable(0);
+		initIds(DEFAULT_ID_CAPACITY);
+	}
 
+	/**
+	 * WUGraph() constructs a graph having no vertices or edges, whose internal
+	 * hash tables are sized for roughly the given numbers of vertices and
+	 * edges and resize themselves according to the given policy. See the
+	 * HashTableChained constructor for the meaning of the policy parameters.
+	 *
+	 * Running time: O(vertexEstimate + edgeEstimate).
+	 *
+	 * @param vertexEstimate
+	 *            the expected number of vertices.
+	 * @param edgeEstimate
+	 *            the expected number of edges.
+	 * @param maxLoadFactor
+	 *            the load factor above which the hash tables grow.
+	 * @param minLoadFactor
+	 *            the load factor below which the hash tables shrink.
+	 * @param growthFactor
+	 *            the factor by which the hash tables grow or shrink.
+	 */
+	public WUGraph(int vertexEstimate, int edgeEstimate, double maxLoadFactor,
+			double minLoadFactor, int growthFactor) {
+		vertices = new DDList();
+		edgeHash = new HashTableChained(edgeEstimate, maxLoadFactor,
+				minLoadFactor, growthFactor);
+		vertexHash = new HashTableChained(vertexEstimate, maxLoadFactor,
+				minLoadFactor, growthFactor);
+		edgesById = new EdgeIdTable(edgeEstimate);
+		initIds(Math.max(vertexEstimate, 1));
+	}
+
+	/**
+	 * WUGraph() constructs a graph having no vertices or edges that stores its
+	 * vertices and edges in the given dictionaries, which lets the caller
+	 * choose the hash table implementation (for instance HashTableChained or
+	 * HashTableOpen). Both dictionaries are emptied and become owned by the
+	 * graph; they must be distinct.
+	 *
+	 * Running time: O(1), plus the time to empty the dictionaries.
+	 *
+	 * @param vertexTable
+	 *            the dictionary that maps vertices to internal vertices.
+	 * @param edgeTable
+	 *            the dictionary that maps vertex pairs to internal edges.
+	 */
+	public WUGraph(Dictionary vertexTable, Dictionary edgeTable) {
+		vertices = new DDList();
+		vertexTable.makeEmpty();
+		edgeTable.makeEmpty();
+		vertexHash = vertexTable;
+		edgeHash = edgeTable;
+		edgesById = new EdgeIdTable(0);
+		initIds(DEFAULT_ID_CAPACITY);
+	}
+
+	/**
+	 * initIds() makes room for "capacity" vertex ids, none of them in use.
+	 */
+	private void initIds(int capacity) {
+		vertexById = new Object[capacity];
+		listById = new AdjacencyList[capacity];
+		freeIds = new int[capacity];
+		idBound = 0;
+		freeCount = 0;
+	}
+
+	/**
+	 * allocateId() returns an id not in use, preferring a recycled one.
+	 */
+	private int allocateId() {
+		if (freeCount > 0) {
+			freeCount--;
+			return freeIds[freeCount];
+		}
+		if (idBound == listById.length) {
+			int capacity = 2 * listById.length;
+			Object[] newVertices = new Object[capacity];
+			AdjacencyList[] newLists = new AdjacencyList[capacity];
+			int[] newFreeIds = new int[capacity];
+			System.arraycopy(vertexById, 0, newVertices, 0, idBound);
+			System.arraycopy(listById, 0, newLists, 0, idBound);
+			vertexById = newVertices;
+			listById = newLists;
+			freeIds = newFreeIds;
+		}
+		return idBound++;
+	}
+
+	/**
+	 * vertexIdBound() returns a bound on the vertex ids: every vertex of the
+	 * graph has an id in the range 0...vertexIdBound() - 1. The bound never
+	 * exceeds the largest number of vertices the graph has ever had, so
+	 * arrays of this length can be indexed by vertex id.
+	 *
+	 * Running time: O(1).
+	 */
+	public int vertexIdBound() {
+		return idBound;
+	}
+
+	/**
+	 * idOf() returns the id of the vertex represented by the application's
+	 * object "vertex", or -1 if it is not a vertex of the graph. A vertex
+	 * keeps its id until it is removed; after that, the id may be given to a
+	 * vertex added later.
+	 *
+	 * Running time: O(1).
+	 */
+	public int idOf(Object vertex) {
+		AdjacencyList list = findAdjacencyList(vertex);
+		return list == null ? -1 : list.id;
+	}
+
+	/**
+	 * vertexOf() returns the application's object for the vertex with the
+	 * given id, or null if no vertex has that id.
+	 *
+	 * Running time: O(1).
+	 */
+	public Object vertexOf(int id) {
+		if (findAdjacencyList(id) == null) {
+			return null;
+		}
+		return vertexById[id];
+	}
+
+	/**
+	 * findAdjacencyList() finds the adjacency list of the vertex with the
+	 * given id.
+	 *
+	 * @param id
+	 * @return the adjacency list of this vertex, or null if no vertex has
+	 *         that id (including a retired vertex whose id is not yet free)
+	 */
+	private AdjacencyList findAdjacencyList(int id) {
+		if (id < 0 || id >= idBound) {
+			return null;
+		}
+		AdjacencyList list = listById[id];
+		if (list == null || list.died != HalfEdge.ALIVE) {
+			return null;
+		}
+		return list;
 	}
 
 	/**
@@ -76,18 +280,243 @@ public class WUGraph {
 		return allVertices;
 	}
 
+	/**
+	 * freeze() returns an immutable compressed-sparse-row snapshot of the
+	 * graph. Vertex ids in the snapshot follow the order of getVertices().
+	 * Later changes to this graph do not affect the snapshot.
+	 *
+	 * Running time: O(|V| + |E|).
+	 */
+	public CsrGraph freeze() {
+		Object[] names = getVertices();
+		int n = names.length;
+		AdjacencyList[] lists = new AdjacencyList[n];
+		// position maps a vertex id to the vertex's index in names.
+		int[] position = new int[idBound];
+		int[] offsets = new int[n + 1];
+		for (int i = 0; i < n; i++) {
+			lists[i] = findAdjacencyList(names[i]);
+			position[lists[i].id] = i;
+			offsets[i + 1] = offsets[i] + lists[i].length();
+		}
+		int[] targets = new int[offsets[n]];
+		int[] weights = new int[offsets[n]];
+		for (int i = 0; i < n; i++) {
+			int slot = offsets[i];
+			for (HalfEdge e = lists[i].head.next; e != lists[i].head; e = e.next) {
+				if (e.died == HalfEdge.ALIVE) {
+					targets[slot] = position[e.partner.list.id];
+					weights[slot] = e.weight;
+					slot++;
+				}
+			}
+		}
+		return new CsrGraph(names, offsets, targets, weights, edgeCount(), null);
+	}
+
+	/**
+	 * fromCsr() returns a new WUGraph holding the graph whose vertex i is
+	 * names[i], with id i, and whose half-edges leaving vertex u are the
+	 * targets[j] and weights[j] for offsets[u] <= j < offsets[u + 1], as in a
+	 * CsrGraph. The vertices must be distinct and the edges, edgeCount of
+	 * them, distinct as unordered pairs, so nothing is looked up before it is
+	 * added: the vertex table, id tables, adjacency lists, and edge table are
+	 * filled directly, each sized once for the final graph. No listener is
+	 * told, as the graph has none yet.
+	 *
+	 * Running time: O(|V| + |E|).
+	 */
+	static WUGraph fromCsr(Object[] names, int[] offsets, int[] targets,
+			int[] weights, int edgeCount) {
+		int n = names.length;
+		WUGraph g = new WUGraph(n, edgeCount,
+				HashTableChained.DEFAULT_MAX_LOAD,
+				HashTableChained.DEFAULT_MIN_LOAD,
+				HashTableChained.DEFAULT_GROWTH);
+		AdjacencyList[] lists = g.listById;
+		for (int u = 0; u < n; u++) {
+			AdjacencyList list = new AdjacencyList(names[u], g.version);
+			list.id = u;
+			lists[u] = list;
+			g.vertices.insertBack(names[u], list);
+			g.vertexHash.insert(names[u], g.vertices.back());
+		}
+		System.arraycopy(names, 0, g.vertexById, 0, n);
+		g.idBound = n;
+		for (int u = 0; u < n; u++) {
+			for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+				if (targets[i] >= u) {
+					g.insertEdge(lists[u], lists[targets[i]], weights[i]);
+				}
+			}
+		}
+		return g;
+	}
+
+	/**
+	 * snapshot() returns a read-only view of the graph as it is now. Later
+	 * changes to the graph do not affect the snapshot, which may be read on
+	 * other threads while this graph is changed. Call release() on the
+	 * snapshot when done with it, so the graph can reclaim what only the
+	 * snapshot still sees; a snapshot that is garbage collected is released
+	 * too.
+	 *
+	 * Running time: O(1). While the snapshot is open, removing an edge or a
+	 * vertex, or changing an edge's weight, leaves the old half-edges or
+	 * vertex in place for the snapshot, and a weight change adds new
+	 * half-edges.
+	 */
+	public GraphSnapshot snapshot() {
+		GraphSnapshot snapshot = new GraphSnapshot(version, listById, idBound,
+				vertexCount(), edgeCount());
+		openSnapshots.addLast(new WeakReference<GraphSnapshot>(snapshot));
+		version++;
+		return snapshot;
+	}
+
+	/**
+	 * oldestSnapshot() returns the version of the oldest open snapshot, or
+	 * HalfEdge.ALIVE if there is none, forgetting the released snapshots in
+	 * front of it.
+	 */
+	private int oldestSnapshot() {
+		while (!openSnapshots.isEmpty()) {
+			GraphSnapshot snapshot = openSnapshots.peekFirst().get();
+			if (snapshot != null && !snapshot.isReleased()) {
+				return snapshot.version();
+			}
+			openSnapshots.removeFirst();
+		}
+		return HalfEdge.ALIVE;
+	}
+
+	/**
+	 * isVisible() returns true if an open snapshot may see a half-edge or
+	 * vertex born in the given version, so it must be retired rather than
+	 * changed or unlinked.
+	 */
+	private boolean isVisible(int born) {
+		return born < version && oldestSnapshot() != HalfEdge.ALIVE;
+	}
+
+	/**
+	 * reclaim() unlinks the retired half-edges, and frees the ids of the
+	 * retired vertices, that no open snapshot can see any more. A snapshot of
+	 * version s cannot see what was retired in a version <= s, and the
+	 * retired items are kept in the order of their versions.
+	 */
+	private void reclaim() {
+		if (retiredEdges.isEmpty() && retiredVertices.isEmpty()) {
+			return;
+		}
+		int oldest = oldestSnapshot();
+		while (!retiredEdges.isEmpty() && retiredEdges.peekFirst().died <= oldest) {
+			HalfEdge edge = retiredEdges.removeFirst();
+			edge.list.remove(edge);
+		}
+		while (!retiredVertices.isEmpty()
+				&& retiredVertices.peekFirst().died <= oldest) {
+			AdjacencyList list = retiredVertices.removeFirst();
+			vertexById[list.id] = null;
+			listById[list.id] = null;
+			freeIds[freeCount] = list.id;
+			freeCount++;
+		}
+	}
+
+	/**
+	 * save() writes the graph to a file in a compact, versioned binary format:
+	 * a vertex table followed by the adjacency lists in compressed-sparse-row
+	 * form, with int weights. Vertices must be Integer, Long, or String
+	 * objects. An existing file is replaced atomically, and is left intact if
+	 * the write fails.
+	 *
+	 * Running time: O(|V| + |E| log d), where d is the largest degree.
+	 *
+	 * @param path
+	 *            the file to write.
+	 * @throws IOException
+	 *             if the file cannot be written, or (as a
+	 *             java.io.NotSerializableException) if a vertex has another
+	 *             type.
+	 */
+	public void save(Path path) throws IOException {
+		GraphFile.write(freeze(), path);
+	}
+
+	/**
+	 * load() reads a file written by save() and returns a new WUGraph with the
+	 * same vertices, edges, and weights. The file is read sequentially through
+	 * a direct buffer into a CsrGraph, from whose arrays the graph's tables
+	 * and adjacency lists are built directly, sized from the file's header,
+	 * with no per-edge lookup.
+	 *
+	 * Running time: O(|V| + |E|).
+	 *
+	 * @param path
+	 *            the file to read.
+	 * @return a new WUGraph.
+	 * @throws IOException
+	 *             if the file cannot be read or is not a graph file of a
+	 *             supported version.
+	 */
+	public static WUGraph load(Path path) throws IOException {
+		return GraphFile.read(path).toWUGraph();
+	}
+
+	/**
+	 * addListener() registers a listener to be told about every later change
+	 * to the graph. Listeners are called in the order they were added, on the
+	 * thread that changes the graph.
+	 *
+	 * Running time: O(number of listeners).
+	 */
+	public void addListener(GraphListener listener) {
+		GraphListener[] newListeners = new GraphListener[listeners.length + 1];
+		System.arraycopy(listeners, 0, newListeners, 0, listeners.length);
+		newListeners[listeners.length] = listener;
+		listeners = newListeners;
+	}
+
+	/**
+	 * removeListener() unregisters a listener added by addListener(). If it
+	 * is not registered, nothing happens.
+	 *
+	 * Running time: O(number of listeners).
+	 */
+	public void removeListener(GraphListener listener) {
+		for (int i = 0; i < listeners.length; i++) {
+			if (listeners[i] == listener) {
+				GraphListener[] newListeners = new GraphListener[listeners.length - 1];
+				System.arraycopy(listeners, 0, newListeners, 0, i);
+				System.arraycopy(listeners, i + 1, newListeners, i,
+						newListeners.length - i);
+				listeners = newListeners;
+				return;
+			}
+		}
+	}
+
 	/**
 	 * addVertex() adds a vertex (with no incident edges) to the graph. The
 	 * vertex's "name" is the object provided as the parameter "vertex". If this
 	 * object is already a vertex of the graph, the graph is unchanged.
+	 * Otherwise the vertex is given an id not used by any other vertex.
 	 *
-	 * Running time: O(1).
+	 * Running time: O(1) amortized.
 	 */
 	public void addVertex(Object vertex) {
 		if (!isVertex(vertex)) {
-			DDList newList = new DDList();
-			vertices.insertBack(vertex, newList);
+			reclaim();
+			AdjacencyList list = new AdjacencyList(vertex, version);
+			list.id = allocateId();
+			vertexById[list.id] = vertex;
+			listById[list.id] = list;
+			vertices.insertBack(vertex, list);
 			vertexHash.insert(vertex, vertices.back());
+			for (int i = 0; i < listeners.length; i++) {
+				listeners[i].vertexAdded(list.id);
+			}
 		}
 	}
 
@@ -99,26 +528,40 @@ public class WUGraph {
 	 * Running time: O(d), where d is the degree of "vertex".
 	 */
 	public void removeVertex(Object vertex) {
-		if (isVertex(vertex)) {
+		DDListNode node = findVertexNode(vertex);
+		if (node != null) {
 			try {
-				DDListNode node = findVertexNode(vertex);
-				if (!((DDList) node.item2()).isEmpty()) {
-					DDList list = (DDList) node.item2();
-					DDListNode lNode = (DDListNode) list.front();
-
-					// remove partner references on all nodes
-					// in the adjacency list
-					while (lNode.isValidNode()) {
-						Object vertex2 = ((Object[]) lNode.item())[1];
-						lNode = (DDListNode) lNode.next();
-						if(vertex2 != null) {
-							removeEdge(vertex, vertex2);
-						} 
+				reclaim();
+				AdjacencyList list = (AdjacencyList) node.item2();
+
+				// remove every edge in the adjacency list, together with
+				// its partner in the neighbor's list
+				HalfEdge e = list.head.next;
+				while (e != list.head) {
+					HalfEdge next = e.next;
+					if (e.died == HalfEdge.ALIVE) {
+						int neighborId = e.partner.list.id;
+						removeEdge(e);
+						edgeRemoved(list.id, neighborId, e.weight);
 					}
+					e = next;
 				}
-				// remove this vertex
 				vertexHash.remove(vertex);
 				node.remove();
+				if (isVisible(list.born)) {
+					// keep the vertex's id and list for the snapshots
+					list.died = version;
+					retiredVertices.addLast(list);
+				} else {
+					// recycle its id
+					vertexById[list.id] = null;
+					listById[list.id] = null;
+					freeIds[freeCount] = list.id;
+					freeCount++;
+				}
+				for (int i = 0; i < listeners.length; i++) {
+					listeners[i].vertexRemoved(list.id);
+				}
 			} catch (InvalidKeyException e) {
 				e.printStackTrace();
 			} catch (InvalidNodeException e) {
@@ -134,13 +577,7 @@ public class WUGraph {
 	 * Running time: O(1).
 	 */
 	public boolean isVertex(Object vertex) {
-		try {
-			return vertexHash.find(vertex) != null;
-		} catch (InvalidKeyException e) {
-			return false;
-		} catch (InvalidNodeException e) {
-			return false;
-		}
+		return vertexHash.findValue(vertex) != null;
 	}
 
 	/**
@@ -151,51 +588,78 @@ public class WUGraph {
 	 * Running time: O(1).
 	 */
 	public int degree(Object vertex) {
-		try {
-			// find the adjacency list associated with this vertex.
-			DDList list = (DDList) findVertexNode(vertex).item2();
-
-			// returns the length of the DList at the node,
-			// which is the degree of the node.
-			return list.length();
-
-		} catch (InvalidKeyException e) {
-		} catch (InvalidNodeException e) {
+		AdjacencyList list = findAdjacencyList(vertex);
+		if (list == null) {
+			return 0;
 		}
-
-		return 0;
+		// the length of the adjacency list is the degree of the vertex.
+		return list.length();
 	}
 
 	/**
 	 * findVertexNode() finds the input vertex's corresponding node in vertices
 	 *
 	 * @param vertex
-	 * @return the adjacency list associated with this vertex
-	 * @throws InvalidKeyException
-	 * @throws InvalidNodeException
+	 * @return the node of vertices representing this vertex, or null if
+	 *         "vertex" is not a vertex of the graph
 	 */
-	private DDListNode findVertexNode(Object vertex)
-			throws InvalidKeyException, InvalidNodeException {
-		return (DDListNode) vertexHash.find(vertex).value();
+	private DDListNode findVertexNode(Object vertex) {
+		return (DDListNode) vertexHash.findValue(vertex);
 	}
 
 	/**
-	 * findEdgeNode() finds the edge associated with the vertices indicated, if
-	 * it exists. Checks the edgeHash for the edge; will throw exception if it
-	 * is not found.
+	 * findAdjacencyList() finds the adjacency list of the input vertex.
+	 *
+	 * @param vertex
+	 * @return the adjacency list associated with this vertex, or null if
+	 *         "vertex" is not a vertex of the graph
+	 */
+	private AdjacencyList findAdjacencyList(Object vertex) {
+		DDListNode node = findVertexNode(vertex);
+		if (node == null) {
+			return null;
+		}
+		try {
+			return (AdjacencyList) node.item2();
+		} catch (InvalidNodeException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * findEdge() finds the edge associated with the vertices indicated, if it
+	 * exists, by looking it up in edgeHash.
 	 *
 	 * @param u
 	 *            first vertex
 	 * @param v
 	 *            second vertex
-	 * @return
-	 * @throws InvalidNodeException
-	 * @throws InvalidKeyException
+	 * @return the primary half-edge of (u, v), or null if (u, v) is not an
+	 *         edge of the graph
 	 */
-	private DDListNode findEdgeNode(Object u, Object v)
-			throws InvalidKeyException, InvalidNodeException {
-		VertexPair vp = new VertexPair(u, v);
-		return (DDListNode) edgeHash.find(vp).value();
+	private HalfEdge findEdge(Object u, Object v) {
+		return (HalfEdge) edgeHash.findValue(new VertexPair(u, v));
+	}
+
+	/**
+	 * findEdgeById() finds the edge between the vertices with the ids
+	 * indicated, if it exists, by looking the pair of ids up in edgesById,
+	 * so no vertex object is hashed.
+	 *
+	 * @param u
+	 *            id of the first vertex
+	 * @param v
+	 *            id of the second vertex
+	 * @return the primary half-edge of (u, v), or null if (u, v) is not an
+	 *         edge of the graph (including the case where either id is not
+	 *         the id of a vertex)
+	 */
+	private HalfEdge findEdgeById(int u, int v) {
+		if (findAdjacencyList(u) == null || findAdjacencyList(v) == null) {
+			return null;
+		}
+		return edgesById.get(u, v);
 	}
 
 	/**
@@ -217,29 +681,139 @@ public class WUGraph {
 	 * Running time: O(d), where d is the degree of "vertex".
 	 */
 	public Neighbors getNeighbors(Object vertex) {
+		AdjacencyList list = findAdjacencyList(vertex);
+		if (list == null || list.isEmpty()) {
+			return null;
+		}
 		Neighbors n = new Neighbors();
+		n.neighborList = new Object[list.length()];
+		n.weightList = new int[list.length()];
+		int index = 0;
+		for (HalfEdge e = list.head.next; e != list.head; e = e.next) {
+			if (e.died == HalfEdge.ALIVE) {
+				n.neighborList[index] = e.neighbor;
+				n.weightList[index] = e.weight;
+				index++;
+			}
+		}
+		return n;
+	}
+
+	/**
+	 * forEachNeighbor() calls visitor.visit(neighbor, weight) once for each
+	 * edge incident on "vertex", in the same order as getNeighbors() lists
+	 * them. Unlike getNeighbors(), it allocates nothing, so it is the cheap
+	 * way to walk a vertex's edges repeatedly. If the parameter "vertex" does
+	 * not represent a vertex of the graph, the visitor is not called. The
+	 * visitor must not modify the graph.
+	 *
+	 * Running time: O(d), where d is the degree of "vertex".
+	 *
+	 * @param vertex
+	 *            the vertex whose neighbors are wanted.
+	 * @param visitor
+	 *            the object to call back for each neighbor.
+	 * @return the number of calls made, which is the degree of "vertex".
+	 */
+	public int forEachNeighbor(Object vertex, NeighborVisitor visitor) {
+		AdjacencyList list = findAdjacencyList(vertex);
+		if (list == null) {
+			return 0;
+		}
+		for (HalfEdge e = list.head.next; e != list.head; e = e.next) {
+			if (e.died == HalfEdge.ALIVE) {
+				visitor.visit(e.neighbor, e.weight);
+			}
+		}
+		return list.length();
+	}
+
+	/**
+	 * forEachNeighborById() calls visitor.visit(id, neighbor, weight) once
+	 * for each edge incident on the vertex with the given id, where neighbor
+	 * is the id of the vertex at the other end, in the same order as
+	 * forEachNeighbor(). If id is not the id of a vertex of the graph, the
+	 * visitor is not called. The visitor must not modify the graph.
+	 *
+	 * Running time: O(d), where d is the degree of the vertex.
+	 *
+	 * @param id
+	 *            the id of the vertex whose neighbors are wanted.
+	 * @param visitor
+	 *            the object to call back for each neighbor.
+	 * @return the number of calls made, which is the degree of the vertex.
+	 */
+	public int forEachNeighborById(int id, IdEdgeVisitor visitor) {
+		AdjacencyList list = findAdjacencyList(id);
+		if (list == null) {
+			return 0;
+		}
+		for (HalfEdge e = list.head.next; e != list.head; e = e.next) {
+			if (e.died == HalfEdge.ALIVE) {
+				visitor.visit(id, e.partner.list.id, e.weight);
+			}
+		}
+		return list.length();
+	}
+
+	/**
+	 * forEachEdge() calls visitor.visit(u, v, weight) once for every edge
+	 * (u, v) of the graph, including self-edges, where u and v are the
+	 * objects provided by the calling application in calls to addVertex().
+	 * The order of the edges, and which endpoint is passed first, are
+	 * unspecified. The visitor must not modify the graph.
+	 *
+	 * Running time: O(|V| + |E|), with no allocation.
+	 *
+	 * @param visitor
+	 *            the object to call back for each edge.
+	 */
+	public void forEachEdge(EdgeVisitor visitor) {
 		try {
-			if (degree(vertex) == 0 || !isVertex(vertex)) {
-				return null;
-			} else {
-				DDList list = (DDList) findVertexNode(vertex).item2();
-				DDListNode node = (DDListNode) list.front();
-				n.neighborList = new Object[list.length()];
-				n.weightList = new int[list.length()];
-				int index = 0;
-				while (node.isValidNode()) {
-					n.neighborList[index] = ((Object[]) node.item())[1];
-					n.weightList[index] = (Integer) node.item2();
-					index++;
-					node = (DDListNode) node.next();
+			DDListNode vertex = (DDListNode) vertices.front();
+			while (vertex.isValidNode()) {
+				Object u = vertex.item();
+				AdjacencyList list = (AdjacencyList) vertex.item2();
+				for (HalfEdge e = list.head.next; e != list.head; e = e.next) {
+					if (e.primary && e.died == HalfEdge.ALIVE) {
+						visitor.visit(u, e.neighbor, e.weight);
+					}
 				}
+				vertex = (DDListNode) vertex.next();
 			}
 		} catch (InvalidNodeException e) {
 			e.printStackTrace();
-		} catch (InvalidKeyException e) {
+		}
+	}
+
+	/**
+	 * forEachEdgeById() calls visitor.visit(u, v, weight) once for every edge
+	 * of the graph, including self-edges, where u and v are the ids of the
+	 * edge's endpoints. It visits the edges in the same order as
+	 * forEachEdge(), but passes ids instead of vertex objects, so callers can
+	 * index arrays by vertex without hashing. The visitor must not modify the
+	 * graph.
+	 *
+	 * Running time: O(|V| + |E|), with no allocation.
+	 *
+	 * @param visitor
+	 *            the object to call back for each edge.
+	 */
+	public void forEachEdgeById(IdEdgeVisitor visitor) {
+		try {
+			DDListNode vertex = (DDListNode) vertices.front();
+			while (vertex.isValidNode()) {
+				AdjacencyList list = (AdjacencyList) vertex.item2();
+				for (HalfEdge e = list.head.next; e != list.head; e = e.next) {
+					if (e.primary && e.died == HalfEdge.ALIVE) {
+						visitor.visit(list.id, e.partner.list.id, e.weight);
+					}
+				}
+				vertex = (DDListNode) vertex.next();
+			}
+		} catch (InvalidNodeException e) {
 			e.printStackTrace();
 		}
-		return n;
 	}
 
 	/**
@@ -252,62 +826,77 @@ public class WUGraph {
 	 * Running time: O(1).
 	 */
 	public void addEdge(Object u, Object v, int weight) {
-		if (isVertex(u) && isVertex(v)) {
-			try {
-				// check if the edge exists
-				if (isEdge(u, v)) {
-					DDListNode updated = findEdgeNode(u, v);
-					if (u != v) {
-						((DDListNode) ((Object[]) updated.item())[0])
-								.setItem2(weight);
-					}
-					updated.setItem2(weight);
-
-				} else {
-					VertexPair newEdge = new VertexPair(u, v);
-					DDList vertex = (DDList) findVertexNode(u).item2();
-
-					// if the vertices are referencing the same thing,
-					// assign partner reference as itself.
-					if (u == v) {
-
-						// the first parameter is partner reference
-						vertex.insertBack(null, weight);
-
-						Object[] partner = new Object[2];
-						partner[0] = vertex.back();
-						partner[1] = v;
-
-						vertex.back().setItem(partner);
-
-					} else { // insert the edge in the other vertex.
-						DDList vertex2 = (DDList) findVertexNode(v).item2();
-
-						vertex.insertBack(null, weight);
-						vertex2.insertBack(null, weight);
-
-						Object[] partner = new Object[2];
-						partner[0] = vertex2.back();
-						partner[1] = v;
-
-						Object[] partner2 = new Object[2];
-						partner2[0] = vertex.back();
-						partner2[1] = u;
+		addEdge(findAdjacencyList(u), findAdjacencyList(v), weight);
+	}
 
-						vertex.back().setItem(partner);
-						vertex2.back().setItem(partner2);
-					}
+	/**
+	 * addEdgeById() adds an edge between the vertices with ids u and v, just
+	 * as addEdge() does for the corresponding vertex objects, but without
+	 * looking the vertex objects up in the vertex table. If either id is not
+	 * the id of a vertex of the graph, the graph is unchanged.
+	 *
+	 * Running time: O(1).
+	 */
+	public void addEdgeById(int u, int v, int weight) {
+		addEdge(findAdjacencyList(u), findAdjacencyList(v), weight);
+	}
 
-					edgeHash.insert(newEdge, vertex.back());
-				}
-			} catch (InvalidKeyException e) {
-				e.printStackTrace();
-			} catch (InvalidNodeException e) {
-				e.printStackTrace();
+	/**
+	 * addEdge() adds or updates the edge between the vertices owning the two
+	 * adjacency lists, or does nothing if either list is null.
+	 */
+	private void addEdge(AdjacencyList vertex, AdjacencyList vertex2,
+			int weight) {
+		if (vertex == null || vertex2 == null) {
+			return;
+		}
+		reclaim();
+		// check if the edge exists
+		HalfEdge updated = edgesById.get(vertex.id, vertex2.id);
+		if (updated != null) {
+			int oldWeight = updated.weight;
+			if (isVisible(updated.born)) {
+				// a snapshot sees the old weight, so replace the half-edges
+				removeEdge(updated);
+				insertEdge(vertex, vertex2, weight);
+			} else {
+				updated.weight = weight;
+				updated.partner.weight = weight;
 			}
+			for (int i = 0; i < listeners.length; i++) {
+				listeners[i].edgeWeightChanged(vertex.id, vertex2.id,
+						oldWeight, weight);
+			}
+			return;
+		}
+		insertEdge(vertex, vertex2, weight);
+		for (int i = 0; i < listeners.length; i++) {
+			listeners[i].edgeAdded(vertex.id, vertex2.id, weight);
 		}
 	}
 
+	/**
+	 * insertEdge() adds the half-edges of a new edge (u, v) to the lists of
+	 * u and v, and the edge to edgeHash and edgesById.
+	 */
+	private void insertEdge(AdjacencyList vertex, AdjacencyList vertex2,
+			int weight) {
+		Object u = vertex.vertex;
+		Object v = vertex2.vertex;
+		HalfEdge edge = vertex.insertBack(v, weight, version);
+		edge.primary = true;
+		if (vertex == vertex2) {
+			// a self-edge is its own partner.
+			edge.partner = edge;
+		} else { // insert the edge in the other vertex.
+			HalfEdge edge2 = vertex2.insertBack(u, weight, version);
+			edge.partner = edge2;
+			edge2.partner = edge;
+		}
+		edgeHash.insert(new VertexPair(u, v), edge);
+		edgesById.put(vertex.id, vertex2.id, edge);
+	}
+
 	/**
 	 * removeEdge() removes an edge (u, v) from the graph. If either of the
 	 * parameters u and v does not represent a vertex of the graph, the graph is
@@ -316,25 +905,57 @@ public class WUGraph {
 	 * Running time: O(1).
 	 */
 	public void removeEdge(Object u, Object v) {
-		try {
-			if (isVertex(u) && isVertex(v) && isEdge(u, v)) {
-				DDListNode node = findEdgeNode(u, v);
-				DDListNode partner = ((DDListNode) ((Object[]) node.item())[0]);
-				partner.remove();
-				
-				if (node.isValidNode()) {
-					node.remove();
-				}
+		HalfEdge edge = findEdge(u, v);
+		if (edge != null) {
+			reclaim();
+			removeEdge(edge);
+			if (listeners.length > 0) {
+				edgeRemoved(idOf(u), idOf(v), edge.weight);
+			}
+		}
+	}
 
-				VertexPair vp = new VertexPair(u, v);
-				edgeHash.remove(vp);
+	/**
+	 * edgeRemoved() tells the listeners that the edge (u, v) has been
+	 * removed.
+	 */
+	private void edgeRemoved(int u, int v, int weight) {
+		for (int i = 0; i < listeners.length; i++) {
+			listeners[i].edgeRemoved(u, v, weight);
+		}
+	}
+
+	/**
+	 * removeEdge() removes the edge with the given half-edge (either half)
+	 * from both adjacency lists and from edgeHash and edgesById. If a
+	 * snapshot may see the edge, its half-edges are retired instead of
+	 * unlinked.
+	 */
+	private void removeEdge(HalfEdge edge) {
+		// each half-edge names the vertex at the other end, so the two
+		// neighbors are the two endpoints
+		VertexPair key = new VertexPair(edge.partner.neighbor, edge.neighbor);
+		edgesById.remove(edge.list.id, edge.partner.list.id);
+		if (isVisible(edge.born)) {
+			edge.list.retire(edge, version);
+			retiredEdges.addLast(edge);
+			if (edge.partner != edge) {
+				edge.partner.list.retire(edge.partner, version);
+				retiredEdges.addLast(edge.partner);
+			}
+		} else {
+			edge.partner.list.remove(edge.partner);
+			if (edge.list != null) {
+				edge.list.remove(edge);
 			}
+		}
+		try {
+			edgeHash.remove(key);
 		} catch (InvalidKeyException e) {
 			e.printStackTrace();
 		} catch (InvalidNodeException e) {
 			e.printStackTrace();
 		}
-
 	}
 
 	/**
@@ -345,15 +966,18 @@ public class WUGraph {
 	 * Running time: O(1).
 	 */
 	public boolean isEdge(Object u, Object v) {
+		return findEdge(u, v) != null;
+	}
 
-		try {
-			findEdgeNode(u, v);
-			return true;
-		} catch (InvalidKeyException e) {
-			return false;
-		} catch (InvalidNodeException e) {
-			return false;
-		}
+	/**
+	 * isEdgeById() returns true if there is an edge between the vertices with
+	 * ids u and v. Returns false if there is not (including the case where
+	 * either id is not the id of a vertex of the graph).
+	 *
+	 * Running time: O(1).
+	 */
+	public boolean isEdgeById(int u, int v) {
+		return findEdgeById(u, v) != null;
 	}
 
 	/**
@@ -371,17 +995,27 @@ public class WUGraph {
 	 * Running time: O(1).
 	 */
 	public int weight(Object u, Object v) {
-		if (isEdge(u, v)) {
-			try {
-				DDListNode edge = findEdgeNode(u, v);
-				return (Integer) edge.item2();
-			} catch (InvalidKeyException e) {
-				e.printStackTrace();
-			} catch (InvalidNodeException e) {
-				e.printStackTrace();
-			}
+		HalfEdge edge = findEdge(u, v);
+		if (edge == null) {
+			return 0;
+		}
+		return edge.weight;
+	}
+
+	/**
+	 * weightById() returns the weight of the edge between the vertices with
+	 * ids u and v. Like weight(), it returns zero if there is no such edge
+	 * (including the case where either id is not the id of a vertex of the
+	 * graph).
+	 *
+	 * Running time: O(1).
+	 */
+	public int weightById(int u, int v) {
+		HalfEdge edge = findEdgeById(u, v);
+		if (edge == null) {
+			return 0;
 		}
-		return 0;
+		return edge.weight;
 	}
 
-}
\ No newline at end of file
+}
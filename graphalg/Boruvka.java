@@ -0,0 +1,361 @@
+/* Boruvka.java */
+
+package graphalg;
+
+import graph.*;
+import set.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A Boruvka object computes minimum spanning trees with Boruvka's algorithm,
+ * running the per-vertex work of each round in parallel on a ForkJoinPool.
+ * Each round finds the lightest edge leaving every component, adds those
+ * edges to the tree, merges the components they join, and drops edges that
+ * now lie inside a component from every adjacency list, until no edge leaves
+ * any component.
+ *
+ * Edges are compared by weight, and edges of equal weight by their position
+ * in a fixed enumeration of g's edges, so the tree does not depend on the
+ * number of threads. When all edge weights are distinct the result has the
+ * same edges as Kruskal.minSpanTree(). Kruskal does not break ties by that
+ * enumeration, so when some weights tie the two may choose different edges
+ * of equal weight: both trees are minimum, but only their total weights are
+ * guaranteed to match.
+ *
+ * After each call to minSpanTree(), roundCount() and roundNanos() report how
+ * long each round took.
+ *
+ * A Boruvka object owns its worker threads; call close() when it is no
+ * longer needed to shut them down.
+ */
+
+public class Boruvka implements AutoCloseable {
+
+	/**
+	 * GRAIN is the number of vertices below which a task stops splitting.
+	 */
+	private final static int GRAIN = 2048;
+	private final static long NO_EDGE = Long.MAX_VALUE;
+
+	private final ForkJoinPool pool;
+	private long[] roundTimes = new long[0];
+
+	/**
+	 * Boruvka() constructs an engine that uses "parallelism" threads.
+	 *
+	 * @param parallelism
+	 *            the number of worker threads; must be positive.
+	 */
+	public Boruvka(int parallelism) {
+		pool = new ForkJoinPool(parallelism);
+	}
+
+	/**
+	 * Boruvka() constructs an engine that uses one thread per processor.
+	 */
+	public Boruvka() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * close() shuts down the engine's worker threads. minSpanTree() must not
+	 * be called afterward.
+	 */
+	public void close() {
+		pool.shutdown();
+	}
+
+	/**
+	 * roundCount() returns the number of rounds the last call to
+	 * minSpanTree() took.
+	 */
+	public int roundCount() {
+		return roundTimes.length;
+	}
+
+	/**
+	 * roundNanos() returns the time, in nanoseconds, that round "round" of
+	 * the last call to minSpanTree() took. Rounds are numbered from zero.
+	 */
+	public long roundNanos(int round) {
+		return roundTimes[round];
+	}
+
+	/**
+	 * minSpanTree() returns a WUGraph that represents the minimum spanning
+	 * tree (a minimum spanning forest, if g is disconnected) of the WUGraph
+	 * g. The original WUGraph g is NOT changed.
+	 *
+	 * @param g
+	 *            The weighted, undirected graph whose MST we want to compute.
+	 * @return A newly constructed WUGraph representing the MST of g.
+	 */
+	public WUGraph minSpanTree(WUGraph g) {
+		return minSpanTree(g.freeze()).toWUGraph();
+	}
+
+	/**
+	 * minSpanTree() returns a CsrGraph that represents the minimum spanning
+	 * forest of the IndexedGraph g (such as a CsrGraph or a MappedGraph), with
+	 * the same vertex ids.
+	 *
+	 * @param g
+	 *            The weighted, undirected graph whose MST we want to compute.
+	 * @return A newly constructed CsrGraph representing the MST of g.
+	 */
+	public CsrGraph minSpanTree(IndexedGraph g) {
+		Round state = new Round(g);
+		long[] times = new long[64];
+		int rounds = 0;
+		while (true) {
+			long start = System.nanoTime();
+			pool.invoke(new FindLightest(state, 0, state.size));
+			boolean merged = state.mergeComponents();
+			if (merged) {
+				pool.invoke(new Relabel(state, 0, state.size));
+			}
+			if (rounds == times.length) {
+				times = java.util.Arrays.copyOf(times, 2 * rounds);
+			}
+			times[rounds++] = System.nanoTime() - start;
+			if (!merged) {
+				break;
+			}
+		}
+		roundTimes = java.util.Arrays.copyOf(times, rounds);
+
+		Object[] vertices = new Object[state.size];
+		for (int u = 0; u < state.size; u++) {
+			vertices[u] = g.vertex(u);
+		}
+		return CsrGraph.fromEdges(vertices, state.treeUs, state.treeVs,
+				state.treeWeights, state.treeEdges);
+	}
+
+	/**
+	 * A Round holds the state shared by all the tasks of a computation: the
+	 * edges, each vertex's adjacency list of edge numbers (shrunk as edges
+	 * become internal to a component), each vertex's component, and the
+	 * lightest edge found so far leaving each component.
+	 */
+	private static class Round {
+		private int size;
+		private int[] us;
+		private int[] vs;
+		private int[] weights;
+
+		private int[] offsets;
+		private int[] ends;
+		private int[] adjacent;
+
+		private int[] component;
+		private AtomicLongArray lightest;
+		private ConcurrentDisjointSets sets;
+
+		private int[] treeUs;
+		private int[] treeVs;
+		private int[] treeWeights;
+		private int treeEdges;
+
+		/**
+		 * Round() numbers the non-self edges of g in order of their first
+		 * appearance in g's rows and builds the adjacency lists.
+		 */
+		Round(IndexedGraph g) {
+			size = g.vertexCount();
+			us = new int[g.edgeCount()];
+			vs = new int[g.edgeCount()];
+			weights = new int[g.edgeCount()];
+			int count = 0;
+			for (int u = 0; u < size; u++) {
+				for (int i = g.firstEdge(u); i < g.endEdge(u); i++) {
+					if (g.target(i) > u) {
+						us[count] = u;
+						vs[count] = g.target(i);
+						weights[count] = g.weight(i);
+						count++;
+					}
+				}
+			}
+
+			offsets = new int[size + 1];
+			for (int e = 0; e < count; e++) {
+				offsets[us[e] + 1]++;
+				offsets[vs[e] + 1]++;
+			}
+			for (int u = 0; u < size; u++) {
+				offsets[u + 1] += offsets[u];
+			}
+			ends = new int[size];
+			System.arraycopy(offsets, 0, ends, 0, size);
+			adjacent = new int[offsets[size]];
+			for (int e = 0; e < count; e++) {
+				adjacent[ends[us[e]]++] = e;
+				adjacent[ends[vs[e]]++] = e;
+			}
+
+			component = new int[size];
+			for (int u = 0; u < size; u++) {
+				component[u] = u;
+			}
+			lightest = new AtomicLongArray(size);
+			for (int u = 0; u < size; u++) {
+				lightest.set(u, NO_EDGE);
+			}
+			sets = new ConcurrentDisjointSets(size);
+
+			int maxTreeEdges = Math.max(size - 1, 0);
+			treeUs = new int[maxTreeEdges];
+			treeVs = new int[maxTreeEdges];
+			treeWeights = new int[maxTreeEdges];
+		}
+
+		/**
+		 * key() packs an edge's weight and number into a long, so that
+		 * comparing keys compares edges by weight and then by number.
+		 */
+		long key(int edge) {
+			return ((long) weights[edge] << 32) | edge;
+		}
+
+		/**
+		 * findLightest() drops the edges of vertex u that lie inside u's
+		 * component and offers the lightest remaining one as a candidate for
+		 * the lightest edge leaving the component.
+		 */
+		void findLightest(int u) {
+			int mine = component[u];
+			long best = NO_EDGE;
+			int kept = offsets[u];
+			for (int i = offsets[u]; i < ends[u]; i++) {
+				int edge = adjacent[i];
+				int other = us[edge] == u ? vs[edge] : us[edge];
+				if (component[other] != mine) {
+					adjacent[kept++] = edge;
+					best = Math.min(best, key(edge));
+				}
+			}
+			ends[u] = kept;
+			if (best != NO_EDGE) {
+				long current = lightest.get(mine);
+				while (best < current
+						&& !lightest.compareAndSet(mine, current, best)) {
+					current = lightest.get(mine);
+				}
+			}
+		}
+
+		/**
+		 * mergeComponents() adds the lightest edge leaving each component to
+		 * the tree, uniting the components it joins, and resets the
+		 * candidates. Runs on one thread; the work is proportional to the
+		 * number of vertices.
+		 *
+		 * @return true if any components were merged.
+		 */
+		boolean mergeComponents() {
+			boolean merged = false;
+			for (int c = 0; c < size; c++) {
+				long best = lightest.get(c);
+				if (best != NO_EDGE) {
+					lightest.set(c, NO_EDGE);
+					int edge = (int) best;
+					if (sets.unionIfDisjoint(us[edge], vs[edge])) {
+						treeUs[treeEdges] = us[edge];
+						treeVs[treeEdges] = vs[edge];
+						treeWeights[treeEdges] = weights[edge];
+						treeEdges++;
+						merged = true;
+					}
+				}
+			}
+			return merged;
+		}
+
+		/**
+		 * relabel() records the current component of vertex u.
+		 */
+		void relabel(int u) {
+			component[u] = sets.find(u);
+		}
+	}
+
+	/**
+	 * A RangeTask applies a per-vertex step to a range of vertices, splitting
+	 * itself in half until the range is at most GRAIN vertices long.
+	 */
+	private abstract static class RangeTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		protected Round state;
+		private int from;
+		private int to;
+
+		RangeTask(Round state, int from, int to) {
+			this.state = state;
+			this.from = from;
+			this.to = to;
+		}
+
+		/**
+		 * split() returns a task of the same kind for the range [from, to).
+		 */
+		abstract RangeTask split(int from, int to);
+
+		/**
+		 * step() performs the work for vertex u.
+		 */
+		abstract void step(int u);
+
+		protected void compute() {
+			if (to - from <= GRAIN) {
+				for (int u = from; u < to; u++) {
+					step(u);
+				}
+			} else {
+				int middle = (from + to) >>> 1;
+				invokeAll(split(from, middle), split(middle, to));
+			}
+		}
+	}
+
+	/**
+	 * A FindLightest task runs Round.findLightest() over a range of vertices.
+	 */
+	private static class FindLightest extends RangeTask {
+		private static final long serialVersionUID = 1L;
+
+		FindLightest(Round state, int from, int to) {
+			super(state, from, to);
+		}
+
+		RangeTask split(int from, int to) {
+			return new FindLightest(state, from, to);
+		}
+
+		void step(int u) {
+			state.findLightest(u);
+		}
+	}
+
+	/**
+	 * A Relabel task runs Round.relabel() over a range of vertices.
+	 */
+	private static class Relabel extends RangeTask {
+		private static final long serialVersionUID = 1L;
+
+		Relabel(Round state, int from, int to) {
+			super(state, from, to);
+		}
+
+		RangeTask split(int from, int to) {
+			return new Relabel(state, from, to);
+		}
+
+		void step(int u) {
+			state.relabel(u);
+		}
+	}
+}
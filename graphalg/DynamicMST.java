@@ -0,0 +1,748 @@
+/* DynamicMST.java */
+
+package graphalg;
+
+import graph.*;
+import set.*;
+
+/**
+ * A DynamicMST keeps a minimum spanning forest of a WUGraph up to date as
+ * edges are added and removed, instead of rerunning Kruskal's algorithm,
+ * and so also answers connectivity queries. It listens to the graph (see
+ * WUGraph.addListener()). Edges of equal weight are ordered by an internal
+ * edge number, so the forest is unique.
+ *
+ * A new edge (u, v) joins the forest if u and v are not yet connected;
+ * otherwise it replaces the heaviest edge on the forest path from u to v if
+ * it is lighter. The forest is held in a link-cut tree in which every tree
+ * edge is a node of its own whose value is the edge's weight, so finding
+ * the heaviest edge on a path takes O(log V) amortized time.
+ *
+ * Removals use the levels of Holm, de Lichtenberg, and Thorup. Every edge
+ * has a level. F_i, the forest of the tree edges of level i or more, is
+ * kept as an EulerTourForest for each level i; F_0 is the whole spanning
+ * forest. Each tree of F_i has at most V / 2^i vertices, so levels never
+ * exceed log2 V, and the endpoints of a non-tree edge of level i are
+ * connected in F_i. When a tree edge of level l is removed, levels l, l - 1,
+ * ..., 0 are searched in turn for a replacement. At level i, the smaller of
+ * the two trees of F_i the edge leaves behind has its level-i tree edges
+ * raised to level i + 1, and then its level-i non-tree edges are taken
+ * lightest first: the first one that leads to the other tree replaces the
+ * removed edge, and each one before it is raised to level i + 1. A removal
+ * thus costs O(log^2 V) amortized, each raise being paid for by the
+ * insertion that put the edge at a lower level.
+ *
+ * The first replacement found is the lightest one only if the heaviest edge
+ * of every cycle has the lowest level on that cycle. Removals keep that
+ * true, but an insertion that closes a cycle may not, so it returns every
+ * non-tree edge of its tree to level 0. An insertion therefore costs
+ * O(log V) amortized, plus O(log^2 V) for each edge it returns to level 0.
+ * A changed weight is a removal followed by an insertion, except that a
+ * tree edge whose weight goes down keeps its place.
+ *
+ * Vertices are named by their ids in the graph.
+ */
+
+public class DynamicMST implements GraphListener {
+
+	/**
+	 * Vertex id v is node 2 * v of the link-cut tree, with the smallest
+	 * value so it is never a path maximum. Tree edges take odd nodes, from
+	 * the freeNodes stack, with their keys as values; a forest has fewer
+	 * edges than vertices, so there are always enough.
+	 */
+	private final static long VERTEX_VALUE = Long.MIN_VALUE;
+	private final static int NIL = -1;
+
+	/**
+	 * TREE_ARC marks one arc of each tree edge in the Euler tour forest of
+	 * the edge's level. RAISED marks the level-0 node of each vertex with a
+	 * non-tree edge above level 0.
+	 */
+	private final static int TREE_ARC = 1;
+	private final static int RAISED = 2;
+
+	private WUGraph graph;
+	private LinkCutTree forest;
+	private int[] freeNodes;
+	private int freeCount;
+
+	/**
+	 * tours holds the forests F_0, F_1, ... of every level. In level i,
+	 * vertexNodes[i][v] is vertex v's node, made on first use, and
+	 * heaps[i][v] is the root of a heap of v's non-tree edges of level i;
+	 * the smallest key in the heap is also the key of v's node. raised[v]
+	 * counts v's non-tree edges above level 0.
+	 */
+	private EulerTourForest tours;
+	private int[][] vertexNodes;
+	private int[][] heaps;
+	private int[] raised;
+
+	/**
+	 * Every edge of the graph other than a self-edge has a number e, looked
+	 * up by its endpoints in "numbers", and a key that orders it by weight,
+	 * then by e. A tree edge has link-cut tree node treeNode[e], NIL for a
+	 * non-tree edge, and arcs firstArcs[e] in F_0; arcsAbove[a] is the pair
+	 * of arcs of the same edge in the next level, or NIL. The heap node of
+	 * the edge at edgeU[e] is 2 * e, and at edgeV[e] it is 2 * e + 1.
+	 */
+	private EdgeNumbers numbers;
+	private int[] edgeU;
+	private int[] edgeV;
+	private int[] edgeWeight;
+	private int[] edgeLevel;
+	private int[] treeNode;
+	private int[] firstArcs;
+	private int[] arcsAbove;
+	private int[] heapLeft;
+	private int[] heapRight;
+	private int[] heapParent;
+	private int[] freeEdges;
+	private int freeEdgeCount;
+	private long seed = 0x2545F4914F6CDD1DL;
+
+	/**
+	 * The tree edges are listed densely in treeList, in no particular order;
+	 * slotOf maps a tree edge's number to its index.
+	 */
+	private int[] treeList;
+	private int[] slotOf;
+	private int treeEdges;
+	private long totalWeight;
+
+	/**
+	 * DynamicMST() computes a minimum spanning forest of g and starts
+	 * following g's changes.
+	 *
+	 * Running time: O(|V| log |V| + |E|) expected, after the radix sort of
+	 * Kruskal's algorithm.
+	 */
+	public DynamicMST(WUGraph g) {
+		graph = g;
+		rebuild();
+		g.addListener(this);
+	}
+
+	/**
+	 * detach() stops following the graph. The forest keeps the value it had.
+	 *
+	 * Running time: O(1).
+	 */
+	public void detach() {
+		graph.removeListener(this);
+	}
+
+	/**
+	 * weight() returns the total weight of the minimum spanning forest.
+	 *
+	 * Running time: O(1).
+	 */
+	public long weight() {
+		return totalWeight;
+	}
+
+	/**
+	 * edgeCount() returns the number of edges in the minimum spanning forest.
+	 *
+	 * Running time: O(1).
+	 */
+	public int edgeCount() {
+		return treeEdges;
+	}
+
+	/**
+	 * componentCount() returns the number of connected components of the
+	 * graph.
+	 *
+	 * Running time: O(1).
+	 */
+	public int componentCount() {
+		return graph.vertexCount() - treeEdges;
+	}
+
+	/**
+	 * connected() returns true if the vertices with ids u and v are in the
+	 * same connected component of the graph. Returns false if either id is
+	 * not the id of a vertex of the graph.
+	 *
+	 * Running time: O(log V) amortized.
+	 */
+	public boolean connected(int u, int v) {
+		return validId(u) && validId(v) && forest.connected(2 * u, 2 * v);
+	}
+
+	/**
+	 * isTreeEdge() returns true if the edge between the vertices with ids u
+	 * and v is in the minimum spanning forest.
+	 *
+	 * Running time: O(1) expected.
+	 */
+	public boolean isTreeEdge(int u, int v) {
+		if (u == v || !validId(u) || !validId(v)) {
+			return false;
+		}
+		int e = numbers.get(u, v);
+		return e != NIL && treeNode[e] != NIL;
+	}
+
+	/**
+	 * forEachEdge() calls visitor.visit(u, v, weight) once for each edge of
+	 * the minimum spanning forest, naming vertices by their ids.
+	 *
+	 * Running time: O(V).
+	 */
+	public void forEachEdge(IdEdgeVisitor visitor) {
+		for (int i = 0; i < treeEdges; i++) {
+			int e = treeList[i];
+			visitor.visit(edgeU[e], edgeV[e], edgeWeight[e]);
+		}
+	}
+
+	/**
+	 * minSpanTree() returns a new WUGraph with the graph's vertices and the
+	 * edges of the minimum spanning forest, as Kruskal.minSpanTree() does.
+	 *
+	 * Running time: O(|V|).
+	 */
+	public WUGraph minSpanTree() {
+		WUGraph t = new WUGraph();
+		Object[] vertices = graph.getVertices();
+		for (int i = 0; i < vertices.length; i++) {
+			t.addVertex(vertices[i]);
+		}
+		for (int i = 0; i < treeEdges; i++) {
+			int e = treeList[i];
+			t.addEdge(graph.vertexOf(edgeU[e]), graph.vertexOf(edgeV[e]),
+					edgeWeight[e]);
+		}
+		return t;
+	}
+
+	/**
+	 * vertexAdded() gives the new vertex an isolated node.
+	 */
+	public void vertexAdded(int id) {
+		ensureCapacity(id + 1);
+		forest.reset(2 * id, VERTEX_VALUE);
+	}
+
+	/**
+	 * vertexRemoved() does nothing, since the vertex's edges were removed
+	 * first.
+	 */
+	public void vertexRemoved(int id) {
+	}
+
+	/**
+	 * edgeAdded() numbers the new edge and offers it to the forest.
+	 */
+	public void edgeAdded(int u, int v, int weight) {
+		if (u != v) {
+			insert(newEdge(u, v, weight));
+		}
+	}
+
+	/**
+	 * edgeWeightChanged() lowers the weight of a tree edge in place, and
+	 * otherwise takes the edge out and offers it to the forest again.
+	 */
+	public void edgeWeightChanged(int u, int v, int oldWeight, int weight) {
+		if (u == v || weight == oldWeight) {
+			return;
+		}
+		int e = numbers.get(u, v);
+		if (treeNode[e] != NIL && weight < oldWeight) {
+			edgeWeight[e] = weight;
+			forest.setValue(treeNode[e], key(e));
+			totalWeight += weight - oldWeight;
+		} else {
+			remove(e);
+			edgeWeight[e] = weight;
+			insert(e);
+		}
+	}
+
+	/**
+	 * edgeRemoved() takes the edge out, replacing it in the forest if it was
+	 * a tree edge, and frees its number.
+	 */
+	public void edgeRemoved(int u, int v, int weight) {
+		if (u == v) {
+			return;
+		}
+		int e = numbers.get(u, v);
+		remove(e);
+		numbers.remove(u, v);
+		freeEdges[freeEdgeCount] = e;
+		freeEdgeCount++;
+	}
+
+	/**
+	 * insert() offers edge e, which is in neither the forest nor a heap, to
+	 * the forest, and makes it or the edge it displaces a non-tree edge if
+	 * it closes a cycle.
+	 */
+	private void insert(int e) {
+		int u = edgeU[e];
+		int v = edgeV[e];
+		if (!forest.connected(2 * u, 2 * v)) {
+			linkTree(e, 0);
+			return;
+		}
+		int heaviest = (int) forest.value(forest.pathMax(2 * u, 2 * v));
+		if (key(heaviest) > key(e)) {
+			cutTree(heaviest);
+			linkTree(e, 0);
+			e = heaviest;
+		}
+		addNonTree(e, 0);
+		lowerAll(u);
+	}
+
+	/**
+	 * remove() takes edge e out of the forest or its heaps, and if it was a
+	 * tree edge, replaces it by the lightest edge that reconnects its
+	 * endpoints, if there is one.
+	 */
+	private void remove(int e) {
+		if (treeNode[e] == NIL) {
+			removeNonTree(e);
+		} else {
+			int level = edgeLevel[e];
+			cutTree(e);
+			reconnect(edgeU[e], edgeV[e], level);
+		}
+	}
+
+	/**
+	 * reconnect() searches levels "level", level - 1, ..., 0 for the
+	 * lightest non-tree edge between the trees of u and v, which were joined
+	 * by a tree edge of level "level" until it was cut, and makes it a tree
+	 * edge. Edges the search passes over are raised a level.
+	 */
+	private void reconnect(int u, int v, int level) {
+		for (int i = level; i >= 0; i--) {
+			int smaller = vertexNodes[i][u];
+			if (tours.size(smaller) > tours.size(vertexNodes[i][v])) {
+				smaller = vertexNodes[i][v];
+			}
+			int arc;
+			while ((arc = tours.find(smaller, TREE_ARC)) != NIL) {
+				raiseTree(tours.owner(arc), arc, i);
+			}
+			int node;
+			while ((node = tours.findMin(smaller)) != NIL) {
+				int half = heaps[i][tours.owner(node)];
+				int e = half >> 1;
+				int other = (half & 1) == 0 ? edgeV[e] : edgeU[e];
+				removeNonTree(e);
+				if (tours.connected(smaller, vertexNodes[i][other])) {
+					addNonTree(e, i + 1);
+				} else {
+					linkTree(e, i);
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * lowerAll() returns every non-tree edge in the tree of the vertex with
+	 * id u to level 0.
+	 */
+	private void lowerAll(int u) {
+		int root = vertexNode(0, u);
+		int node;
+		while ((node = tours.find(root, RAISED)) != NIL) {
+			int x = tours.owner(node);
+			for (int i = 1; i < heaps.length; i++) {
+				while (heaps[i][x] != NIL) {
+					int e = heaps[i][x] >> 1;
+					removeNonTree(e);
+					addNonTree(e, 0);
+				}
+			}
+		}
+	}
+
+	/**
+	 * linkTree() makes edge e a tree edge of the given level.
+	 */
+	private void linkTree(int e, int level) {
+		int u = edgeU[e];
+		int v = edgeV[e];
+		freeCount--;
+		int node = freeNodes[freeCount];
+		forest.reset(node, key(e));
+		forest.link(2 * u, node);
+		forest.link(node, 2 * v);
+		treeNode[e] = node;
+		slotOf[e] = treeEdges;
+		treeList[treeEdges] = e;
+		treeEdges++;
+		totalWeight += edgeWeight[e];
+		int arcs = NIL;
+		for (int i = 0; i <= level; i++) {
+			int above = newArcs(e);
+			if (arcs == NIL) {
+				firstArcs[e] = above;
+			} else {
+				arcsAbove[arcs] = above;
+			}
+			tours.link(vertexNode(i, u), vertexNode(i, v), above);
+			arcs = above;
+		}
+		tours.setBits(arcs, TREE_ARC);
+		edgeLevel[e] = level;
+	}
+
+	/**
+	 * raiseTree() moves tree edge e, whose marked arc in level i is "arc",
+	 * up to level i + 1.
+	 */
+	private void raiseTree(int e, int arc, int level) {
+		tours.setBits(arc, 0);
+		int above = newArcs(e);
+		arcsAbove[arc] = above;
+		tours.link(vertexNode(level + 1, edgeU[e]), vertexNode(level + 1,
+				edgeV[e]), above);
+		tours.setBits(above, TREE_ARC);
+		edgeLevel[e] = level + 1;
+	}
+
+	/**
+	 * cutTree() cuts tree edge e out of the forests of all levels.
+	 */
+	private void cutTree(int e) {
+		int node = treeNode[e];
+		forest.cut(2 * edgeU[e], node);
+		forest.cut(node, 2 * edgeV[e]);
+		freeNodes[freeCount] = node;
+		freeCount++;
+		treeNode[e] = NIL;
+		treeEdges--;
+		int last = treeList[treeEdges];
+		treeList[slotOf[e]] = last;
+		slotOf[last] = slotOf[e];
+		totalWeight -= edgeWeight[e];
+		int arcs = firstArcs[e];
+		while (arcs != NIL) {
+			int above = arcsAbove[arcs];
+			tours.cut(arcs);
+			arcs = above;
+		}
+	}
+
+	/**
+	 * addNonTree() puts non-tree edge e in the heaps of its endpoints at the
+	 * given level.
+	 */
+	private void addNonTree(int e, int level) {
+		edgeLevel[e] = level;
+		addHalf(level, edgeU[e], 2 * e);
+		addHalf(level, edgeV[e], 2 * e + 1);
+		if (level > 0) {
+			countRaised(edgeU[e], 1);
+			countRaised(edgeV[e], 1);
+		}
+	}
+
+	/**
+	 * removeNonTree() takes non-tree edge e out of the heaps of its
+	 * endpoints.
+	 */
+	private void removeNonTree(int e) {
+		int level = edgeLevel[e];
+		removeHalf(level, edgeU[e], 2 * e);
+		removeHalf(level, edgeV[e], 2 * e + 1);
+		if (level > 0) {
+			countRaised(edgeU[e], -1);
+			countRaised(edgeV[e], -1);
+		}
+	}
+
+	/**
+	 * countRaised() adds "change" to the number of v's non-tree edges above
+	 * level 0, marking v's level-0 node while the number is not zero.
+	 */
+	private void countRaised(int v, int change) {
+		boolean was = raised[v] > 0;
+		raised[v] += change;
+		if (was != raised[v] > 0) {
+			tours.setBits(vertexNode(0, v), raised[v] > 0 ? RAISED : 0);
+		}
+	}
+
+	/**
+	 * addHalf() puts heap node "half" into v's heap of the given level.
+	 */
+	private void addHalf(int level, int v, int half) {
+		int node = vertexNode(level, v);
+		heapLeft[half] = NIL;
+		heapRight[half] = NIL;
+		int root = meld(heaps[level][v], half);
+		heapParent[root] = NIL;
+		setHeap(level, v, node, root);
+	}
+
+	/**
+	 * removeHalf() takes heap node "half" out of v's heap of the given
+	 * level.
+	 */
+	private void removeHalf(int level, int v, int half) {
+		int root = heaps[level][v];
+		int merged = meld(heapLeft[half], heapRight[half]);
+		int p = heapParent[half];
+		if (merged != NIL) {
+			heapParent[merged] = p;
+		}
+		if (p == NIL) {
+			root = merged;
+		} else if (heapLeft[p] == half) {
+			heapLeft[p] = merged;
+		} else {
+			heapRight[p] = merged;
+		}
+		setHeap(level, v, vertexNodes[level][v], root);
+	}
+
+	/**
+	 * setHeap() records the root of v's heap of the given level and gives
+	 * v's node in that level the smallest key in the heap.
+	 */
+	private void setHeap(int level, int v, int node, int root) {
+		heaps[level][v] = root;
+		long smallest = root == NIL ? EulerTourForest.NO_KEY : key(root >> 1);
+		if (tours.key(node) != smallest) {
+			tours.setKey(node, smallest);
+		}
+	}
+
+	/**
+	 * meld() merges the heaps with roots a and b, either of which may be
+	 * NIL, and returns the root of the result. Each step goes down a random
+	 * side, so the heaps have O(log E) expected depth.
+	 */
+	private int meld(int a, int b) {
+		if (a == NIL) {
+			return b;
+		}
+		if (b == NIL) {
+			return a;
+		}
+		if (key(b >> 1) < key(a >> 1)) {
+			int temp = a;
+			a = b;
+			b = temp;
+		}
+		int root = a;
+		while (true) {
+			// b, whose key is larger than a's, goes into one of a's subtrees
+			seed ^= seed << 13;
+			seed ^= seed >>> 7;
+			seed ^= seed << 17;
+			boolean goLeft = seed < 0;
+			int child = goLeft ? heapLeft[a] : heapRight[a];
+			if (child != NIL && key(child >> 1) < key(b >> 1)) {
+				a = child;
+				continue;
+			}
+			if (goLeft) {
+				heapLeft[a] = b;
+			} else {
+				heapRight[a] = b;
+			}
+			heapParent[b] = a;
+			if (child == NIL) {
+				return root;
+			}
+			a = b;
+			b = child;
+		}
+	}
+
+	/**
+	 * key() returns the key of edge e, which orders edges by weight, then by
+	 * number.
+	 */
+	private long key(int e) {
+		return ((long) edgeWeight[e] << 32) | e;
+	}
+
+	/**
+	 * vertexNode() returns v's node in the Euler tour forest of the given
+	 * level, making it first if need be.
+	 */
+	private int vertexNode(int level, int v) {
+		if (level >= vertexNodes.length) {
+			int old = vertexNodes.length;
+			vertexNodes = java.util.Arrays.copyOf(vertexNodes, level + 1);
+			heaps = java.util.Arrays.copyOf(heaps, level + 1);
+			for (int i = old; i <= level; i++) {
+				vertexNodes[i] = nils(raised.length);
+				heaps[i] = nils(raised.length);
+			}
+		}
+		int node = vertexNodes[level][v];
+		if (node == NIL) {
+			node = tours.newVertex(v);
+			vertexNodes[level][v] = node;
+		}
+		return node;
+	}
+
+	/**
+	 * newArcs() returns a new pair of arcs for edge e, with no pair above.
+	 */
+	private int newArcs(int e) {
+		int arcs = tours.newArcs(e);
+		if (arcs + 1 >= arcsAbove.length) {
+			arcsAbove = java.util.Arrays.copyOf(arcsAbove, Math.max(
+					2 * arcsAbove.length, arcs + 2));
+		}
+		arcsAbove[arcs] = NIL;
+		return arcs;
+	}
+
+	/**
+	 * newEdge() numbers the edge (u, v), which is in neither the forest nor
+	 * a heap yet.
+	 */
+	private int newEdge(int u, int v, int weight) {
+		if (freeEdgeCount == 0) {
+			growEdges();
+		}
+		freeEdgeCount--;
+		int e = freeEdges[freeEdgeCount];
+		edgeU[e] = u;
+		edgeV[e] = v;
+		edgeWeight[e] = weight;
+		treeNode[e] = NIL;
+		firstArcs[e] = NIL;
+		numbers.put(u, v, e);
+		return e;
+	}
+
+	/**
+	 * growEdges() doubles the number of edge numbers, putting the new ones
+	 * on the freeEdges stack, smallest on top.
+	 */
+	private void growEdges() {
+		int old = edgeU.length;
+		int capacity = Math.max(16, 2 * old);
+		edgeU = java.util.Arrays.copyOf(edgeU, capacity);
+		edgeV = java.util.Arrays.copyOf(edgeV, capacity);
+		edgeWeight = java.util.Arrays.copyOf(edgeWeight, capacity);
+		edgeLevel = java.util.Arrays.copyOf(edgeLevel, capacity);
+		treeNode = java.util.Arrays.copyOf(treeNode, capacity);
+		firstArcs = java.util.Arrays.copyOf(firstArcs, capacity);
+		slotOf = java.util.Arrays.copyOf(slotOf, capacity);
+		heapLeft = java.util.Arrays.copyOf(heapLeft, 2 * capacity);
+		heapRight = java.util.Arrays.copyOf(heapRight, 2 * capacity);
+		heapParent = java.util.Arrays.copyOf(heapParent, 2 * capacity);
+		freeEdges = java.util.Arrays.copyOf(freeEdges, capacity);
+		for (int e = capacity - 1; e >= old; e--) {
+			freeEdges[freeEdgeCount] = e;
+			freeEdgeCount++;
+		}
+	}
+
+	/**
+	 * validId() returns true if id is the id of a vertex of the graph.
+	 */
+	private boolean validId(int id) {
+		return graph.vertexOf(id) != null;
+	}
+
+	/**
+	 * rebuild() discards the forest and computes it again from the graph
+	 * with Kruskal's algorithm. Every edge starts at level 0.
+	 */
+	private void rebuild() {
+		int bound = graph.vertexIdBound();
+		forest = new LinkCutTree(0);
+		freeNodes = new int[0];
+		freeCount = 0;
+		tours = new EulerTourForest(4 * bound);
+		vertexNodes = new int[1][0];
+		heaps = new int[1][0];
+		raised = new int[0];
+		treeList = new int[0];
+		treeEdges = 0;
+		totalWeight = 0;
+		numbers = new EdgeNumbers(graph.edgeCount());
+		edgeU = new int[0];
+		edgeV = new int[0];
+		edgeWeight = new int[0];
+		edgeLevel = new int[0];
+		treeNode = new int[0];
+		firstArcs = new int[0];
+		slotOf = new int[0];
+		arcsAbove = new int[0];
+		heapLeft = new int[0];
+		heapRight = new int[0];
+		heapParent = new int[0];
+		freeEdges = new int[0];
+		freeEdgeCount = 0;
+		ensureCapacity(bound);
+
+		Kruskal.EdgeCollector edges = new Kruskal.EdgeCollector(graph
+				.edgeCount());
+		graph.forEachEdgeById(edges);
+		ListSorts.sortByWeight(edges.weights, edges.us, edges.vs, edges.count);
+		DisjointSets cycleCheck = new DisjointSets(bound);
+		// numbers are handed out in sorted order, so keys agree with it
+		for (int i = 0; i < edges.count; i++) {
+			int u = edges.us[i];
+			int v = edges.vs[i];
+			if (u == v) {
+				continue;
+			}
+			int e = newEdge(u, v, edges.weights[i]);
+			if (cycleCheck.unionIfDisjoint(u, v)) {
+				linkTree(e, 0);
+			} else {
+				addNonTree(e, 0);
+			}
+		}
+	}
+
+	/**
+	 * ensureCapacity() makes room for vertex ids below "bound". New vertex
+	 * nodes are isolated.
+	 */
+	private void ensureCapacity(int bound) {
+		int old = raised.length;
+		if (bound <= old) {
+			return;
+		}
+		bound = Math.max(bound, 2 * old);
+		forest.ensureCapacity(2 * bound);
+		for (int k = old; k < bound; k++) {
+			forest.reset(2 * k, VERTEX_VALUE);
+		}
+		for (int i = 0; i < vertexNodes.length; i++) {
+			vertexNodes[i] = java.util.Arrays.copyOf(vertexNodes[i], bound);
+			java.util.Arrays.fill(vertexNodes[i], old, bound, NIL);
+			heaps[i] = java.util.Arrays.copyOf(heaps[i], bound);
+			java.util.Arrays.fill(heaps[i], old, bound, NIL);
+		}
+		raised = java.util.Arrays.copyOf(raised, bound);
+		treeList = java.util.Arrays.copyOf(treeList, bound);
+		freeNodes = java.util.Arrays.copyOf(freeNodes, bound);
+		for (int k = bound - 1; k >= old; k--) {
+			freeNodes[freeCount] = 2 * k + 1;
+			freeCount++;
+		}
+	}
+
+	/**
+	 * nils() returns a new array of the given length filled with NIL.
+	 */
+	private static int[] nils(int length) {
+		int[] array = new int[length];
+		java.util.Arrays.fill(array, NIL);
+		return array;
+	}
+}
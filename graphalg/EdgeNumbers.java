@@ -0,0 +1,160 @@
+/* EdgeNumbers.java */
+
+package graphalg;
+
+/**
+ * An EdgeNumbers table maps the ids of the two endpoints of an edge to a
+ * non-negative int. Like graph.EdgeIdTable, it is an open-addressing table
+ * with linear probing whose keys are the two ids packed into a long,
+ * smaller id first; it doubles when it is half full, and removal shifts
+ * later entries of the probe sequence backward instead of leaving
+ * tombstones.
+ */
+
+class EdgeNumbers {
+	final static int NIL = -1;
+	private final static int MAX_CAPACITY = 1 << 30;
+
+	private long[] keys;
+	private int[] numbers;
+	private int mask;
+	private int size;
+
+	/**
+	 * EdgeNumbers() constructs an empty table with room for "count" edges
+	 * before it first grows.
+	 */
+	EdgeNumbers(int count) {
+		int capacity = 2;
+		while (capacity < 2L * count + 1 && capacity < MAX_CAPACITY) {
+			capacity <<= 1;
+		}
+		allocate(capacity);
+	}
+
+	/**
+	 * allocate() replaces the arrays with empty ones of the given capacity.
+	 */
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		numbers = new int[capacity];
+		java.util.Arrays.fill(numbers, NIL);
+		mask = capacity - 1;
+	}
+
+	/**
+	 * key() packs the unordered pair of ids u and v into a long.
+	 */
+	private static long key(int u, int v) {
+		return u < v ? ((long) u << 32) | v : ((long) v << 32) | u;
+	}
+
+	/**
+	 * home() returns the first slot of a key's probe sequence.
+	 */
+	private int home(long key) {
+		return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+	}
+
+	/**
+	 * slotOf() returns the slot holding the key, or -1 if there is none.
+	 */
+	private int slotOf(long key) {
+		for (int slot = home(key); numbers[slot] != NIL; slot = (slot + 1) & mask) {
+			if (keys[slot] == key) {
+				return slot;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * get() returns the number of (u, v), or NIL if there is none.
+	 *
+	 * Running time: O(1) expected.
+	 */
+	int get(int u, int v) {
+		int slot = slotOf(key(u, v));
+		return slot < 0 ? NIL : numbers[slot];
+	}
+
+	/**
+	 * put() gives (u, v) the non-negative number "number", replacing any
+	 * number it had before.
+	 *
+	 * Running time: O(1) amortized.
+	 *
+	 * @throws IllegalStateException
+	 *             if the table has MAX_CAPACITY slots and only one is free.
+	 */
+	void put(int u, int v, int number) {
+		long key = key(u, v);
+		int slot = slotOf(key);
+		if (slot >= 0) {
+			numbers[slot] = number;
+			return;
+		}
+		if (size + 1 > keys.length / 2 && keys.length < MAX_CAPACITY) {
+			rehash(keys.length * 2);
+		}
+		// one slot always stays empty, so every probe sequence ends
+		if (size + 1 >= keys.length) {
+			throw new IllegalStateException("edge table is full");
+		}
+		place(key, number);
+		size++;
+	}
+
+	/**
+	 * remove() removes (u, v) from the table, if it is there.
+	 *
+	 * Running time: O(1) expected.
+	 */
+	void remove(int u, int v) {
+		int hole = slotOf(key(u, v));
+		if (hole < 0) {
+			return;
+		}
+		size--;
+		int slot = (hole + 1) & mask;
+		while (numbers[slot] != NIL) {
+			int home = home(keys[slot]);
+			// Move the entry into the hole unless its home lies cyclically
+			// in (hole, slot], in which case it is already reachable.
+			if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+				keys[hole] = keys[slot];
+				numbers[hole] = numbers[slot];
+				hole = slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		numbers[hole] = NIL;
+	}
+
+	/**
+	 * place() stores a key and number in the first free slot of the key's
+	 * probe sequence.
+	 */
+	private void place(long key, int number) {
+		int slot = home(key);
+		while (numbers[slot] != NIL) {
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		numbers[slot] = number;
+	}
+
+	/**
+	 * rehash() moves every entry into new arrays of the given capacity.
+	 */
+	private void rehash(int capacity) {
+		long[] oldKeys = keys;
+		int[] oldNumbers = numbers;
+		allocate(capacity);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldNumbers[i] != NIL) {
+				place(oldKeys[i], oldNumbers[i]);
+			}
+		}
+	}
+}
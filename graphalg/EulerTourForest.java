@@ -0,0 +1,421 @@
+/* EulerTourForest.java */
+
+package graphalg;
+
+/**
+ * An EulerTourForest is a forest whose trees are kept as Euler tours, each
+ * tour stored in a splay tree ordered by position, supporting link, cut,
+ * connectivity, and tree size queries in O(log n) amortized time. A tour
+ * holds one node for each vertex of its tree and two arc nodes for each
+ * edge, one per direction; rerooting a tree rotates its tour.
+ *
+ * Every node has a set of flag bits and a long key, and the splay trees
+ * keep the union of the bits and the minimum of the keys of each subtree,
+ * so a node with a given bit, or a node of smallest key, can be found in
+ * any tree in O(log n) amortized time. Every node also has an int owner,
+ * chosen by the caller when the node is created.
+ *
+ * Nodes are stored in parallel arrays, as in LinkCutTree. NIL (-1) stands
+ * for a missing child or parent.
+ */
+
+class EulerTourForest {
+	final static int NIL = -1;
+	final static long NO_KEY = Long.MAX_VALUE;
+
+	private int[] left;
+	private int[] right;
+	private int[] parent;
+	private boolean[] isVertex;
+	private int[] vertices;
+	private int[] owner;
+	private int[] bits;
+	private int[] anyBits;
+	private long[] key;
+	private long[] minKey;
+	private int used;
+
+	/**
+	 * freeArcs holds the first nodes of arc pairs released by cut().
+	 */
+	private int[] freeArcs;
+	private int freeArcCount;
+
+	/**
+	 * EulerTourForest() constructs an empty forest with room for "capacity"
+	 * nodes before it first grows.
+	 */
+	EulerTourForest(int capacity) {
+		left = new int[0];
+		right = new int[0];
+		parent = new int[0];
+		isVertex = new boolean[0];
+		vertices = new int[0];
+		owner = new int[0];
+		bits = new int[0];
+		anyBits = new int[0];
+		key = new long[0];
+		minKey = new long[0];
+		freeArcs = new int[0];
+		ensureCapacity(Math.max(capacity, 2));
+	}
+
+	/**
+	 * newVertex() creates a vertex node, alone in a tree of its own, with no
+	 * bits and key NO_KEY.
+	 *
+	 * Running time: O(1) amortized.
+	 */
+	int newVertex(int vertexOwner) {
+		ensureCapacity(used + 1);
+		int x = used;
+		used++;
+		reset(x, true, vertexOwner);
+		return x;
+	}
+
+	/**
+	 * newArcs() creates the two arc nodes of an edge, x and x + 1, and
+	 * returns x. They belong to no tree until they are passed to link().
+	 *
+	 * Running time: O(1) amortized.
+	 */
+	int newArcs(int arcOwner) {
+		int x;
+		if (freeArcCount > 0) {
+			freeArcCount--;
+			x = freeArcs[freeArcCount];
+		} else {
+			ensureCapacity(used + 2);
+			x = used;
+			used += 2;
+		}
+		reset(x, false, arcOwner);
+		reset(x + 1, false, arcOwner);
+		return x;
+	}
+
+	/**
+	 * owner() returns the owner given to node x when it was created.
+	 */
+	int owner(int x) {
+		return owner[x];
+	}
+
+	/**
+	 * bits() returns the flag bits of node x.
+	 */
+	int bits(int x) {
+		return bits[x];
+	}
+
+	/**
+	 * setBits() replaces the flag bits of node x.
+	 *
+	 * Running time: O(log n) amortized.
+	 */
+	void setBits(int x, int newBits) {
+		splay(x);
+		bits[x] = newBits;
+		update(x);
+	}
+
+	/**
+	 * key() returns the key of node x.
+	 */
+	long key(int x) {
+		return key[x];
+	}
+
+	/**
+	 * setKey() replaces the key of node x.
+	 *
+	 * Running time: O(log n) amortized.
+	 */
+	void setKey(int x, long newKey) {
+		splay(x);
+		key[x] = newKey;
+		update(x);
+	}
+
+	/**
+	 * connected() returns true if x and y are in the same tree.
+	 *
+	 * Running time: O(log n) amortized.
+	 */
+	boolean connected(int x, int y) {
+		if (x == y) {
+			return true;
+		}
+		splay(x);
+		splay(y);
+		// splaying y moves x away from the root only if they share a tree
+		return parent[x] != NIL;
+	}
+
+	/**
+	 * size() returns the number of vertex nodes in x's tree.
+	 *
+	 * Running time: O(log n) amortized.
+	 */
+	int size(int x) {
+		splay(x);
+		return vertices[x];
+	}
+
+	/**
+	 * link() joins the trees of the vertex nodes x and y, which must be in
+	 * different trees, by an edge whose arc nodes "arcs" and arcs + 1 come
+	 * from newArcs().
+	 *
+	 * Running time: O(log n) amortized.
+	 */
+	void link(int x, int y, int arcs) {
+		int tour = join(reroot(x), arcs);
+		tour = join(tour, reroot(y));
+		join(tour, arcs + 1);
+	}
+
+	/**
+	 * cut() removes the edge whose arc nodes are "arcs" and arcs + 1 from
+	 * its tree, which splits in two, and frees the arc nodes for reuse.
+	 *
+	 * Running time: O(log n) amortized.
+	 */
+	void cut(int arcs) {
+		int back = arcs + 1;
+		splay(arcs);
+		int before = detachLeft(arcs);
+		splay(back);
+		int after;
+		if (parent[arcs] != NIL) {
+			// the tour reads before, arcs, inside, back, after
+			after = detachRight(back);
+			detachLeft(back);
+			splay(arcs);
+			detachRight(arcs);
+		} else {
+			// the tour reads before, back, inside, arcs, after
+			before = detachLeft(back);
+			detachRight(back);
+			after = detachRight(arcs);
+		}
+		join(before, after);
+		if (freeArcCount == freeArcs.length) {
+			freeArcs = java.util.Arrays.copyOf(freeArcs, 2 * freeArcCount + 2);
+		}
+		freeArcs[freeArcCount] = arcs;
+		freeArcCount++;
+	}
+
+	/**
+	 * find() returns a node of x's tree with any of the given bits, or NIL if
+	 * there is none.
+	 *
+	 * Running time: O(log n) amortized.
+	 */
+	int find(int x, int mask) {
+		splay(x);
+		if ((anyBits[x] & mask) == 0) {
+			return NIL;
+		}
+		while ((bits[x] & mask) == 0) {
+			if (left[x] != NIL && (anyBits[left[x]] & mask) != 0) {
+				x = left[x];
+			} else {
+				x = right[x];
+			}
+		}
+		splay(x);
+		return x;
+	}
+
+	/**
+	 * findMin() returns a node of smallest key in x's tree, or NIL if every
+	 * key in the tree is NO_KEY.
+	 *
+	 * Running time: O(log n) amortized.
+	 */
+	int findMin(int x) {
+		splay(x);
+		long smallest = minKey[x];
+		if (smallest == NO_KEY) {
+			return NIL;
+		}
+		while (key[x] != smallest) {
+			if (left[x] != NIL && minKey[left[x]] == smallest) {
+				x = left[x];
+			} else {
+				x = right[x];
+			}
+		}
+		splay(x);
+		return x;
+	}
+
+	/**
+	 * ensureCapacity() makes room for at least "capacity" nodes.
+	 */
+	private void ensureCapacity(int capacity) {
+		int old = left.length;
+		if (capacity <= old) {
+			return;
+		}
+		capacity = Math.max(capacity, 2 * old);
+		left = java.util.Arrays.copyOf(left, capacity);
+		right = java.util.Arrays.copyOf(right, capacity);
+		parent = java.util.Arrays.copyOf(parent, capacity);
+		isVertex = java.util.Arrays.copyOf(isVertex, capacity);
+		vertices = java.util.Arrays.copyOf(vertices, capacity);
+		owner = java.util.Arrays.copyOf(owner, capacity);
+		bits = java.util.Arrays.copyOf(bits, capacity);
+		anyBits = java.util.Arrays.copyOf(anyBits, capacity);
+		key = java.util.Arrays.copyOf(key, capacity);
+		minKey = java.util.Arrays.copyOf(minKey, capacity);
+	}
+
+	/**
+	 * reset() makes x a single node with no bits and key NO_KEY.
+	 */
+	private void reset(int x, boolean vertex, int nodeOwner) {
+		left[x] = NIL;
+		right[x] = NIL;
+		parent[x] = NIL;
+		isVertex[x] = vertex;
+		owner[x] = nodeOwner;
+		bits[x] = 0;
+		key[x] = NO_KEY;
+		update(x);
+	}
+
+	/**
+	 * reroot() rotates the tour of vertex node x's tree so that it starts at
+	 * x, and returns the root of the tour's splay tree.
+	 */
+	private int reroot(int x) {
+		splay(x);
+		return join(x, detachLeft(x));
+	}
+
+	/**
+	 * join() concatenates the tours whose splay roots are a and b, either of
+	 * which may be NIL, and returns the root of the result.
+	 */
+	private int join(int a, int b) {
+		if (a == NIL) {
+			return b;
+		}
+		if (b == NIL) {
+			return a;
+		}
+		while (right[a] != NIL) {
+			a = right[a];
+		}
+		splay(a);
+		right[a] = b;
+		parent[b] = a;
+		update(a);
+		return a;
+	}
+
+	/**
+	 * detachLeft() separates the left subtree of the splay root x from x,
+	 * and returns that subtree's root, or NIL.
+	 */
+	private int detachLeft(int x) {
+		int child = left[x];
+		if (child != NIL) {
+			left[x] = NIL;
+			parent[child] = NIL;
+			update(x);
+		}
+		return child;
+	}
+
+	/**
+	 * detachRight() separates the right subtree of the splay root x from x,
+	 * and returns that subtree's root, or NIL.
+	 */
+	private int detachRight(int x) {
+		int child = right[x];
+		if (child != NIL) {
+			right[x] = NIL;
+			parent[child] = NIL;
+			update(x);
+		}
+		return child;
+	}
+
+	/**
+	 * splay() rotates x to the root of its splay tree.
+	 */
+	private void splay(int x) {
+		while (parent[x] != NIL) {
+			int p = parent[x];
+			int g = parent[p];
+			if (g != NIL) {
+				if ((left[g] == p) == (left[p] == x)) {
+					rotate(p);
+				} else {
+					rotate(x);
+				}
+			}
+			rotate(x);
+		}
+	}
+
+	/**
+	 * rotate() moves x above its parent.
+	 */
+	private void rotate(int x) {
+		int p = parent[x];
+		int g = parent[p];
+		if (g != NIL) {
+			if (left[g] == p) {
+				left[g] = x;
+			} else {
+				right[g] = x;
+			}
+		}
+		parent[x] = g;
+		if (left[p] == x) {
+			left[p] = right[x];
+			if (right[x] != NIL) {
+				parent[right[x]] = p;
+			}
+			right[x] = p;
+		} else {
+			right[p] = left[x];
+			if (left[x] != NIL) {
+				parent[left[x]] = p;
+			}
+			left[x] = p;
+		}
+		parent[p] = x;
+		update(p);
+		update(x);
+	}
+
+	/**
+	 * update() recomputes the vertex count, the bit union, and the smallest
+	 * key of x's splay subtree from its children.
+	 */
+	private void update(int x) {
+		int count = isVertex[x] ? 1 : 0;
+		int union = bits[x];
+		long smallest = key[x];
+		if (left[x] != NIL) {
+			count += vertices[left[x]];
+			union |= anyBits[left[x]];
+			smallest = Math.min(smallest, minKey[left[x]]);
+		}
+		if (right[x] != NIL) {
+			count += vertices[right[x]];
+			union |= anyBits[right[x]];
+			smallest = Math.min(smallest, minKey[right[x]]);
+		}
+		vertices[x] = count;
+		anyBits[x] = union;
+		minKey[x] = smallest;
+	}
+}
@@ -0,0 +1,144 @@
+/* IndexedHeap.java */
+
+package graphalg;
+
+/**
+ * An IndexedHeap is a d-ary min-heap of int items numbered 0...capacity - 1,
+ * each with an int key. Because the heap knows where every item is stored,
+ * an item's key can be lowered in O(log_d n) time. A larger arity makes the
+ * heap shallower, which speeds up decreaseKey() (the common operation in
+ * Prim's algorithm) at some cost to removeMin().
+ */
+
+class IndexedHeap {
+	private int arity;
+	private int[] heap;
+	private int[] position;
+	private int[] keys;
+	private int size;
+
+	/**
+	 * IndexedHeap() constructs an empty heap for items 0...capacity - 1.
+	 *
+	 * @param capacity
+	 *            the number of distinct items.
+	 * @param arity
+	 *            the number of children of each heap node; at least 2.
+	 */
+	IndexedHeap(int capacity, int arity) {
+		this.arity = arity;
+		heap = new int[capacity];
+		position = new int[capacity];
+		keys = new int[capacity];
+		for (int i = 0; i < capacity; i++) {
+			position[i] = -1;
+		}
+	}
+
+	/**
+	 * isEmpty() returns true if the heap holds no items.
+	 */
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * contains() returns true if item is in the heap.
+	 */
+	boolean contains(int item) {
+		return position[item] >= 0;
+	}
+
+	/**
+	 * key() returns the key of an item in the heap.
+	 */
+	int key(int item) {
+		return keys[item];
+	}
+
+	/**
+	 * insert() adds an item that is not in the heap, with the given key.
+	 */
+	void insert(int item, int key) {
+		keys[item] = key;
+		heap[size] = item;
+		position[item] = size;
+		size++;
+		siftUp(size - 1);
+	}
+
+	/**
+	 * decreaseKey() lowers the key of an item in the heap. The new key must
+	 * not be larger than the old one.
+	 */
+	void decreaseKey(int item, int key) {
+		keys[item] = key;
+		siftUp(position[item]);
+	}
+
+	/**
+	 * removeMin() removes and returns an item with the smallest key. The
+	 * heap must not be empty.
+	 */
+	int removeMin() {
+		int min = heap[0];
+		position[min] = -1;
+		size--;
+		if (size > 0) {
+			heap[0] = heap[size];
+			position[heap[0]] = 0;
+			siftDown(0);
+		}
+		return min;
+	}
+
+	/**
+	 * siftUp() moves the item at index i toward the root until its parent's
+	 * key is no larger.
+	 */
+	private void siftUp(int i) {
+		int item = heap[i];
+		int key = keys[item];
+		while (i > 0) {
+			int parent = (i - 1) / arity;
+			if (keys[heap[parent]] <= key) {
+				break;
+			}
+			heap[i] = heap[parent];
+			position[heap[i]] = i;
+			i = parent;
+		}
+		heap[i] = item;
+		position[item] = i;
+	}
+
+	/**
+	 * siftDown() moves the item at index i away from the root until no child
+	 * has a smaller key.
+	 */
+	private void siftDown(int i) {
+		int item = heap[i];
+		int key = keys[item];
+		while (true) {
+			int first = arity * i + 1;
+			if (first >= size) {
+				break;
+			}
+			int best = first;
+			int last = Math.min(first + arity, size);
+			for (int child = first + 1; child < last; child++) {
+				if (keys[heap[child]] < keys[heap[best]]) {
+					best = child;
+				}
+			}
+			if (keys[heap[best]] >= key) {
+				break;
+			}
+			heap[i] = heap[best];
+			position[heap[i]] = i;
+			i = best;
+		}
+		heap[i] = item;
+		position[item] = i;
+	}
+}
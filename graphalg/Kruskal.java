@@ -4,8 +4,6 @@ package graphalg;
 
 import graph.*;
 import set.*;
-import dict.*;
-import list.*;
 
 /**
  * The Kruskal class contains the method minSpanTree(), which implements
@@ -33,63 +31,239 @@ public class Kruskal {
 			t.addVertex(vertices[i]);
 		}
 
-		// don't know size needed so use LinkedQueue
-		LinkedQueue list = new LinkedQueue();
+		// Store all edges from g into parallel arrays, visiting each
+		// undirected edge once and naming vertices by their ids in g.
+		// Self-edges are dropped, since they never belong to a spanning tree.
+		EdgeCollector edges = new EdgeCollector(g.edgeCount());
+		g.forEachEdgeById(edges);
 
-		// Store all edges from g into a LinkedQueue using getNeighbors()
-		for (int i = 0; i < size; i++) {
-			Neighbors vert = g.getNeighbors(vertices[i]);
-			if(vert != null) {
-				if(vert.neighborList.length != vert.weightList.length) {
-					return null;
+		// Pick the tree edges in order of weight, sorting only as much of
+		// the edge list as needed.
+		SpanningForest forest = new SpanningForest(g.vertexIdBound(), size,
+				edges.us, edges.vs, edges.weights);
+		forest.build(0, edges.count);
+		for (int i = 0; i < forest.treeEdges; i++) {
+			t.addEdge(g.vertexOf(forest.treeUs[i]),
+					g.vertexOf(forest.treeVs[i]), forest.treeWeights[i]);
+		}
+		return t;
+	}
+
+	/**
+	 * An EdgeCollector stores the non-self edges it visits in parallel arrays.
+	 */
+	static class EdgeCollector implements IdEdgeVisitor {
+		int[] us;
+		int[] vs;
+		int[] weights;
+		int count;
+
+		/**
+		 * EdgeCollector() constructs a collector with room for "capacity"
+		 * edges.
+		 */
+		EdgeCollector(int capacity) {
+			us = new int[capacity];
+			vs = new int[capacity];
+			weights = new int[capacity];
+		}
+
+		/**
+		 * visit() appends the edge (u, v) unless it is a self-edge.
+		 */
+		public void visit(int u, int v, int weight) {
+			if (u != v) {
+				us[count] = u;
+				vs[count] = v;
+				weights[count] = weight;
+				count++;
+			}
+		}
+	}
+
+	/**
+	 * A SpanningForest picks the edges of a minimum spanning forest out of
+	 * parallel arrays of candidate edges using Filter-Kruskal: large ranges of
+	 * edges are partitioned around a pivot weight instead of being sorted, the
+	 * lighter part is processed first, and the heavier part is then filtered
+	 * to drop edges whose endpoints are already connected. Only ranges of at
+	 * most SORT_THRESHOLD edges are ever sorted. Processing stops as soon as
+	 * the forest spans every vertex, so the heavy tail of a connected graph
+	 * is usually neither sorted nor scanned.
+	 *
+	 * The candidate arrays are permuted in place.
+	 */
+	private static class SpanningForest {
+		private final static int SORT_THRESHOLD = 4096;
+
+		private int[] us;
+		private int[] vs;
+		private int[] weights;
+		private DisjointSets cycleCheck;
+
+		private int[] treeUs;
+		private int[] treeVs;
+		private int[] treeWeights;
+		private int treeEdges;
+
+		/**
+		 * SpanningForest() prepares to pick tree edges among the candidate
+		 * edges (us[i], vs[i]) of weight weights[i], whose endpoints are
+		 * "vertexCount" distinct ids below "idBound".
+		 */
+		SpanningForest(int idBound, int vertexCount, int[] us, int[] vs,
+				int[] weights) {
+			this.us = us;
+			this.vs = vs;
+			this.weights = weights;
+			cycleCheck = new DisjointSets(idBound);
+			int maxTreeEdges = Math.max(vertexCount - 1, 0);
+			treeUs = new int[maxTreeEdges];
+			treeVs = new int[maxTreeEdges];
+			treeWeights = new int[maxTreeEdges];
+		}
+
+		/**
+		 * isComplete() returns true once the forest is a spanning tree, so no
+		 * further edge can join it.
+		 */
+		boolean isComplete() {
+			return treeEdges == treeUs.length;
+		}
+
+		/**
+		 * build() adds to the forest, in order of weight, every candidate in
+		 * the range [from, to) that joins two different sets. Every candidate
+		 * in the range must be at least as heavy as every tree edge so far.
+		 */
+		void build(int from, int to) {
+			while (to - from > SORT_THRESHOLD && !isComplete()) {
+				int pivot = medianOfThree(weights[from],
+						weights[(from + to) >>> 1], weights[to - 1]);
+
+				// Three-way partition: [from, less) is lighter than the pivot,
+				// [less, greater) equal to it, and [greater, to) heavier.
+				int less = from;
+				int greater = to;
+				for (int i = from; i < greater;) {
+					if (weights[i] < pivot) {
+						swap(i++, less++);
+					} else if (weights[i] > pivot) {
+						swap(i, --greater);
+					} else {
+						i++;
+					}
 				}
+
+				build(from, less);
+				scan(less, filter(less, greater));
+				from = greater;
+				to = filter(greater, to);
 			}
-			for (int k = 0; k < vert.neighborList.length; k++) {
-				KruskalHelper temp = new KruskalHelper(vertices[i],
-						vert.neighborList[k], vert.weightList[k]);
-				list.enqueue(temp);
+			if (!isComplete()) {
+				ListSorts.sortByWeight(weights, us, vs, from, to);
+				scan(from, to);
 			}
 		}
 
-		// Sort the list using quicksort to achieve O(|E|log(|E|))
-		ListSorts.mergeSort(list);
+		/**
+		 * scan() considers the candidates in [from, to) in order, adding each
+		 * one that joins two different sets.
+		 */
+		private void scan(int from, int to) {
+			for (int i = from; i < to && !isComplete(); i++) {
+				if (cycleCheck.unionIfDisjoint(us[i], vs[i])) {
+					treeUs[treeEdges] = us[i];
+					treeVs[treeEdges] = vs[i];
+					treeWeights[treeEdges] = weights[i];
+					treeEdges++;
+				}
+			}
+		}
 
+		/**
+		 * filter() moves the candidates in [from, to) whose endpoints are in
+		 * different sets to the front of the range, keeping their order, and
+		 * returns the end of the moved candidates.
+		 */
+		private int filter(int from, int to) {
+			if (isComplete()) {
+				return from;
+			}
+			int kept = from;
+			for (int i = from; i < to; i++) {
+				if (cycleCheck.find(us[i]) != cycleCheck.find(vs[i])) {
+					us[kept] = us[i];
+					vs[kept] = vs[i];
+					weights[kept] = weights[i];
+					kept++;
+				}
+			}
+			return kept;
+		}
 
-		// Use HashTableChained to map objects that serve as Vertices to unique
-		// integers
-		//
-		HashTableChained encodedVertices = new HashTableChained();
-		for (int i = 0; i < size; i++) {
-			encodedVertices.insert(vertices[i], i);
+		/**
+		 * swap() exchanges candidates i and j.
+		 */
+		private void swap(int i, int j) {
+			int temp = us[i];
+			us[i] = us[j];
+			us[j] = temp;
+			temp = vs[i];
+			vs[i] = vs[j];
+			vs[j] = temp;
+			temp = weights[i];
+			weights[i] = weights[j];
+			weights[j] = temp;
 		}
 
-		// Use DisjointSets to make sure no cycle
-		DisjointSets cycleCheck = new DisjointSets(size);
-
-		try {
-			while (!list.isEmpty()) {
-				KruskalHelper temp = (KruskalHelper) list.dequeue();
-				int vertex1 = (Integer) encodedVertices.find(temp.getVertex1())
-						.value();
-				int vertex2 = (Integer) encodedVertices.find(temp.getVertex2())
-						.value();
-
-				int vertex1Root = (int) cycleCheck.find(vertex1);
-				int vertex2Root = (int) cycleCheck.find(vertex2);
-				if (vertex1Root != vertex2Root) {
-					cycleCheck.union(vertex1, vertex2);
-					t.addEdge(vertex1, vertex2, temp.getWeight());
+		/**
+		 * medianOfThree() returns the median of three ints.
+		 */
+		private static int medianOfThree(int a, int b, int c) {
+			return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+		}
+	}
+
+	/**
+	 * minSpanTree() returns a CsrGraph that represents a minimum spanning
+	 * forest of the IndexedGraph g (such as a CsrGraph or a MappedGraph), with
+	 * the same vertex ids. The edges are read by position into primitive
+	 * arrays, so no per-edge objects are created.
+	 *
+	 * @param g
+	 *            The weighted, undirected graph whose MST we want to compute.
+	 * @return A newly constructed CsrGraph representing the MST of g.
+	 */
+	public static CsrGraph minSpanTree(IndexedGraph g) {
+		int size = g.vertexCount();
+		int[] us = new int[g.edgeCount()];
+		int[] vs = new int[g.edgeCount()];
+		int[] weights = new int[g.edgeCount()];
+		int count = 0;
+
+		// Take each edge from the row of its smaller endpoint; self-edges
+		// never belong to a spanning tree.
+		for (int u = 0; u < size; u++) {
+			for (int i = g.firstEdge(u); i < g.endEdge(u); i++) {
+				if (g.target(i) > u) {
+					us[count] = u;
+					vs[count] = g.target(i);
+					weights[count] = g.weight(i);
+					count++;
 				}
 			}
+		}
+		SpanningForest forest = new SpanningForest(size, size, us, vs,
+				weights);
+		forest.build(0, count);
 
-		} catch (QueueEmptyException e) {
-			System.out.println("Wrong queue. minSpanTree");
-		} catch (InvalidKeyException e) {
-			e.printStackTrace();
-		} catch (InvalidNodeException e) {
-			e.printStackTrace();
+		Object[] vertices = new Object[size];
+		for (int u = 0; u < size; u++) {
+			vertices[u] = g.vertex(u);
 		}
-		return t;
+		return CsrGraph.fromEdges(vertices, forest.treeUs, forest.treeVs,
+				forest.treeWeights, forest.treeEdges);
 	}
 
 }
@@ -56,8 +56,9 @@ public class KruskalHelper implements Comparable{
 
 	@Override
 	public int compareTo(Object i) {
-		// TODO Auto-generated method stub
-		return weight - ((KruskalHelper)i).getWeight();
+		// compare rather than subtract, which overflows for distant weights
+		int other = ((KruskalHelper)i).getWeight();
+		return weight < other ? -1 : (weight == other ? 0 : 1);
 	}
 
 }
\ No newline at end of file
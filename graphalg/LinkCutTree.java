@@ -0,0 +1,304 @@
+/* LinkCutTree.java */
+
+package graphalg;
+
+/**
+ * A LinkCutTree is a forest of rooted trees on int nodes numbered
+ * 0...capacity - 1, each with a long value, supporting link, cut,
+ * connectivity, and path-maximum queries in O(log n) amortized time. It is
+ * the Sleator-Tarjan structure: each tree is split into preferred paths,
+ * each path kept in a splay tree ordered by depth, and any node can be made
+ * the root of its tree by reversing a path.
+ *
+ * Nodes are stored in parallel int arrays, so no objects are created per
+ * node. NIL (-1) stands for a missing child or parent.
+ */
+
+class LinkCutTree {
+	private final static int NIL = -1;
+
+	private int[] left;
+	private int[] right;
+	private int[] parent;
+	private boolean[] flipped;
+	private long[] value;
+	private int[] maxNode;
+	private int[] size;
+
+	/**
+	 * stack holds the path from a splay tree's root down to the node being
+	 * splayed, so pending reversals can be pushed down in order.
+	 */
+	private int[] stack;
+
+	/**
+	 * LinkCutTree() constructs a forest of "capacity" single-node trees, each
+	 * with value zero.
+	 */
+	LinkCutTree(int capacity) {
+		left = new int[0];
+		right = new int[0];
+		parent = new int[0];
+		flipped = new boolean[0];
+		value = new long[0];
+		maxNode = new int[0];
+		size = new int[0];
+		stack = new int[0];
+		ensureCapacity(capacity);
+	}
+
+	/**
+	 * capacity() returns the number of nodes.
+	 */
+	int capacity() {
+		return left.length;
+	}
+
+	/**
+	 * ensureCapacity() adds single-node trees, each with value zero, until
+	 * there are at least "capacity" nodes.
+	 */
+	void ensureCapacity(int capacity) {
+		int old = left.length;
+		if (capacity <= old) {
+			return;
+		}
+		capacity = Math.max(capacity, 2 * old);
+		left = java.util.Arrays.copyOf(left, capacity);
+		right = java.util.Arrays.copyOf(right, capacity);
+		parent = java.util.Arrays.copyOf(parent, capacity);
+		flipped = java.util.Arrays.copyOf(flipped, capacity);
+		value = java.util.Arrays.copyOf(value, capacity);
+		maxNode = java.util.Arrays.copyOf(maxNode, capacity);
+		size = java.util.Arrays.copyOf(size, capacity);
+		stack = new int[capacity];
+		for (int x = old; x < capacity; x++) {
+			reset(x, 0);
+		}
+	}
+
+	/**
+	 * reset() makes x a single-node tree with the given value. x must not be
+	 * linked to any other node.
+	 */
+	void reset(int x, long newValue) {
+		left[x] = NIL;
+		right[x] = NIL;
+		parent[x] = NIL;
+		flipped[x] = false;
+		value[x] = newValue;
+		maxNode[x] = x;
+		size[x] = 1;
+	}
+
+	/**
+	 * value() returns the value of node x.
+	 */
+	long value(int x) {
+		return value[x];
+	}
+
+	/**
+	 * setValue() changes the value of node x.
+	 *
+	 * Running time: O(log n) amortized.
+	 */
+	void setValue(int x, long newValue) {
+		access(x);
+		value[x] = newValue;
+		update(x);
+	}
+
+	/**
+	 * connected() returns true if x and y are in the same tree.
+	 *
+	 * Running time: O(log n) amortized.
+	 */
+	boolean connected(int x, int y) {
+		return x == y || findRoot(x) == findRoot(y);
+	}
+
+	/**
+	 * link() joins the trees of x and y by making x a child of y. x and y
+	 * must be in different trees.
+	 *
+	 * Running time: O(log n) amortized.
+	 */
+	void link(int x, int y) {
+		makeRoot(x);
+		parent[x] = y;
+	}
+
+	/**
+	 * cut() removes the tree edge between x and y, which must be adjacent.
+	 *
+	 * Running time: O(log n) amortized.
+	 */
+	void cut(int x, int y) {
+		makeRoot(x);
+		access(y);
+		// the path is now x, y: x is y's left child and has no children
+		left[y] = NIL;
+		parent[x] = NIL;
+		update(y);
+	}
+
+	/**
+	 * pathMax() returns a node of largest value on the tree path between x
+	 * and y, which must be in the same tree.
+	 *
+	 * Running time: O(log n) amortized.
+	 */
+	int pathMax(int x, int y) {
+		makeRoot(x);
+		access(y);
+		return maxNode[y];
+	}
+
+	/**
+	 * findRoot() returns the root of x's tree.
+	 */
+	private int findRoot(int x) {
+		access(x);
+		push(x);
+		while (left[x] != NIL) {
+			x = left[x];
+			push(x);
+		}
+		splay(x);
+		return x;
+	}
+
+	/**
+	 * makeRoot() makes x the root of its tree by reversing the path from
+	 * the old root to x.
+	 */
+	private void makeRoot(int x) {
+		access(x);
+		flipped[x] = !flipped[x];
+	}
+
+	/**
+	 * access() makes the path from x's tree root to x preferred, and leaves x
+	 * at the root of that path's splay tree with no right child.
+	 */
+	private void access(int x) {
+		int last = NIL;
+		for (int y = x; y != NIL; y = parent[y]) {
+			splay(y);
+			right[y] = last;
+			update(y);
+			last = y;
+		}
+		splay(x);
+	}
+
+	/**
+	 * isSplayRoot() returns true if x is the root of its splay tree; its
+	 * parent, if any, is then only a path-parent pointer.
+	 */
+	private boolean isSplayRoot(int x) {
+		int p = parent[x];
+		return p == NIL || (left[p] != x && right[p] != x);
+	}
+
+	/**
+	 * splay() rotates x to the root of its splay tree.
+	 */
+	private void splay(int x) {
+		int depth = 0;
+		stack[depth++] = x;
+		for (int y = x; !isSplayRoot(y); y = parent[y]) {
+			stack[depth++] = parent[y];
+		}
+		while (depth > 0) {
+			push(stack[--depth]);
+		}
+		while (!isSplayRoot(x)) {
+			int p = parent[x];
+			if (!isSplayRoot(p)) {
+				int g = parent[p];
+				if ((left[g] == p) == (left[p] == x)) {
+					rotate(p);
+				} else {
+					rotate(x);
+				}
+			}
+			rotate(x);
+		}
+	}
+
+	/**
+	 * rotate() moves x above its parent within their splay tree.
+	 */
+	private void rotate(int x) {
+		int p = parent[x];
+		int g = parent[p];
+		if (!isSplayRoot(p)) {
+			if (left[g] == p) {
+				left[g] = x;
+			} else {
+				right[g] = x;
+			}
+		}
+		parent[x] = g;
+		if (left[p] == x) {
+			left[p] = right[x];
+			if (right[x] != NIL) {
+				parent[right[x]] = p;
+			}
+			right[x] = p;
+		} else {
+			right[p] = left[x];
+			if (left[x] != NIL) {
+				parent[left[x]] = p;
+			}
+			left[x] = p;
+		}
+		parent[p] = x;
+		update(p);
+		update(x);
+	}
+
+	/**
+	 * push() carries out a pending reversal of x's subtree by swapping x's
+	 * children and passing the reversal on to them.
+	 */
+	private void push(int x) {
+		if (flipped[x]) {
+			int temp = left[x];
+			left[x] = right[x];
+			right[x] = temp;
+			if (left[x] != NIL) {
+				flipped[left[x]] = !flipped[left[x]];
+			}
+			if (right[x] != NIL) {
+				flipped[right[x]] = !flipped[right[x]];
+			}
+			flipped[x] = false;
+		}
+	}
+
+	/**
+	 * update() recomputes the size and the maximum of x's splay subtree from
+	 * its children.
+	 */
+	private void update(int x) {
+		int best = x;
+		int count = 1;
+		if (left[x] != NIL) {
+			if (value[maxNode[left[x]]] > value[best]) {
+				best = maxNode[left[x]];
+			}
+			count += size[left[x]];
+		}
+		if (right[x] != NIL) {
+			if (value[maxNode[right[x]]] > value[best]) {
+				best = maxNode[right[x]];
+			}
+			count += size[right[x]];
+		}
+		maxNode[x] = best;
+		size[x] = count;
+	}
+}
@@ -1,12 +1,26 @@
 /* ListSorts.java */
 package graphalg;
 
+import java.util.Comparator;
 import list.*;
 
 public class ListSorts {
 
 	private final static int SORTSIZE = 1000;
 
+	/**
+	 * RADIX_BITS is the number of bits sortByWeight() handles per pass, and
+	 * RADIX the number of distinct digits per pass.
+	 **/
+	private final static int RADIX_BITS = 8;
+	private final static int RADIX = 1 << RADIX_BITS;
+
+	/**
+	 * MIN_RUN is the shortest run the array merge sorts merge; shorter
+	 * natural runs are extended to this length by insertion sort.
+	 **/
+	private final static int MIN_RUN = 32;
+
 	/**
 	 * makeQueueOfQueues() makes a queue of queues, each containing one item of
 	 * q. Upon completion of this method, q is empty.
@@ -49,12 +63,11 @@ public class ListSorts {
 		// Replace the following line with your solution.
 		LinkedQueue q3 = new LinkedQueue();
 		try {
-			while (!q1.isEmpty() || !q2.isEmpty()) {
-				Comparable itemq1 = (Comparable) q1.front();
-				Comparable itemq2 = (Comparable) q2.front();
-				int comparison = ((KruskalHelper) q1.front()).getWeight()
-						- ((KruskalHelper) q2.front()).getWeight();
-				if (comparison > 0) {
+			while (!q1.isEmpty() && !q2.isEmpty()) {
+				@SuppressWarnings("unchecked")
+				Comparable<Object> itemq1 = (Comparable<Object>) q1.front();
+				Object itemq2 = q2.front();
+				if (itemq1.compareTo(itemq2) > 0) {
 					q3.enqueue(itemq2);
 					q2.dequeue();
 				} else {
@@ -96,6 +109,479 @@ public class ListSorts {
 		}
 	}
 
+	/**
+	 * mergeSort() sorts the array "a" from smallest to largest in the order
+	 * given by "order", or in the natural order of its elements if "order" is
+	 * null. See mergeSort(a, from, to, order, scratch).
+	 *
+	 * @param a
+	 *            the array to sort.
+	 * @param order
+	 *            the order to sort in, or null for the natural order.
+	 **/
+	public static <T> void mergeSort(T[] a, Comparator<? super T> order) {
+		mergeSort(a, 0, a.length, order, null);
+	}
+
+	/**
+	 * mergeSort() sorts entries from through to - 1 of the array "a" from
+	 * smallest to largest in the order given by "order", or in the natural
+	 * order of the elements (which must then be Comparable) if "order" is
+	 * null. The sort is stable.
+	 *
+	 * It is a bottom-up merge sort on arrays. The entries are first divided
+	 * into the runs already in order (a strictly descending run is reversed
+	 * in place), and runs shorter than MIN_RUN are extended by insertion
+	 * sort. Then neighboring runs are merged in passes, back and forth
+	 * between "a" and the scratch buffer, until one run is left; two runs
+	 * already in order are copied without comparisons. Sorted input thus
+	 * takes one pass of comparisons, and no objects are created except the
+	 * run boundaries.
+	 *
+	 * The scratch buffer is used if it holds at least to - from entries, and
+	 * replaced by a new one otherwise. The buffer used is returned, so a
+	 * caller that sorts many arrays can pass it to the next call.
+	 *
+	 * Running time: O(n log r), where n = to - from and r is the number of
+	 * runs, so O(n log n) at worst and O(n) on sorted input.
+	 *
+	 * @param a
+	 *            the array to sort.
+	 * @param from
+	 *            the first entry to sort.
+	 * @param to
+	 *            one past the last entry to sort.
+	 * @param order
+	 *            the order to sort in, or null for the natural order.
+	 * @param scratch
+	 *            a buffer to sort with, or null.
+	 * @return the scratch buffer used.
+	 **/
+	public static <T> Object[] mergeSort(T[] a, int from, int to,
+			Comparator<? super T> order, Object[] scratch) {
+		int count = to - from;
+		if (scratch == null || scratch.length < count) {
+			scratch = new Object[count];
+		}
+		if (count < 2) {
+			return scratch;
+		}
+		Comparator<Object> compare = comparator(order);
+
+		// runs[r] through runs[r + 1] - 1 is run r, counted from "from".
+		int[] runs = new int[count / MIN_RUN + 2];
+		int runCount = 0;
+		for (int start = from; start < to;) {
+			int end = runEnd(a, start, to, compare);
+			if (end - start < MIN_RUN && end < to) {
+				int limit = Math.min(to, start + MIN_RUN);
+				insertionSort(a, start, end, limit, compare);
+				end = limit;
+			}
+			runs[++runCount] = end - from;
+			start = end;
+		}
+
+		Object[] src = a;
+		Object[] dst = scratch;
+		int srcBase = from;
+		int dstBase = 0;
+		while (runCount > 1) {
+			int merged = 0;
+			for (int r = 0; r < runCount; r += 2) {
+				int low = runs[r];
+				int middle = runs[r + 1];
+				int high = r + 2 <= runCount ? runs[r + 2] : middle;
+				merge(src, srcBase, dst, dstBase, low, middle, high, compare);
+				runs[++merged] = high;
+			}
+			runCount = merged;
+			Object[] temp = src;
+			src = dst;
+			dst = temp;
+			int base = srcBase;
+			srcBase = dstBase;
+			dstBase = base;
+		}
+		if (src != a) {
+			System.arraycopy(src, srcBase, a, from, count);
+		}
+		return scratch;
+	}
+
+	/**
+	 * comparator() returns "order" as a Comparator of Objects, or the natural
+	 * order of Comparable objects if "order" is null.
+	 **/
+	@SuppressWarnings("unchecked")
+	private static Comparator<Object> comparator(Comparator<?> order) {
+		if (order == null) {
+			return new Comparator<Object>() {
+				public int compare(Object x, Object y) {
+					return ((Comparable<Object>) x).compareTo(y);
+				}
+			};
+		}
+		return (Comparator<Object>) order;
+	}
+
+	/**
+	 * runEnd() returns the end of the run that begins at "start": the
+	 * longest stretch that is in order, or that is strictly descending, which
+	 * is then reversed. Strictness keeps equal entries in their order.
+	 **/
+	private static int runEnd(Object[] a, int start, int to,
+			Comparator<Object> compare) {
+		int end = start + 1;
+		if (end == to) {
+			return end;
+		}
+		if (compare.compare(a[end], a[start]) < 0) {
+			end++;
+			while (end < to && compare.compare(a[end], a[end - 1]) < 0) {
+				end++;
+			}
+			for (int i = start, j = end - 1; i < j; i++, j--) {
+				Object temp = a[i];
+				a[i] = a[j];
+				a[j] = temp;
+			}
+		} else {
+			end++;
+			while (end < to && compare.compare(a[end], a[end - 1]) >= 0) {
+				end++;
+			}
+		}
+		return end;
+	}
+
+	/**
+	 * insertionSort() sorts entries start through end - 1 of "a", of which
+	 * entries start through sorted - 1 are already in order.
+	 **/
+	private static void insertionSort(Object[] a, int start, int sorted,
+			int end, Comparator<Object> compare) {
+		for (int i = sorted; i < end; i++) {
+			Object item = a[i];
+			int j = i;
+			while (j > start && compare.compare(a[j - 1], item) > 0) {
+				a[j] = a[j - 1];
+				j--;
+			}
+			a[j] = item;
+		}
+	}
+
+	/**
+	 * merge() merges the runs low through middle - 1 and middle through
+	 * high - 1 of src into the same positions of dst. Positions are offsets
+	 * from srcBase in src and from dstBase in dst. Of two equal entries, the
+	 * one from the first run comes first.
+	 **/
+	private static void merge(Object[] src, int srcBase, Object[] dst,
+			int dstBase, int low, int middle, int high,
+			Comparator<Object> compare) {
+		if (middle == high
+				|| compare.compare(src[srcBase + middle - 1], src[srcBase
+						+ middle]) <= 0) {
+			System.arraycopy(src, srcBase + low, dst, dstBase + low, high - low);
+			return;
+		}
+		int i = srcBase + low;
+		int iEnd = srcBase + middle;
+		int j = iEnd;
+		int jEnd = srcBase + high;
+		int k = dstBase + low;
+		while (i < iEnd && j < jEnd) {
+			if (compare.compare(src[j], src[i]) < 0) {
+				dst[k++] = src[j++];
+			} else {
+				dst[k++] = src[i++];
+			}
+		}
+		System.arraycopy(src, i, dst, k, iEnd - i);
+		System.arraycopy(src, j, dst, k + iEnd - i, jEnd - j);
+	}
+
+	/**
+	 * sortByKey() sorts entries from through to - 1 of two parallel int
+	 * arrays from smallest to largest key, carrying values[i] along with
+	 * keys[i]. It is the same stable natural merge sort as mergeSort(), on
+	 * primitive keys, so no key is boxed; use it, for instance, to sort the
+	 * indices of records by an int field.
+	 *
+	 * The scratch buffer is used if it holds at least 2 * (to - from) ints,
+	 * and replaced by a new one otherwise. The buffer used is returned.
+	 *
+	 * Running time: O(n log r), where n = to - from and r is the number of
+	 * runs.
+	 *
+	 * @param keys
+	 *            the sort keys.
+	 * @param values
+	 *            values carried along with the keys.
+	 * @param from
+	 *            the first entry to sort.
+	 * @param to
+	 *            one past the last entry to sort.
+	 * @param scratch
+	 *            a buffer to sort with, or null.
+	 * @return the scratch buffer used.
+	 **/
+	public static int[] sortByKey(int[] keys, int[] values, int from, int to,
+			int[] scratch) {
+		int count = to - from;
+		if (scratch == null || scratch.length < 2 * count) {
+			scratch = new int[2 * count];
+		}
+		if (count < 2) {
+			return scratch;
+		}
+
+		int[] runs = new int[count / MIN_RUN + 2];
+		int runCount = 0;
+		for (int start = from; start < to;) {
+			int end = runEnd(keys, values, start, to);
+			if (end - start < MIN_RUN && end < to) {
+				int limit = Math.min(to, start + MIN_RUN);
+				insertionSort(keys, values, start, end, limit);
+				end = limit;
+			}
+			runs[++runCount] = end - from;
+			start = end;
+		}
+
+		// Keys and values move between the arrays and the two halves of
+		// scratch; each has its own base offset.
+		int[] srcKeys = keys;
+		int[] srcValues = values;
+		int srcKeyBase = from;
+		int srcValueBase = from;
+		int[] dstKeys = scratch;
+		int[] dstValues = scratch;
+		int dstKeyBase = 0;
+		int dstValueBase = count;
+		while (runCount > 1) {
+			int merged = 0;
+			for (int r = 0; r < runCount; r += 2) {
+				int low = runs[r];
+				int middle = runs[r + 1];
+				int high = r + 2 <= runCount ? runs[r + 2] : middle;
+				merge(srcKeys, srcKeyBase, srcValues, srcValueBase, dstKeys,
+						dstKeyBase, dstValues, dstValueBase, low, middle, high);
+				runs[++merged] = high;
+			}
+			runCount = merged;
+			int[] temp = srcKeys;
+			srcKeys = dstKeys;
+			dstKeys = temp;
+			temp = srcValues;
+			srcValues = dstValues;
+			dstValues = temp;
+			int base = srcKeyBase;
+			srcKeyBase = dstKeyBase;
+			dstKeyBase = base;
+			base = srcValueBase;
+			srcValueBase = dstValueBase;
+			dstValueBase = base;
+		}
+		if (srcKeys != keys) {
+			System.arraycopy(srcKeys, srcKeyBase, keys, from, count);
+			System.arraycopy(srcValues, srcValueBase, values, from, count);
+		}
+		return scratch;
+	}
+
+	/**
+	 * runEnd() returns the end of the run of keys that begins at "start",
+	 * reversing it (with its values) if it is strictly descending.
+	 **/
+	private static int runEnd(int[] keys, int[] values, int start, int to) {
+		int end = start + 1;
+		if (end == to) {
+			return end;
+		}
+		if (keys[end] < keys[start]) {
+			end++;
+			while (end < to && keys[end] < keys[end - 1]) {
+				end++;
+			}
+			for (int i = start, j = end - 1; i < j; i++, j--) {
+				int temp = keys[i];
+				keys[i] = keys[j];
+				keys[j] = temp;
+				temp = values[i];
+				values[i] = values[j];
+				values[j] = temp;
+			}
+		} else {
+			end++;
+			while (end < to && keys[end] >= keys[end - 1]) {
+				end++;
+			}
+		}
+		return end;
+	}
+
+	/**
+	 * insertionSort() sorts entries start through end - 1 of keys and
+	 * values, of which entries start through sorted - 1 are already in
+	 * order.
+	 **/
+	private static void insertionSort(int[] keys, int[] values, int start,
+			int sorted, int end) {
+		for (int i = sorted; i < end; i++) {
+			int key = keys[i];
+			int value = values[i];
+			int j = i;
+			while (j > start && keys[j - 1] > key) {
+				keys[j] = keys[j - 1];
+				values[j] = values[j - 1];
+				j--;
+			}
+			keys[j] = key;
+			values[j] = value;
+		}
+	}
+
+	/**
+	 * merge() merges the runs low through middle - 1 and middle through
+	 * high - 1 of the source keys and values into the same positions of the
+	 * destination, each array with its own base offset.
+	 **/
+	private static void merge(int[] srcKeys, int srcKeyBase, int[] srcValues,
+			int srcValueBase, int[] dstKeys, int dstKeyBase, int[] dstValues,
+			int dstValueBase, int low, int middle, int high) {
+		int length = high - low;
+		if (middle == high
+				|| srcKeys[srcKeyBase + middle - 1] <= srcKeys[srcKeyBase
+						+ middle]) {
+			System.arraycopy(srcKeys, srcKeyBase + low, dstKeys, dstKeyBase
+					+ low, length);
+			System.arraycopy(srcValues, srcValueBase + low, dstValues,
+					dstValueBase + low, length);
+			return;
+		}
+		int i = low;
+		int j = middle;
+		int k = low;
+		while (i < middle && j < high) {
+			int left = srcKeys[srcKeyBase + i];
+			int right = srcKeys[srcKeyBase + j];
+			if (right < left) {
+				dstKeys[dstKeyBase + k] = right;
+				dstValues[dstValueBase + k++] = srcValues[srcValueBase + j++];
+			} else {
+				dstKeys[dstKeyBase + k] = left;
+				dstValues[dstValueBase + k++] = srcValues[srcValueBase + i++];
+			}
+		}
+		System.arraycopy(srcKeys, srcKeyBase + i, dstKeys, dstKeyBase + k,
+				middle - i);
+		System.arraycopy(srcValues, srcValueBase + i, dstValues, dstValueBase
+				+ k, middle - i);
+		k += middle - i;
+		System.arraycopy(srcKeys, srcKeyBase + j, dstKeys, dstKeyBase + k,
+				high - j);
+		System.arraycopy(srcValues, srcValueBase + j, dstValues, dstValueBase
+				+ k, high - j);
+	}
+
+	/**
+	 * sortByWeight() sorts the first count entries of three parallel arrays
+	 * from smallest to largest weight. Entry i consists of weights[i], us[i],
+	 * and vs[i]; the three values of each entry are moved together. The sort
+	 * is a stable least-significant-digit radix sort on the int weights, so
+	 * it runs in O(count) time and allocates only three scratch arrays, no
+	 * matter how many entries there are. Digits on which all the weights
+	 * agree are skipped.
+	 *
+	 * @param weights
+	 *            the sort keys.
+	 * @param us
+	 *            values carried along with the keys.
+	 * @param vs
+	 *            more values carried along with the keys.
+	 * @param count
+	 *            the number of entries to sort.
+	 **/
+	public static void sortByWeight(int[] weights, int[] us, int[] vs,
+			int count) {
+		sortByWeight(weights, us, vs, 0, count);
+	}
+
+	/**
+	 * sortByWeight() sorts entries from through to - 1 of three parallel
+	 * arrays from smallest to largest weight, leaving the other entries
+	 * alone. It is otherwise the same as sortByWeight(weights, us, vs, count).
+	 *
+	 * @param weights
+	 *            the sort keys.
+	 * @param us
+	 *            values carried along with the keys.
+	 * @param vs
+	 *            more values carried along with the keys.
+	 * @param from
+	 *            the first entry to sort.
+	 * @param to
+	 *            one past the last entry to sort.
+	 **/
+	public static void sortByWeight(int[] weights, int[] us, int[] vs,
+			int from, int to) {
+		int count = to - from;
+		int[] srcW = weights, srcU = us, srcV = vs;
+		int[] dstW = new int[count], dstU = new int[count], dstV = new int[count];
+		int srcStart = from, dstStart = 0;
+		int[] buckets = new int[RADIX + 1];
+		for (int shift = 0; shift < Integer.SIZE; shift += RADIX_BITS) {
+			for (int d = 0; d <= RADIX; d++) {
+				buckets[d] = 0;
+			}
+			for (int i = srcStart; i < srcStart + count; i++) {
+				buckets[digit(srcW[i], shift) + 1]++;
+			}
+			if (count == 0
+					|| buckets[digit(srcW[srcStart], shift) + 1] == count) {
+				continue;
+			}
+			buckets[0] = dstStart;
+			for (int d = 0; d < RADIX; d++) {
+				buckets[d + 1] += buckets[d];
+			}
+			for (int i = srcStart; i < srcStart + count; i++) {
+				int slot = buckets[digit(srcW[i], shift)]++;
+				dstW[slot] = srcW[i];
+				dstU[slot] = srcU[i];
+				dstV[slot] = srcV[i];
+			}
+			int[] temp = srcW;
+			srcW = dstW;
+			dstW = temp;
+			temp = srcU;
+			srcU = dstU;
+			dstU = temp;
+			temp = srcV;
+			srcV = dstV;
+			dstV = temp;
+			int start = srcStart;
+			srcStart = dstStart;
+			dstStart = start;
+		}
+		if (srcW != weights) {
+			System.arraycopy(srcW, srcStart, weights, from, count);
+			System.arraycopy(srcU, srcStart, us, from, count);
+			System.arraycopy(srcV, srcStart, vs, from, count);
+		}
+	}
+
+	/**
+	 * digit() returns the radix digit of key that starts at bit "shift". The
+	 * sign bit is flipped so that negative keys sort before positive ones.
+	 **/
+	private static int digit(int key, int shift) {
+		return ((key ^ Integer.MIN_VALUE) >>> shift) & (RADIX - 1);
+	}
+
 	/**
 	 * makeRandom() builds a LinkedQueue of the indicated size containing
 	 * Integer items. The items are randomly chosen between 0 and size - 1.
@@ -123,6 +609,13 @@ public class ListSorts {
 		mergeSort(q);
 		System.out.println(q.toString());
 
+		Integer[] a = new Integer[100];
+		for (int i = 0; i < a.length; i++) {
+			a[i] = (int) (a.length * Math.random());
+		}
+		mergeSort(a, null);
+		System.out.println(java.util.Arrays.toString(a));
+
 	}
 
 }
\ No newline at end of file
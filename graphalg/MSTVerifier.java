@@ -0,0 +1,310 @@
+/* MSTVerifier.java */
+
+package graphalg;
+
+import graph.*;
+
+/**
+ * An MSTVerifier checks that a graph t is a minimum spanning forest of a
+ * graph g. The check runs when the verifier is constructed. It answers two
+ * questions:
+ *
+ *   - isSpanningForest(): t has exactly g's vertices, every edge of t is an
+ *     edge of g with the same weight, t has no cycle, and no edge of g joins
+ *     two different trees of t (so t has as many trees as g has connected
+ *     components);
+ *   - isMinimum(): t is a spanning forest, and every edge (u, v) of g that is
+ *     not in t weighs at least as much as every edge on the tree path from u
+ *     to v (the cycle property, which holds exactly for minimum spanning
+ *     forests).
+ *
+ * The trees of t are rooted by breadth-first search, and the path maxima
+ * are found by binary lifting: for every vertex and every k, the ancestor
+ * 2^k levels up and the heaviest edge on the way there. Nothing is
+ * recursive, so trees of any depth can be checked.
+ *
+ * Running time: O((|V| + |E|) log |V|), with O(|V| log |V|) memory, where
+ * the logarithm is that of the depth of the deepest tree.
+ */
+
+public class MSTVerifier {
+	private final static int NIL = -1;
+
+	private IndexedGraph graph;
+	private boolean spanning = true;
+	private boolean minimum = true;
+	private String forestProblem;
+	private String minimumProblem;
+
+	/**
+	 * The trees of t, in g's vertex ids. parent[v] is NIL at a root, and
+	 * parentWeight[v] is the weight of the edge from v to its parent.
+	 * lifts[k][2 * v] is v's ancestor 2^k levels up (or its root, if that is
+	 * nearer), and lifts[k][2 * v + 1] the largest weight on the path there;
+	 * the two are side by side so a step of pathMax() reads one cache line.
+	 */
+	private int[] parent;
+	private int[] parentWeight;
+	private int[] depth;
+	private int[] root;
+	private int[][] lifts;
+
+	/**
+	 * MSTVerifier() checks whether the WUGraph t is a minimum spanning forest
+	 * of the WUGraph g, such as the one returned by Kruskal.minSpanTree(g).
+	 * Vertices are matched by their vertex objects.
+	 *
+	 * Running time: O((|V| + |E|) log |V|).
+	 */
+	public MSTVerifier(WUGraph g, WUGraph t) {
+		this(g.freeze(), t.freeze());
+	}
+
+	/**
+	 * MSTVerifier() checks whether the IndexedGraph t is a minimum spanning
+	 * forest of the IndexedGraph g. Vertices are matched by their vertex
+	 * objects, so the ids of t need not be those of g.
+	 *
+	 * Running time: O((|V| + |E|) log |V|).
+	 */
+	public MSTVerifier(IndexedGraph g, IndexedGraph t) {
+		graph = g;
+		int n = g.vertexCount();
+		if (t.vertexCount() != n) {
+			forestFails("the forest has " + t.vertexCount()
+					+ " vertices and the graph " + n);
+			return;
+		}
+		int[] vertexInT = matchVertices(g, t);
+		if (vertexInT == null) {
+			return;
+		}
+		if (!root(t, vertexInT)) {
+			return;
+		}
+		lift();
+		checkEdges(g);
+	}
+
+	/**
+	 * isSpanningForest() returns true if t is a spanning forest of g.
+	 */
+	public boolean isSpanningForest() {
+		return spanning;
+	}
+
+	/**
+	 * isMinimum() returns true if t is a minimum spanning forest of g.
+	 */
+	public boolean isMinimum() {
+		return spanning && minimum;
+	}
+
+	/**
+	 * problem() returns a description of the first reason found why t is not
+	 * a spanning forest of g, or else why it is not minimum, or null if t is
+	 * a minimum spanning forest of g.
+	 */
+	public String problem() {
+		return spanning ? minimumProblem : forestProblem;
+	}
+
+	/**
+	 * forestFails() records that t is not a spanning forest.
+	 */
+	private void forestFails(String problem) {
+		if (spanning) {
+			spanning = false;
+			forestProblem = problem;
+		}
+	}
+
+	/**
+	 * matchVertices() returns an array that maps each vertex id of g to the
+	 * id of the same vertex object in t, or null if some vertex of g is not
+	 * in t.
+	 */
+	private int[] matchVertices(IndexedGraph g, IndexedGraph t) {
+		int n = g.vertexCount();
+		int[] vertexInT = new int[n];
+		for (int v = 0; v < n; v++) {
+			Object vertex = g.vertex(v);
+			// a forest built from g usually keeps g's ids
+			vertexInT[v] = t.vertex(v) == vertex ? v : t.idOf(vertex);
+			if (vertexInT[v] < 0) {
+				forestFails("vertex " + vertex + " is not in the forest");
+				return null;
+			}
+		}
+		return vertexInT;
+	}
+
+	/**
+	 * root() roots every tree of t by breadth-first search, filling parent,
+	 * parentWeight, depth, and root in g's ids. It returns false, and
+	 * records why, if t has a cycle.
+	 */
+	private boolean root(IndexedGraph t, int[] vertexInT) {
+		int n = vertexInT.length;
+		int[] vertexInG = new int[n];
+		for (int v = 0; v < n; v++) {
+			vertexInG[vertexInT[v]] = v;
+		}
+		parent = new int[n];
+		parentWeight = new int[n];
+		depth = new int[n];
+		root = new int[n];
+		java.util.Arrays.fill(root, NIL);
+		int[] queue = new int[n];
+		for (int r = 0; r < n; r++) {
+			if (root[r] != NIL) {
+				continue;
+			}
+			root[r] = r;
+			parent[r] = NIL;
+			int head = 0;
+			int tail = 0;
+			queue[tail++] = r;
+			while (head < tail) {
+				int u = queue[head++];
+				int tu = vertexInT[u];
+				boolean skippedParent = false;
+				for (int i = t.firstEdge(tu); i < t.endEdge(tu); i++) {
+					int v = vertexInG[t.target(i)];
+					if (v == parent[u] && !skippedParent) {
+						skippedParent = true;
+					} else if (root[v] != NIL) {
+						forestFails("the forest has a cycle through "
+								+ name(u) + " and " + name(v));
+						return false;
+					} else {
+						root[v] = r;
+						parent[v] = u;
+						parentWeight[v] = t.weight(i);
+						depth[v] = depth[u] + 1;
+						queue[tail++] = v;
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * name() returns the vertex object of g's vertex v, for messages.
+	 */
+	private Object name(int v) {
+		return graph.vertex(v);
+	}
+
+	/**
+	 * lift() fills lifts for as many levels as the deepest tree needs.
+	 */
+	private void lift() {
+		int n = parent.length;
+		int maxDepth = 0;
+		for (int v = 0; v < n; v++) {
+			maxDepth = Math.max(maxDepth, depth[v]);
+		}
+		int levels = Math.max(1, 32 - Integer.numberOfLeadingZeros(maxDepth));
+		lifts = new int[levels][];
+		int[] first = new int[2 * n];
+		for (int v = 0; v < n; v++) {
+			first[2 * v] = parent[v] == NIL ? v : parent[v];
+			first[2 * v + 1] = parent[v] == NIL ? Integer.MIN_VALUE
+					: parentWeight[v];
+		}
+		lifts[0] = first;
+		for (int k = 1; k < levels; k++) {
+			int[] half = lifts[k - 1];
+			int[] lift = new int[2 * n];
+			for (int v = 0; v < n; v++) {
+				int middle = half[2 * v];
+				lift[2 * v] = half[2 * middle];
+				lift[2 * v + 1] = Math.max(half[2 * v + 1], half[2 * middle + 1]);
+			}
+			lifts[k] = lift;
+		}
+	}
+
+	/**
+	 * pathMax() returns the largest weight on the tree path between u and v,
+	 * which must be in the same tree, or Integer.MIN_VALUE if u == v.
+	 *
+	 * Running time: O(log |V|).
+	 */
+	private int pathMax(int u, int v) {
+		int max = Integer.MIN_VALUE;
+		if (depth[u] < depth[v]) {
+			int temp = u;
+			u = v;
+			v = temp;
+		}
+		int rise = depth[u] - depth[v];
+		for (int k = 0; rise != 0; k++, rise >>>= 1) {
+			if ((rise & 1) != 0) {
+				max = Math.max(max, lifts[k][2 * u + 1]);
+				u = lifts[k][2 * u];
+			}
+		}
+		if (u == v) {
+			return max;
+		}
+		// only the levels below the common part of the paths matter
+		int top = Math.min(lifts.length, 32 - Integer
+				.numberOfLeadingZeros(depth[u]));
+		for (int k = top - 1; k >= 0; k--) {
+			int[] lift = lifts[k];
+			if (lift[2 * u] != lift[2 * v]) {
+				max = Math.max(max, Math.max(lift[2 * u + 1], lift[2 * v + 1]));
+				u = lift[2 * u];
+				v = lift[2 * v];
+			}
+		}
+		return Math.max(max, Math.max(lifts[0][2 * u + 1],
+				lifts[0][2 * v + 1]));
+	}
+
+	/**
+	 * checkEdges() goes through the edges of g once. An edge that joins a
+	 * vertex to its parent with the weight of the tree edge accounts for that
+	 * tree edge; any other edge must lie within one tree and be at least as
+	 * heavy as the tree path it closes into a cycle. Finally every tree edge
+	 * must have been accounted for.
+	 */
+	private void checkEdges(IndexedGraph g) {
+		int n = g.vertexCount();
+		boolean[] found = new boolean[n];
+		for (int u = 0; u < n; u++) {
+			for (int i = g.firstEdge(u); i < g.endEdge(u); i++) {
+				int v = g.target(i);
+				int weight = g.weight(i);
+				if (v <= u) {
+					continue; // each edge once; self-edges never matter
+				}
+				if (parent[v] == u && parentWeight[v] == weight && !found[v]) {
+					found[v] = true;
+				} else if (parent[u] == v && parentWeight[u] == weight
+						&& !found[u]) {
+					found[u] = true;
+				} else if (root[u] != root[v]) {
+					forestFails("edge (" + name(u) + ", " + name(v)
+							+ ") joins two trees of the forest");
+				} else if (minimum && weight < pathMax(u, v)) {
+					minimum = false;
+					minimumProblem = "edge (" + name(u) + ", " + name(v)
+							+ ") of weight " + weight + " is lighter than the "
+							+ "forest path between its endpoints";
+				}
+			}
+		}
+		for (int v = 0; v < n; v++) {
+			if (parent[v] != NIL && !found[v]) {
+				forestFails("forest edge (" + name(v) + ", " + name(parent[v])
+						+ ") of weight " + parentWeight[v]
+						+ " is not an edge of the graph");
+				break;
+			}
+		}
+	}
+}
@@ -0,0 +1,171 @@
+/* Prim.java */
+
+package graphalg;
+
+import graph.*;
+
+/**
+ * The Prim class contains the method minSpanTree(), which implements Prim's
+ * algorithm for computing a minimum spanning tree of a graph. It returns the
+ * same kind of result as Kruskal.minSpanTree(), so callers can use either.
+ *
+ * Two strategies are used, chosen by the density of the graph. On sparse
+ * graphs, the vertices outside the tree are kept in an indexed d-ary heap
+ * keyed by their lightest edge to the tree, giving O(|E| log |V|) time. On
+ * dense graphs, where |E| log |V| exceeds |V|^2, the closest vertex is found
+ * by scanning an array of those keys, giving O(|V|^2) time with no heap at
+ * all.
+ */
+
+public class Prim {
+
+	private final static int ARITY = 4;
+	private final static int NOT_IN_TREE = -1;
+
+	/**
+	 * minSpanTree() returns a WUGraph that represents the minimum spanning tree
+	 * (a minimum spanning forest, if g is disconnected) of the WUGraph g. The
+	 * original WUGraph g is NOT changed.
+	 *
+	 * @param g
+	 *            The weighted, undirected graph whose MST we want to compute.
+	 * @return A newly constructed WUGraph representing the MST of g.
+	 */
+	public static WUGraph minSpanTree(WUGraph g) {
+		return minSpanTree(g.freeze()).toWUGraph();
+	}
+
+	/**
+	 * minSpanTree() returns a CsrGraph that represents the minimum spanning
+	 * forest of the IndexedGraph g (such as a CsrGraph or a MappedGraph), with
+	 * the same vertex ids.
+	 *
+	 * @param g
+	 *            The weighted, undirected graph whose MST we want to compute.
+	 * @return A newly constructed CsrGraph representing the MST of g.
+	 */
+	public static CsrGraph minSpanTree(IndexedGraph g) {
+		int size = g.vertexCount();
+		// parent[v] is the vertex that attaches v to the tree, and key[v]
+		// the weight of that edge; parent[v] is NOT_IN_TREE for each root.
+		int[] parent = new int[size];
+		int[] key = new int[size];
+		if (isDense(g)) {
+			scanTree(g, parent, key);
+		} else {
+			heapTree(g, parent, key);
+		}
+
+		int maxTreeEdges = Math.max(size - 1, 0);
+		int[] us = new int[maxTreeEdges];
+		int[] vs = new int[maxTreeEdges];
+		int[] weights = new int[maxTreeEdges];
+		int treeEdges = 0;
+		Object[] vertices = new Object[size];
+		for (int v = 0; v < size; v++) {
+			vertices[v] = g.vertex(v);
+			if (parent[v] != NOT_IN_TREE) {
+				us[treeEdges] = parent[v];
+				vs[treeEdges] = v;
+				weights[treeEdges] = key[v];
+				treeEdges++;
+			}
+		}
+		return CsrGraph.fromEdges(vertices, us, vs, weights, treeEdges);
+	}
+
+	/**
+	 * isDense() returns true if scanning an array for the closest vertex is
+	 * expected to beat a heap on g, that is, if |E| log |V| >= |V|^2.
+	 */
+	static boolean isDense(IndexedGraph g) {
+		long size = g.vertexCount();
+		int log = 1;
+		while ((1L << log) < size) {
+			log++;
+		}
+		return (long) g.edgeCount() * log >= size * size;
+	}
+
+	/**
+	 * heapTree() fills in parent and key using a heap of the vertices that
+	 * are not yet in the tree.
+	 */
+	private static void heapTree(IndexedGraph g, int[] parent, int[] key) {
+		int size = g.vertexCount();
+		boolean[] inTree = new boolean[size];
+		IndexedHeap fringe = new IndexedHeap(size, ARITY);
+		for (int root = 0; root < size; root++) {
+			if (inTree[root]) {
+				continue;
+			}
+			parent[root] = NOT_IN_TREE;
+			fringe.insert(root, 0);
+			while (!fringe.isEmpty()) {
+				int u = fringe.removeMin();
+				inTree[u] = true;
+				for (int i = g.firstEdge(u); i < g.endEdge(u); i++) {
+					int v = g.target(i);
+					int weight = g.weight(i);
+					if (inTree[v]) {
+						continue;
+					}
+					if (!fringe.contains(v)) {
+						parent[v] = u;
+						key[v] = weight;
+						fringe.insert(v, weight);
+					} else if (weight < fringe.key(v)) {
+						parent[v] = u;
+						key[v] = weight;
+						fringe.decreaseKey(v, weight);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * scanTree() fills in parent and key by scanning an array of all the
+	 * vertices not yet in the tree for the closest one.
+	 */
+	private static void scanTree(IndexedGraph g, int[] parent, int[] key) {
+		int size = g.vertexCount();
+		// fringe[0...remaining - 1] lists the vertices not in the tree;
+		// reached[v] is true once v has a tentative parent.
+		int[] fringe = new int[size];
+		int[] slot = new int[size];
+		boolean[] reached = new boolean[size];
+		for (int v = 0; v < size; v++) {
+			fringe[v] = v;
+			slot[v] = v;
+			parent[v] = NOT_IN_TREE;
+		}
+		int remaining = size;
+		while (remaining > 0) {
+			// Pick the reached vertex with the smallest key, or start a new
+			// tree at an unreached vertex if none is reached.
+			int best = -1;
+			for (int i = 0; i < remaining; i++) {
+				int v = fringe[i];
+				if (best < 0
+						|| (reached[v] && (!reached[fringe[best]] || key[v] < key[fringe[best]]))) {
+					best = i;
+				}
+			}
+			int u = fringe[best];
+			remaining--;
+			fringe[best] = fringe[remaining];
+			slot[fringe[best]] = best;
+			slot[u] = -1;
+
+			for (int i = g.firstEdge(u); i < g.endEdge(u); i++) {
+				int v = g.target(i);
+				if (slot[v] >= 0 && (!reached[v] || g.weight(i) < key[v])) {
+					reached[v] = true;
+					parent[v] = u;
+					key[v] = g.weight(i);
+				}
+			}
+		}
+	}
+}
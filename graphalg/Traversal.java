@@ -0,0 +1,90 @@
+/* Traversal.java */
+
+package graphalg;
+
+import graph.*;
+
+/**
+ * The Traversal class contains graph traversals over IndexedGraphs, such as
+ * CsrGraph snapshots. All of them are iterative, so they work on graphs of
+ * any depth, and they use only int arrays for their bookkeeping.
+ */
+
+public class Traversal {
+
+	/**
+	 * breadthFirstOrder() returns the ids of the vertices reachable from the
+	 * vertex "source", in the order a breadth-first search visits them,
+	 * starting with source itself.
+	 *
+	 * Running time: O(|V| + |E|).
+	 *
+	 * @param g
+	 *            the graph to search.
+	 * @param source
+	 *            the id of the vertex to start from.
+	 * @return an array of vertex ids whose length is the number of vertices
+	 *         reachable from source.
+	 */
+	public static int[] breadthFirstOrder(IndexedGraph g, int source) {
+		boolean[] visited = new boolean[g.vertexCount()];
+		int[] queue = new int[g.vertexCount()];
+		int tail = 0;
+		queue[tail++] = source;
+		visited[source] = true;
+		for (int head = 0; head < tail; head++) {
+			int u = queue[head];
+			for (int i = g.firstEdge(u); i < g.endEdge(u); i++) {
+				int v = g.target(i);
+				if (!visited[v]) {
+					visited[v] = true;
+					queue[tail++] = v;
+				}
+			}
+		}
+		int[] order = new int[tail];
+		System.arraycopy(queue, 0, order, 0, tail);
+		return order;
+	}
+
+	/**
+	 * components() labels every vertex with the number of its connected
+	 * component. Components are numbered from zero in order of their
+	 * smallest vertex id.
+	 *
+	 * Running time: O(|V| + |E|).
+	 *
+	 * @param g
+	 *            the graph to label.
+	 * @return an array whose entry u is the component number of vertex u.
+	 */
+	public static int[] components(IndexedGraph g) {
+		int n = g.vertexCount();
+		int[] label = new int[n];
+		int[] stack = new int[n];
+		for (int u = 0; u < n; u++) {
+			label[u] = -1;
+		}
+		int component = 0;
+		for (int start = 0; start < n; start++) {
+			if (label[start] >= 0) {
+				continue;
+			}
+			int top = 0;
+			stack[top++] = start;
+			label[start] = component;
+			while (top > 0) {
+				int u = stack[--top];
+				for (int i = g.firstEdge(u); i < g.endEdge(u); i++) {
+					int v = g.target(i);
+					if (label[v] < 0) {
+						label[v] = component;
+						stack[top++] = v;
+					}
+				}
+			}
+			component++;
+		}
+		return label;
+	}
+}
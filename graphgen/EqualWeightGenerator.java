@@ -0,0 +1,43 @@
+/* EqualWeightGenerator.java */
+
+package graphgen;
+
+import graph.*;
+import java.util.SplittableRandom;
+
+/**
+ * An EqualWeightGenerator produces the graphs of another generator with
+ * every weight replaced by one constant. See
+ * GraphGenerator.withEqualWeights().
+ */
+
+class EqualWeightGenerator extends GraphGenerator {
+	private final GraphGenerator graphs;
+	private final int weight;
+
+	EqualWeightGenerator(GraphGenerator graphs, int weight) {
+		super(graphs.vertexCount, graphs.seed);
+		this.graphs = graphs;
+		this.weight = weight;
+	}
+
+	public long expectedEdges() {
+		return graphs.expectedEdges();
+	}
+
+	public boolean mayRepeat() {
+		return graphs.mayRepeat();
+	}
+
+	/**
+	 * generate() runs the other generator on the same random numbers, so the
+	 * edges are the same, and changes the weights on their way to "sink".
+	 */
+	void generate(SplittableRandom random, final IdEdgeVisitor sink) {
+		graphs.generate(random, new IdEdgeVisitor() {
+			public void visit(int u, int v, int ignored) {
+				sink.visit(u, v, weight);
+			}
+		});
+	}
+}
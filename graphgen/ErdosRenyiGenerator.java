@@ -0,0 +1,54 @@
+/* ErdosRenyiGenerator.java */
+
+package graphgen;
+
+import graph.*;
+import java.util.SplittableRandom;
+
+/**
+ * An ErdosRenyiGenerator produces G(n, p) random graphs with p chosen so the
+ * expected number of edges is m. See GraphGenerator.erdosRenyi().
+ */
+
+class ErdosRenyiGenerator extends GraphGenerator {
+	private final long m;
+	private final double p;
+
+	ErdosRenyiGenerator(int n, long m, long seed) {
+		super(n, seed);
+		long pairs = (long) n * (n - 1) / 2;
+		this.m = Math.min(Math.max(m, 0), pairs);
+		this.p = pairs == 0 ? 0 : (double) this.m / pairs;
+	}
+
+	public long expectedEdges() {
+		return m;
+	}
+
+	/**
+	 * generate() walks the pairs (v, w) with w < v in order, jumping over the
+	 * pairs that are not edges. The length of each jump is geometric with
+	 * parameter p, so only the edges themselves cost any work.
+	 *
+	 * Running time: O(|V| + |E|).
+	 */
+	void generate(SplittableRandom random, IdEdgeVisitor sink) {
+		if (p == 0) {
+			return;
+		}
+		double logMiss = Math.log(1 - p); // -infinity when p == 1
+		int v = 1;
+		long w = -1;
+		while (v < vertexCount) {
+			double skip = Math.floor(Math.log(1 - random.nextDouble()) / logMiss);
+			w += 1 + (long) Math.min(skip, (double) Long.MAX_VALUE / 2);
+			while (w >= v && v < vertexCount) {
+				w -= v;
+				v++;
+			}
+			if (v < vertexCount) {
+				sink.visit(v, (int) w, randomWeight(random));
+			}
+		}
+	}
+}
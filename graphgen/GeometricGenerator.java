@@ -0,0 +1,124 @@
+/* GeometricGenerator.java */
+
+package graphgen;
+
+import graph.*;
+import java.util.SplittableRandom;
+
+/**
+ * A GeometricGenerator produces random geometric graphs in the unit square.
+ * See GraphGenerator.geometric().
+ */
+
+class GeometricGenerator extends GraphGenerator {
+
+	/**
+	 * WEIGHT_SCALE is the weight of an edge exactly one radius long.
+	 */
+	private final static double WEIGHT_SCALE = 1 << 30;
+
+	private final double degree;
+	private final double radius;
+
+	GeometricGenerator(int n, double degree, long seed) {
+		super(n, seed);
+		if (!(degree >= 0)) {
+			throw new IllegalArgumentException("bad average degree " + degree);
+		}
+		this.degree = degree;
+		// a disk of this radius holds "degree" of the n points on average
+		this.radius = n == 0 ? 0 : Math.min(Math.sqrt(degree / (Math.PI * n)),
+				Math.sqrt(2));
+	}
+
+	public long expectedEdges() {
+		return (long) (degree * vertexCount / 2);
+	}
+
+	/**
+	 * generate() places the points, sorts them into square cells at least
+	 * one radius wide with a counting sort, and compares each point only
+	 * with the points of its own cell and of the four cells to the right of
+	 * it and below it, so each pair is considered once.
+	 *
+	 * Running time: O(|V| + |E|) expected.
+	 */
+	void generate(SplittableRandom random, IdEdgeVisitor sink) {
+		int n = vertexCount;
+		if (n == 0 || radius == 0) {
+			return;
+		}
+		double[] x = new double[n];
+		double[] y = new double[n];
+		for (int i = 0; i < n; i++) {
+			x[i] = random.nextDouble();
+			y[i] = random.nextDouble();
+		}
+		// at most about n cells, so sparse graphs do not waste memory
+		int side = (int) Math.max(1, Math.min(Math.floor(1 / radius),
+				Math.sqrt(n)));
+		int[] start = new int[side * side + 1];
+		int[] cellOf = new int[n];
+		for (int i = 0; i < n; i++) {
+			cellOf[i] = cell(x[i], side) * side + cell(y[i], side);
+			start[cellOf[i] + 1]++;
+		}
+		for (int c = 0; c < side * side; c++) {
+			start[c + 1] += start[c];
+		}
+		int[] points = new int[n];
+		int[] next = java.util.Arrays.copyOf(start, side * side);
+		for (int i = 0; i < n; i++) {
+			points[next[cellOf[i]]++] = i;
+		}
+		cellOf = null;
+		next = null;
+
+		double squared = radius * radius;
+		for (int cx = 0; cx < side; cx++) {
+			for (int cy = 0; cy < side; cy++) {
+				int c = cx * side + cy;
+				for (int k = start[c]; k < start[c + 1]; k++) {
+					int i = points[k];
+					// the rest of the point's own cell
+					for (int l = k + 1; l < start[c + 1]; l++) {
+						join(i, points[l], x, y, squared, sink);
+					}
+					// the cells (cx, cy + 1) and (cx + 1, cy - 1...cy + 1)
+					for (int d = 0; d < 4; d++) {
+						int nx = cx + (d == 0 ? 0 : 1);
+						int ny = cy + (d == 0 ? 1 : d - 2);
+						if (nx < side && ny >= 0 && ny < side) {
+							int c2 = nx * side + ny;
+							for (int l = start[c2]; l < start[c2 + 1]; l++) {
+								join(i, points[l], x, y, squared, sink);
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * cell() returns the cell column (or row) of a coordinate.
+	 */
+	private static int cell(double coordinate, int side) {
+		return Math.min((int) (coordinate * side), side - 1);
+	}
+
+	/**
+	 * join() passes the edge (i, j) to "sink" if points i and j are closer
+	 * than the radius.
+	 */
+	private static void join(int i, int j, double[] x, double[] y,
+			double squared, IdEdgeVisitor sink) {
+		double dx = x[i] - x[j];
+		double dy = y[i] - y[j];
+		double distance = dx * dx + dy * dy;
+		if (distance < squared) {
+			sink.visit(i, j, (int) (Math.sqrt(distance / squared)
+					* WEIGHT_SCALE));
+		}
+	}
+}
@@ -0,0 +1,251 @@
+/* GraphGenerator.java */
+
+package graphgen;
+
+import dict.*;
+import graph.*;
+import java.util.SplittableRandom;
+
+/**
+ * A GraphGenerator produces a large synthetic graph on the vertices
+ * 0...vertexCount() - 1, for benchmarks and soak tests. The same generator
+ * produces the same edges, in the same order, every time it is run: all of
+ * its randomness comes from a SplittableRandom seeded with the seed it was
+ * made with.
+ *
+ * The edges are streamed to an IdEdgeVisitor as they are made, so a graph
+ * never has to exist in memory as anything but its destination. toWUGraph()
+ * and toCsrGraph() stream them straight into a WUGraph or a CsrGraph whose
+ * vertex objects are the Integers 0...vertexCount() - 1, with vertex i given
+ * id i.
+ *
+ * The models are:
+ *
+ *   - erdosRenyi(): each pair of distinct vertices is an edge independently,
+ *     with the probability that gives m edges on average;
+ *   - rmat(): the R-MAT recursive model, whose degrees follow a power law;
+ *   - grid(): a 2D grid, each vertex joined to its right and lower
+ *     neighbors;
+ *   - geometric(): random points in the unit square, joined when they are
+ *     closer than a radius chosen for a given average degree.
+ *
+ * Weights are random non-negative ints, except in geometric graphs, whose
+ * weights grow with the distance between the points. withEqualWeights()
+ * gives every edge the same weight instead, leaving the edges themselves
+ * unchanged, for graphs on which every spanning tree is minimum.
+ */
+
+public abstract class GraphGenerator {
+
+	/**
+	 * MAX_EDGES is the most edges toCsrGraph() can store in its arrays.
+	 */
+	private final static int MAX_EDGES = Integer.MAX_VALUE - 8;
+	private final static int INITIAL_CAPACITY = 1024;
+
+	final int vertexCount;
+	final long seed;
+
+	/**
+	 * GraphGenerator() constructs a generator of graphs with "vertexCount"
+	 * vertices whose random choices are seeded with "seed".
+	 */
+	GraphGenerator(int vertexCount, long seed) {
+		if (vertexCount < 0) {
+			throw new IllegalArgumentException("negative vertex count "
+					+ vertexCount);
+		}
+		this.vertexCount = vertexCount;
+		this.seed = seed;
+	}
+
+	/**
+	 * erdosRenyi() returns a generator of Erdos-Renyi random graphs on n
+	 * vertices in which each of the n(n - 1) / 2 pairs of distinct vertices
+	 * is an edge with probability p = m / (n(n - 1) / 2), so there are m
+	 * edges on average and never a self-edge or a repeated edge. The edges
+	 * are produced in O(n + m) time by drawing the gap to the next edge from
+	 * a geometric distribution (Batagelj and Brandes, 2005) instead of
+	 * flipping a coin for each pair.
+	 */
+	public static GraphGenerator erdosRenyi(int n, long m, long seed) {
+		return new ErdosRenyiGenerator(n, m, seed);
+	}
+
+	/**
+	 * rmat() returns a generator of R-MAT graphs with 2^scale vertices and m
+	 * edge draws, with the usual quadrant probabilities a = 0.57,
+	 * b = c = 0.19, and d = 0.05.
+	 */
+	public static GraphGenerator rmat(int scale, long m, long seed) {
+		return rmat(scale, m, 0.57, 0.19, 0.19, seed);
+	}
+
+	/**
+	 * rmat() returns a generator of R-MAT graphs with 2^scale vertices and m
+	 * edge draws. Each draw picks one quadrant of the adjacency matrix with
+	 * probabilities a, b, c, and 1 - a - b - c, then a quadrant of that
+	 * quadrant, and so on down to a single pair; self-edges are drawn again.
+	 * The same pair may be drawn more than once, so the graph has somewhat
+	 * fewer than m edges. Vertex numbers are scrambled by a fixed bijection
+	 * so the high-degree vertices are not all near zero.
+	 */
+	public static GraphGenerator rmat(int scale, long m, double a, double b,
+			double c, long seed) {
+		return new RMatGenerator(scale, m, a, b, c, seed);
+	}
+
+	/**
+	 * grid() returns a generator of rows-by-columns grid graphs, in which
+	 * vertex r * columns + c is joined to the vertices to its right and
+	 * below it.
+	 */
+	public static GraphGenerator grid(int rows, int columns, long seed) {
+		return new GridGenerator(rows, columns, seed);
+	}
+
+	/**
+	 * geometric() returns a generator of random geometric graphs: n points
+	 * uniform in the unit square, two points joined when they are closer
+	 * than the radius that gives each vertex "degree" neighbors on average.
+	 * An edge's weight is its length scaled so the radius maps to 2^30.
+	 */
+	public static GraphGenerator geometric(int n, double degree, long seed) {
+		return new GeometricGenerator(n, degree, seed);
+	}
+
+	/**
+	 * withEqualWeights() returns a generator of the same graphs as this one,
+	 * with every edge given the weight "weight".
+	 */
+	public GraphGenerator withEqualWeights(int weight) {
+		return new EqualWeightGenerator(this, weight);
+	}
+
+	/**
+	 * vertexCount() returns the number of vertices of the generated graphs.
+	 */
+	public int vertexCount() {
+		return vertexCount;
+	}
+
+	/**
+	 * expectedEdges() returns about how many edges generate() produces, for
+	 * sizing the destination.
+	 */
+	public abstract long expectedEdges();
+
+	/**
+	 * mayRepeat() returns true if generate() may produce the same pair of
+	 * vertices more than once.
+	 */
+	public boolean mayRepeat() {
+		return false;
+	}
+
+	/**
+	 * generate() passes every edge of the graph to "sink", one visit() call
+	 * per edge, in a fixed order.
+	 *
+	 * Running time: O(|V| + |E|), except as noted for each model.
+	 */
+	public void generate(IdEdgeVisitor sink) {
+		generate(new SplittableRandom(seed), sink);
+	}
+
+	/**
+	 * generate() passes every edge to "sink", drawing its random choices from
+	 * "random".
+	 */
+	abstract void generate(SplittableRandom random, IdEdgeVisitor sink);
+
+	/**
+	 * randomWeight() returns a random non-negative weight.
+	 */
+	static int randomWeight(SplittableRandom random) {
+		return random.nextInt() & Integer.MAX_VALUE;
+	}
+
+	/**
+	 * toWUGraph() returns a new WUGraph holding the generated graph. As with
+	 * addEdge(), a pair produced more than once keeps its last weight.
+	 *
+	 * Running time: O(|V| + |E|).
+	 */
+	public WUGraph toWUGraph() {
+		int edgeEstimate = (int) Math.min(expectedEdges(), MAX_EDGES);
+		final WUGraph g = new WUGraph(vertexCount, edgeEstimate,
+				HashTableChained.DEFAULT_MAX_LOAD,
+				HashTableChained.DEFAULT_MIN_LOAD,
+				HashTableChained.DEFAULT_GROWTH);
+		for (int i = 0; i < vertexCount; i++) {
+			// in an empty graph, vertices get the ids 0, 1, 2, ... in order
+			g.addVertex(Integer.valueOf(i));
+		}
+		generate(new IdEdgeVisitor() {
+			public void visit(int u, int v, int weight) {
+				g.addEdgeById(u, v, weight);
+			}
+		});
+		return g;
+	}
+
+	/**
+	 * toCsrGraph() returns a new CsrGraph holding the generated graph. If the
+	 * generator may repeat pairs, each pair is kept once, with its last
+	 * weight.
+	 *
+	 * Running time: O(|V| + |E|).
+	 *
+	 * @throws IllegalStateException
+	 *             if the graph has more than MAX_EDGES edges.
+	 */
+	public CsrGraph toCsrGraph() {
+		EdgeArrays edges = new EdgeArrays((int) Math.max(INITIAL_CAPACITY,
+				Math.min(expectedEdges() + expectedEdges() / 16, MAX_EDGES)));
+		generate(edges);
+		if (mayRepeat()) {
+			edges.count = CsrGraph.removeRepeats(vertexCount, edges.us,
+					edges.vs, edges.ws, edges.count);
+		}
+		Object[] vertices = new Object[vertexCount];
+		for (int i = 0; i < vertexCount; i++) {
+			vertices[i] = Integer.valueOf(i);
+		}
+		return CsrGraph.fromEdges(vertices, edges.us, edges.vs, edges.ws,
+				edges.count);
+	}
+
+	/**
+	 * EdgeArrays collects edges in growing parallel arrays.
+	 */
+	static class EdgeArrays implements IdEdgeVisitor {
+		int[] us;
+		int[] vs;
+		int[] ws;
+		int count;
+
+		EdgeArrays(int capacity) {
+			us = new int[capacity];
+			vs = new int[capacity];
+			ws = new int[capacity];
+		}
+
+		public void visit(int u, int v, int weight) {
+			if (count == us.length) {
+				if (count == MAX_EDGES) {
+					throw new IllegalStateException("more than " + MAX_EDGES
+							+ " edges");
+				}
+				int capacity = (int) Math.min(2L * count, MAX_EDGES);
+				us = java.util.Arrays.copyOf(us, capacity);
+				vs = java.util.Arrays.copyOf(vs, capacity);
+				ws = java.util.Arrays.copyOf(ws, capacity);
+			}
+			us[count] = u;
+			vs[count] = v;
+			ws[count] = weight;
+			count++;
+		}
+	}
+}
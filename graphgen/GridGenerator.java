@@ -0,0 +1,53 @@
+/* GridGenerator.java */
+
+package graphgen;
+
+import graph.*;
+import java.util.SplittableRandom;
+
+/**
+ * A GridGenerator produces 2D grid graphs with random weights. See
+ * GraphGenerator.grid().
+ */
+
+class GridGenerator extends GraphGenerator {
+	private final int rows;
+	private final int columns;
+
+	GridGenerator(int rows, int columns, long seed) {
+		super(checkSize(rows, columns), seed);
+		this.rows = rows;
+		this.columns = columns;
+	}
+
+	/**
+	 * checkSize() returns rows * columns, the number of vertices.
+	 */
+	private static int checkSize(int rows, int columns) {
+		if (rows < 0 || columns < 0
+				|| (long) rows * columns > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("bad grid size " + rows + " x "
+					+ columns);
+		}
+		return rows * columns;
+	}
+
+	public long expectedEdges() {
+		return Math.max(0, (long) rows * (columns - 1) + (long) (rows - 1)
+				* columns);
+	}
+
+	void generate(SplittableRandom random, IdEdgeVisitor sink) {
+		for (int r = 0; r < rows; r++) {
+			for (int c = 0; c < columns; c++) {
+				int u = r * columns + c;
+				if (c + 1 < columns) {
+					sink.visit(u, u + 1, randomWeight(random));
+				}
+				if (r + 1 < rows) {
+					sink.visit(u, u + columns, randomWeight(random));
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,98 @@
+/* RMatGenerator.java */
+
+package graphgen;
+
+import graph.*;
+import java.util.SplittableRandom;
+
+/**
+ * An RMatGenerator produces R-MAT graphs (Chakrabarti, Zhan, and Faloutsos,
+ * 2004). See GraphGenerator.rmat().
+ */
+
+class RMatGenerator extends GraphGenerator {
+	private final static int MAX_SCALE = 30;
+
+	private final int scale;
+	private final long m;
+	private final double a;
+	private final double ab;
+	private final double abc;
+	private final int multiplier;
+	private final int salt;
+
+	RMatGenerator(int scale, long m, double a, double b, double c, long seed) {
+		super(checkScale(scale), seed);
+		if (a < 0 || b < 0 || c < 0 || a + b + c > 1) {
+			throw new IllegalArgumentException("bad R-MAT probabilities " + a
+					+ ", " + b + ", " + c);
+		}
+		this.scale = scale;
+		this.m = scale == 0 ? 0 : Math.max(m, 0);
+		this.a = a;
+		this.ab = a + b;
+		this.abc = a + b + c;
+		SplittableRandom random = new SplittableRandom(~seed);
+		this.multiplier = random.nextInt() | 1;
+		this.salt = random.nextInt();
+	}
+
+	/**
+	 * checkScale() returns 2^scale, the number of vertices.
+	 */
+	private static int checkScale(int scale) {
+		if (scale < 0 || scale > MAX_SCALE) {
+			throw new IllegalArgumentException("R-MAT scale " + scale
+					+ " is not in 0..." + MAX_SCALE);
+		}
+		return 1 << scale;
+	}
+
+	public long expectedEdges() {
+		return m;
+	}
+
+	public boolean mayRepeat() {
+		return true;
+	}
+
+	/**
+	 * generate() makes m draws of "scale" quadrant choices each.
+	 *
+	 * Running time: O(|V| + m log |V|).
+	 */
+	void generate(SplittableRandom random, IdEdgeVisitor sink) {
+		for (long i = 0; i < m; i++) {
+			int u;
+			int v;
+			do {
+				u = 0;
+				v = 0;
+				for (int bit = scale - 1; bit >= 0; bit--) {
+					double r = random.nextDouble();
+					if (r >= abc) {
+						u |= 1 << bit;
+						v |= 1 << bit;
+					} else if (r >= ab) {
+						u |= 1 << bit;
+					} else if (r >= a) {
+						v |= 1 << bit;
+					}
+				}
+			} while (u == v);
+			sink.visit(scramble(u), scramble(v), randomWeight(random));
+		}
+	}
+
+	/**
+	 * scramble() maps 0...2^scale - 1 onto itself one-to-one. Multiplying by
+	 * an odd number and adding, modulo 2^scale, are both invertible, and so
+	 * is xoring a number with itself shifted right.
+	 */
+	private int scramble(int x) {
+		int mask = vertexCount - 1;
+		x = (x * multiplier + salt) & mask;
+		x ^= x >>> (scale / 2 + 1);
+		return (x * multiplier + salt) & mask;
+	}
+}
@@ -0,0 +1,340 @@
+/* MicroBenchmarks.java */
+
+package bench.jmh;
+
+import dict.*;
+import graph.*;
+import graphalg.*;
+import graphgen.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import set.*;
+
+/**
+ * MicroBenchmarks measures the basic operations of the project with JMH, for
+ * every combination of a number of vertices and an average degree:
+ *
+ *   - WUGraph: addVertex, addEdge, isEdge (hits and misses), getNeighbors,
+ *     and removeVertex;
+ *   - HashTableChained: insert and find;
+ *   - DisjointSets: find and unionIfDisjoint; and
+ *   - Kruskal.minSpanTree, on a WUGraph and on a CsrGraph (one operation
+ *     is a whole spanning tree).
+ *
+ * Graphs are Erdos-Renyi random graphs from graphgen on Integer vertices.
+ * Operations that use up their state (adding or removing vertices, inserting
+ * keys, uniting sets) run BATCH to an invocation, and the state is rebuilt
+ * in an untimed per-invocation setup when the next batch would not fit.
+ * The GC profiler counts every allocation of an iteration, so the bytes per
+ * operation of those benchmarks include their share of the rebuilds.
+ *
+ * main() runs JMH with the GC profiler ("-prof gc") unless it is already
+ * given, so every result comes with its allocation rate and bytes per
+ * operation (gc.alloc.rate.norm). Any other JMH option may be passed, e.g.
+ *
+ *   java -jar jmh/target/benchmarks.jar isEdge -p vertices=100000 -f 3
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+@State(Scope.Benchmark)
+public class MicroBenchmarks {
+
+	/**
+	 * BATCH is the number of operations per invocation of the benchmarks that
+	 * use up their state. The graphs must have at least BATCH vertices.
+	 */
+	public final static int BATCH = 1000;
+
+	@Param({ "1000", "100000" })
+	public int vertices;
+
+	@Param({ "4", "32" })
+	public int degree;
+
+	/**
+	 * The fixture shared by all the benchmarks of one parameter set: vertex
+	 * names, the endpoints of the edges (each pair once, no self-edges) as
+	 * names and as ids, pairs that are not edges, the graph as a CsrGraph
+	 * and as a WUGraph, and a full hash table and set partition.
+	 */
+	Integer[] names;
+	int[] idUs;
+	int[] idVs;
+	int[] ws;
+	Integer[] us;
+	Integer[] vs;
+	Integer[] missUs;
+	Integer[] missVs;
+	CsrGraph csr;
+	WUGraph graph;
+	HashTableChained table;
+	DisjointSets sets;
+
+	@Setup(Level.Trial)
+	public void build() {
+		csr = GraphGenerator.erdosRenyi(vertices,
+				(long) vertices * degree / 2, 22).toCsrGraph();
+		names = new Integer[vertices];
+		for (int i = 0; i < vertices; i++) {
+			names[i] = (Integer) csr.vertex(i);
+		}
+		int count = csr.edgeCount();
+		idUs = new int[count];
+		idVs = new int[count];
+		ws = new int[count];
+		us = new Integer[count];
+		vs = new Integer[count];
+		int e = 0;
+		for (int u = 0; u < vertices; u++) {
+			for (int i = csr.firstEdge(u); i < csr.endEdge(u); i++) {
+				if (csr.target(i) > u) {
+					idUs[e] = u;
+					idVs[e] = csr.target(i);
+					ws[e] = csr.weight(i);
+					us[e] = names[u];
+					vs[e] = names[csr.target(i)];
+					e++;
+				}
+			}
+		}
+		graph = csr.toWUGraph();
+
+		java.util.Random random = new java.util.Random(22);
+		int misses = Math.min(count, 1 << 16);
+		missUs = new Integer[misses];
+		missVs = new Integer[misses];
+		for (int i = 0; i < misses;) {
+			Integer u = names[random.nextInt(vertices)];
+			Integer v = names[random.nextInt(vertices)];
+			if (!graph.isEdge(u, v)) {
+				missUs[i] = u;
+				missVs[i] = v;
+				i++;
+			}
+		}
+
+		table = new HashTableChained();
+		for (int i = 0; i < vertices; i++) {
+			table.insert(names[i], names[i]);
+		}
+		sets = new DisjointSets(vertices);
+		for (int i = 0; i < count; i++) {
+			sets.unionIfDisjoint(idUs[i], idVs[i]);
+		}
+	}
+
+	/**
+	 * A Cursor walks cyclically through the fixture's arrays, one entry per
+	 * operation.
+	 */
+	@State(Scope.Thread)
+	public static class Cursor {
+		int next;
+
+		int next(int length) {
+			int i = next;
+			next = i + 1 == length ? 0 : i + 1;
+			return i;
+		}
+	}
+
+	/**
+	 * A VertexAdds holds a graph to add the fixture's vertices to, in order.
+	 */
+	@State(Scope.Thread)
+	public static class VertexAdds {
+		WUGraph g;
+		int next;
+
+		@Setup(Level.Invocation)
+		public void refill(MicroBenchmarks f) {
+			if (g == null || next + BATCH > f.vertices) {
+				g = new WUGraph();
+				next = 0;
+			}
+		}
+	}
+
+	/**
+	 * An EdgeAdds holds a graph of the fixture's vertices to add its edges
+	 * to, in order.
+	 */
+	@State(Scope.Thread)
+	public static class EdgeAdds {
+		WUGraph g;
+		int next;
+
+		@Setup(Level.Invocation)
+		public void refill(MicroBenchmarks f) {
+			if (g == null || next + BATCH > f.us.length) {
+				g = new WUGraph();
+				for (int i = 0; i < f.vertices; i++) {
+					g.addVertex(f.names[i]);
+				}
+				next = 0;
+			}
+		}
+	}
+
+	/**
+	 * A VertexRemovals holds a copy of the fixture's graph to remove the
+	 * vertices from, in order.
+	 */
+	@State(Scope.Thread)
+	public static class VertexRemovals {
+		WUGraph g;
+		int next;
+
+		@Setup(Level.Invocation)
+		public void refill(MicroBenchmarks f) {
+			if (g == null || next + BATCH > f.vertices) {
+				g = f.csr.toWUGraph();
+				next = 0;
+			}
+		}
+	}
+
+	/**
+	 * A TableInserts holds a hash table to insert the vertex names into.
+	 */
+	@State(Scope.Thread)
+	public static class TableInserts {
+		HashTableChained table;
+		int next;
+
+		@Setup(Level.Invocation)
+		public void refill(MicroBenchmarks f) {
+			if (table == null || next + BATCH > f.vertices) {
+				table = new HashTableChained();
+				next = 0;
+			}
+		}
+	}
+
+	/**
+	 * A Unions holds a partition of the vertices to unite along the edges.
+	 */
+	@State(Scope.Thread)
+	public static class Unions {
+		DisjointSets sets;
+		int next;
+
+		@Setup(Level.Invocation)
+		public void refill(MicroBenchmarks f) {
+			if (sets == null || next + BATCH > f.idUs.length) {
+				sets = new DisjointSets(f.vertices);
+				next = 0;
+			}
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public int wugraphAddVertex(VertexAdds s) {
+		for (int i = 0; i < BATCH; i++) {
+			s.g.addVertex(names[s.next++]);
+		}
+		return s.g.vertexCount();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public int wugraphAddEdge(EdgeAdds s) {
+		for (int i = 0; i < BATCH; i++) {
+			s.g.addEdge(us[s.next], vs[s.next], ws[s.next]);
+			s.next++;
+		}
+		return s.g.edgeCount();
+	}
+
+	@Benchmark
+	public boolean wugraphIsEdgeHit(Cursor c) {
+		int i = c.next(us.length);
+		return graph.isEdge(us[i], vs[i]);
+	}
+
+	@Benchmark
+	public boolean wugraphIsEdgeMiss(Cursor c) {
+		int i = c.next(missUs.length);
+		return graph.isEdge(missUs[i], missVs[i]);
+	}
+
+	@Benchmark
+	public Neighbors wugraphGetNeighbors(Cursor c) {
+		return graph.getNeighbors(names[c.next(vertices)]);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public int wugraphRemoveVertex(VertexRemovals s) {
+		for (int i = 0; i < BATCH; i++) {
+			s.g.removeVertex(names[s.next++]);
+		}
+		return s.g.edgeCount();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public int hashTableChainedInsert(TableInserts s) {
+		for (int i = 0; i < BATCH; i++) {
+			s.table.insert(names[s.next], names[s.next]);
+			s.next++;
+		}
+		return s.table.size();
+	}
+
+	@Benchmark
+	public Object hashTableChainedFind(Cursor c) {
+		return table.findValue(names[c.next(vertices)]);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public int disjointSetsUnionIfDisjoint(Unions s) {
+		int unions = 0;
+		for (int i = 0; i < BATCH; i++) {
+			if (s.sets.unionIfDisjoint(idUs[s.next], idVs[s.next])) {
+				unions++;
+			}
+			s.next++;
+		}
+		return unions;
+	}
+
+	@Benchmark
+	public int disjointSetsFind(Cursor c) {
+		return sets.find(c.next(vertices));
+	}
+
+	@Benchmark
+	public WUGraph kruskalWUGraph() {
+		return Kruskal.minSpanTree(graph);
+	}
+
+	@Benchmark
+	public CsrGraph kruskalCsrGraph() {
+		return Kruskal.minSpanTree(csr);
+	}
+
+	/**
+	 * main() runs the JMH command line with the given arguments, adding the
+	 * GC profiler unless some "-prof gc" option is already there.
+	 */
+	public static void main(String[] args) throws Exception {
+		for (int i = 0; i + 1 < args.length; i++) {
+			if (args[i].equals("-prof") && args[i + 1].startsWith("gc")) {
+				org.openjdk.jmh.Main.main(args);
+				return;
+			}
+		}
+		String[] withGc = new String[args.length + 2];
+		withGc[0] = "-prof";
+		withGc[1] = "gc";
+		System.arraycopy(args, 0, withGc, 2, args.length);
+		org.openjdk.jmh.Main.main(withGc);
+	}
+}
@@ -0,0 +1,210 @@
+/* ConcurrentDisjointSets.java */
+
+package set;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ *  A disjoint sets ADT that many threads can use at once without locks.
+ *  Each element's parent is kept in an AtomicIntegerArray and every change
+ *  to it is made by compare-and-set.  A root is an element that is its own
+ *  parent.
+ *
+ *  union links the root of lower priority under the root of higher priority,
+ *  where priorities are a fixed pseudo-random permutation of the elements
+ *  (randomized linking by index), which keeps trees shallow without the
+ *  extra atomic state that union-by-size or union-by-rank would need.  find
+ *  performs path halving, also by compare-and-set; a failed compare-and-set
+ *  just means another thread has already shortened the path.
+ *
+ *  Elements are represented by ints, numbered from zero.
+ **/
+
+public class ConcurrentDisjointSets {
+
+  private AtomicIntegerArray parent;
+  private AtomicInteger sets;
+
+  /**
+   *  Construct a disjoint sets object.
+   *
+   *  @param numElements the initial number of elements--also the initial
+   *  number of disjoint sets, since every element is initially in its own set.
+   **/
+  public ConcurrentDisjointSets(int numElements) {
+    parent = new AtomicIntegerArray(numElements);
+    for (int i = 0; i < numElements; i++) {
+      parent.set(i, i);
+    }
+    sets = new AtomicInteger(numElements);
+  }
+
+  /**
+   *  priority() returns the linking priority of an element:  a fixed
+   *  scrambling of its index, so that sets are linked in an order that is
+   *  unrelated to how the application numbers its elements.
+   **/
+  private static int priority(int x) {
+    int h = x * 0x9E3779B9;
+    return h ^ (h >>> 15);
+  }
+
+  /**
+   *  higher() returns true if element x has higher linking priority than
+   *  element y.  Ties are broken by index, so no two elements are equal.
+   **/
+  private static boolean higher(int x, int y) {
+    int px = priority(x);
+    int py = priority(y);
+    return px > py || (px == py && x > y);
+  }
+
+  /**
+   *  find() finds the (int) name of the set containing a given element.
+   *  Performs path halving along the way.  If other threads are uniting
+   *  sets at the same time, the result is the root at some moment during
+   *  the call.
+   *
+   *  @param x the element sought.
+   *  @return the set containing x.
+   **/
+  public int find(int x) {
+    while (true) {
+      int p = parent.get(x);
+      if (p == x) {
+        return x;
+      }
+      int grandparent = parent.get(p);
+      if (grandparent == p) {
+        return p;
+      }
+      parent.compareAndSet(x, p, grandparent);
+      x = grandparent;
+    }
+  }
+
+  /**
+   *  sameSet() returns true if x and y are in the same set.  The answer is
+   *  exact at some moment during the call.
+   *
+   *  @param x an element.
+   *  @param y another element.
+   *  @return true if x and y are in the same set.
+   **/
+  public boolean sameSet(int x, int y) {
+    while (true) {
+      int root1 = find(x);
+      int root2 = find(y);
+      if (root1 == root2) {
+        return true;
+      }
+      if (parent.get(root1) == root1) {
+        return false;
+      }
+    }
+  }
+
+  /**
+   *  unionIfDisjoint() unites the sets containing two elements, unless they
+   *  are already in the same set.  If several threads try to unite the same
+   *  two sets at once, exactly one of them succeeds.
+   *
+   *  @param x an element of the first set.
+   *  @param y an element of the other set.
+   *  @return true if this call united the sets; false if x and y were
+   *  already in the same set.
+   **/
+  public boolean unionIfDisjoint(int x, int y) {
+    while (true) {
+      int root1 = find(x);
+      int root2 = find(y);
+      if (root1 == root2) {
+        return false;
+      }
+      if (higher(root1, root2)) {
+        int temp = root1;
+        root1 = root2;
+        root2 = temp;
+      }
+      // Link the lower-priority root under the other; this fails if root1
+      // stopped being a root since we found it, in which case we retry.
+      if (parent.compareAndSet(root1, root1, root2)) {
+        sets.decrementAndGet();
+        return true;
+      }
+    }
+  }
+
+  /**
+   *  count() returns the number of disjoint sets.
+   *
+   *  @return the number of sets.
+   **/
+  public int count() {
+    return sets.get();
+  }
+
+  /**
+   *  main() is a stress test.  Several threads unite random pairs of
+   *  elements at once while a single-threaded DisjointSets replays the same
+   *  unions; afterward both must agree on every pair of elements, and the
+   *  number of successful unions must match.
+   **/
+  public static void main(String[] args) throws InterruptedException {
+    final int numElements = 200000;
+    final int unionsPerThread = 100000;
+    int numThreads = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+    final ConcurrentDisjointSets shared =
+      new ConcurrentDisjointSets(numElements);
+    final int[][] pairs = new int[numThreads][2 * unionsPerThread];
+    final int[] merges = new int[numThreads];
+    java.util.Random random = new java.util.Random(9);
+    for (int t = 0; t < numThreads; t++) {
+      for (int i = 0; i < pairs[t].length; i++) {
+        pairs[t][i] = random.nextInt(numElements);
+      }
+    }
+
+    Thread[] threads = new Thread[numThreads];
+    for (int t = 0; t < numThreads; t++) {
+      final int id = t;
+      threads[t] = new Thread() {
+        public void run() {
+          for (int i = 0; i < pairs[id].length; i += 2) {
+            if (shared.unionIfDisjoint(pairs[id][i], pairs[id][i + 1])) {
+              merges[id]++;
+            }
+          }
+        }
+      };
+      threads[t].start();
+    }
+    for (int t = 0; t < numThreads; t++) {
+      threads[t].join();
+    }
+
+    DisjointSets reference = new DisjointSets(numElements);
+    int expectedMerges = 0;
+    int actualMerges = 0;
+    for (int t = 0; t < numThreads; t++) {
+      actualMerges += merges[t];
+      for (int i = 0; i < pairs[t].length; i += 2) {
+        if (reference.unionIfDisjoint(pairs[t][i], pairs[t][i + 1])) {
+          expectedMerges++;
+        }
+      }
+    }
+
+    boolean ok = actualMerges == expectedMerges
+      && shared.count() == reference.count();
+    for (int i = 1; i < numElements && ok; i++) {
+      int j = random.nextInt(numElements);
+      ok = shared.sameSet(i, j) == (reference.find(i) == reference.find(j));
+    }
+    System.out.println(numThreads + " threads, " + actualMerges
+                       + " merges, " + shared.count() + " sets: "
+                       + (ok ? "passed" : "FAILED"));
+  }
+}
@@ -17,6 +17,7 @@ package set;
 public class DisjointSets {
 
   private int[] array;
+  private int sets;
 
   /**
    *  Construct a disjoint sets object.
@@ -26,6 +27,7 @@ public class DisjointSets {
    **/
   public DisjointSets(int numElements) {
     array = new int [numElements];
+    sets = numElements;
     for (int i = 0; i < array.length; i++) {
       array[i] = -1;
     }
@@ -41,12 +43,14 @@ public class DisjointSets {
    *  @param root2 the root of the other set.
    **/
   public void union(int root1, int root2) {
-    if(array[root1] > 0 || array[root2] > 0){
+    if(array[root1] >= 0 || array[root2] >= 0){
       System.out.println("Trying to merge non-roots");
     }
     if(root1 == root2){
       System.out.println("attempting to merge same root");
+      return;                           // already one set; nothing to unite
     }
+    sets--;
     if (array[root2] < array[root1]) {                 // root2 has larger tree
       array[root2] += array[root1];        // update # of items in root2's tree
       array[root1] = root2;                              // make root2 new root
@@ -56,21 +60,55 @@ public class DisjointSets {
     }
   }
 
+  /**
+   *  count() returns the number of disjoint sets, which starts at the number
+   *  of elements and drops by one with every union().
+   *
+   *  @return the number of sets.
+   **/
+  public int count() {
+    return sets;
+  }
+
+  /**
+   *  unionIfDisjoint() unites the sets containing two elements, unless they
+   *  are already in the same set.  Unlike union(), it accepts any elements,
+   *  not just roots, and finds the roots itself.
+   *
+   *  @param x an element of the first set.
+   *  @param y an element of the other set.
+   *  @return true if the sets were disjoint and have been united; false if
+   *  x and y were already in the same set.
+   **/
+  public boolean unionIfDisjoint(int x, int y) {
+    int root1 = find(x);
+    int root2 = find(y);
+    if (root1 == root2) {
+      return false;
+    }
+    union(root1, root2);
+    return true;
+  }
+
   /**
    *  find() finds the (int) name of the set containing a given element.
-   *  Performs path compression along the way.
+   *  Performs path halving along the way:  every other element on the path
+   *  to the root is made to point to its grandparent.  The loop uses no
+   *  recursion, so it works on paths of any length.
    *
    *  @param x the element sought.
    *  @return the set containing x.
    **/
   public int find(int x) {
-    if (array[x] < 0) {
-      return x;                         // x is the root of the tree; return it
-    } else {
-      // Find out who the root is; compress path by making the root x's parent.
-      array[x] = find(array[x]);
-      return array[x];                                       // Return the root
+    while (array[x] >= 0) {
+      int parent = array[x];
+      if (array[parent] < 0) {
+        return parent;                            // parent is the root
+      }
+      array[x] = array[parent];      // skip x's parent; point to grandparent
+      x = array[x];
     }
+    return x;                           // x is the root of the tree; return it
   }
 
   /**